@@ -0,0 +1,18 @@
+package com.example.springmssqlapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+@Configuration
+@ConfigurationProperties(prefix = "bank-directory")
+@Data
+public class BankDirectoryProperties {
+
+    // CSV of "BIC,bank name" lines; dropping in a new file is picked up on the next reload check.
+    // The compiled binary index is written next to it as <source>.idx
+    private Path source = Paths.get("data", "bank-directory", "bic-directory.csv");
+}
@@ -0,0 +1,21 @@
+package com.example.springmssqlapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "blob-store")
+@Data
+public class BlobStoreProperties {
+
+    // Blobs live under <root>/<first two hex chars>/<sha-256>; uploads are staged in <root>/tmp
+    private Path root = Paths.get("data", "blobs");
+
+    // Unreferenced blobs younger than this are kept, so an upload whose row is not committed yet is never swept
+    private Duration orphanGracePeriod = Duration.ofHours(1);
+}
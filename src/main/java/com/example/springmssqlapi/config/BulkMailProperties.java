@@ -0,0 +1,28 @@
+package com.example.springmssqlapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "mail.bulk")
+@Data
+public class BulkMailProperties {
+
+    // Number of authenticated SMTP connections kept open and shared by the senders
+    private int poolSize = 2;
+
+    // Messages sent back-to-back over one borrowed connection
+    private int batchSize = 50;
+
+    // Provider limits: overall send rate (0 = unlimited) and messages per SMTP session
+    private double ratePerSecond = 0;
+    private int maxMessagesPerConnection = 100;
+
+    // Reconnect instead of reusing a connection the server has probably dropped
+    private Duration idleTimeout = Duration.ofSeconds(60);
+
+    private Duration borrowTimeout = Duration.ofSeconds(30);
+}
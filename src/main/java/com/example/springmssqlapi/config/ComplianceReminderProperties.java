@@ -0,0 +1,22 @@
+package com.example.springmssqlapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "compliance.reminders")
+@Data
+public class ComplianceReminderProperties {
+
+    // Days before expiry on which a vendor is reminded; 0 means on the expiry date itself
+    private List<Integer> leadDays = List.of(30, 7, 1);
+
+    // Compliance rows read, and digests queued, per transaction
+    private int batchSize = 500;
+
+    // Most days a single run catches up on after downtime; the rest are picked up by the next run
+    private int maxDaysPerRun = 31;
+}
@@ -0,0 +1,19 @@
+package com.example.springmssqlapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "document-upload")
+@Data
+public class DocumentUploadProperties {
+
+    // Resumable uploads not touched for this long are dropped together with their staged bytes
+    private Duration sessionTtl = Duration.ofHours(24);
+
+    // Upper bound on open resumable uploads; the least recently used are dropped first
+    private long maxSessions = 10_000;
+}
@@ -0,0 +1,28 @@
+package com.example.springmssqlapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "email.outbox")
+@Data
+public class EmailOutboxProperties {
+
+    // Delivery workers (each sends its batch over one pooled SMTP connection, so keep <= mail.bulk.pool-size)
+    // and how many committed mails may wait for one before falling back to the poller
+    private int workerThreads = 2;
+    private int queueCapacity = 500;
+
+    // Retry policy: exponential backoff from initialBackoff, capped at maxBackoff, then dead-lettered
+    private int maxAttempts = 5;
+    private Duration initialBackoff = Duration.ofSeconds(10);
+    private Duration maxBackoff = Duration.ofMinutes(10);
+
+    // How long a claimed row stays reserved for one worker before another may pick it up
+    private Duration lease = Duration.ofMinutes(2);
+
+    private int pollBatchSize = 100;
+}
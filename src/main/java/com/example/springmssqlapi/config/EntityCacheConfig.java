@@ -0,0 +1,73 @@
+package com.example.springmssqlapi.config;
+
+import com.example.springmssqlapi.entity.User;
+import com.example.springmssqlapi.entity.Vendor;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache regions for {@link User} and {@link Vendor}: one for entities by id
+ * and one for natural id (email) to id, each bounded by {@code entity-cache.max-size} and
+ * {@code entity-cache.time-to-live}. Regions are created here rather than on demand so none of
+ * them is ever unbounded; Hibernate is configured to fail on any region it cannot find.
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    private static final List<Class<?>> CACHED_ENTITIES = List.of(User.class, Vendor.class);
+    private static final String NATURAL_ID_REGION_SUFFIX = "##NaturalId";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(EntityCacheProperties properties) {
+        // A manager per application context, so test contexts in one JVM don't share regions
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("entity-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        for (String region : regionNames()) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(properties.getMaxSize()));
+            configuration.setExpireAfterWrite(OptionalLong.of(properties.getTimeToLive().toNanos()));
+            configuration.setStoreByValue(false);
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(region, configuration);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheHibernateProperties(CacheManager entityCacheManager) {
+        return hibernateProperties -> hibernateProperties.put("hibernate.javax.cache.cache_manager", entityCacheManager);
+    }
+
+    // cache.gets{result=hit|miss}, cache.puts, cache.evictions, cache.removals per region
+    @Bean
+    public MeterBinder entityCacheMetrics(CacheManager entityCacheManager) {
+        return registry -> {
+            for (String region : regionNames()) {
+                JCacheMetrics.monitor(registry, entityCacheManager.getCache(region));
+            }
+        };
+    }
+
+    private static List<String> regionNames() {
+        List<String> regions = new ArrayList<>();
+        for (Class<?> entity : CACHED_ENTITIES) {
+            regions.add(entity.getName());
+            regions.add(entity.getName() + NATURAL_ID_REGION_SUFFIX);
+        }
+        return regions;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.springmssqlapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "entity-cache")
+@Data
+public class EntityCacheProperties {
+
+    // Applied to each region (entity and natural-id, per cached entity)
+    private long maxSize = 10_000;
+
+    // Upper bound on staleness if a row is changed outside Hibernate (e.g. directly in SQL Server)
+    private Duration timeToLive = Duration.ofMinutes(10);
+}
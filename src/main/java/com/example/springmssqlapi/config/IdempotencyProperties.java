@@ -0,0 +1,24 @@
+package com.example.springmssqlapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "idempotency")
+@Data
+public class IdempotencyProperties {
+
+    // Upper bound on stored responses across all endpoints; requests still in flight do not count
+    private long maxKeys = 100_000;
+
+    // How long a response stays replayable after it was stored
+    private Duration ttl = Duration.ofHours(24);
+
+    // How long a duplicate waits for the first request with the same key before giving up with 409
+    private Duration inFlightTimeout = Duration.ofSeconds(30);
+
+    private int maxKeyLength = 255;
+}
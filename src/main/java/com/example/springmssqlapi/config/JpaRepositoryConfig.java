@@ -0,0 +1,10 @@
+package com.example.springmssqlapi.config;
+
+import com.example.springmssqlapi.repository.NaturalIdJpaRepository;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+@Configuration
+@EnableJpaRepositories(basePackages = "com.example.springmssqlapi.repository", repositoryBaseClass = NaturalIdJpaRepository.class)
+public class JpaRepositoryConfig {
+}
@@ -12,6 +12,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.example.springmssqlapi.service.JwtPrincipal;
 import com.example.springmssqlapi.service.JwtService;
 
 import java.io.IOException;
@@ -33,18 +34,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         String authHeader = request.getHeader("Authorization");
         
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
             String jwt = authHeader.substring(7);
             try {
-                String email = jwtService.extractEmail(jwt);
+                // Single parse + signature check; repeat tokens are served from the verified-token cache
+                JwtPrincipal principal = jwtService.verifyToken(jwt);
                 
-                if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    if (jwtService.validateToken(jwt, email)) {
-                        Authentication authentication = new UsernamePasswordAuthenticationToken(
-                            email, null, new ArrayList<>()
-                        );
-                        SecurityContextHolder.getContext().setAuthentication(authentication);
-                    }
+                if (principal.getEmail() != null) {
+                    Authentication authentication = new UsernamePasswordAuthenticationToken(
+                        principal.getEmail(), null, new ArrayList<>()
+                    );
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
                 }
             } catch (Exception e) {
                 log.warn("JWT token validation failed: {}", e.getMessage());
@@ -53,4 +54,4 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+}
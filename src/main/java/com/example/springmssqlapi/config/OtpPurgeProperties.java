@@ -0,0 +1,22 @@
+package com.example.springmssqlapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "otp.purge")
+@Data
+public class OtpPurgeProperties {
+
+    // Rows deleted per transaction; keep well below the database's lock escalation threshold (~5000 on SQL Server)
+    private int batchSize = 1000;
+
+    // Longest a single run may keep deleting; whatever is left is picked up by the next run
+    private Duration timeBudget = Duration.ofSeconds(30);
+
+    // Gap between chunks so concurrent OTP inserts and verifies get the table in between
+    private Duration pauseBetweenChunks = Duration.ofMillis(100);
+}
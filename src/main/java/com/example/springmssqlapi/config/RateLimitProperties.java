@@ -0,0 +1,46 @@
+package com.example.springmssqlapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "rate-limit")
+@Data
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Upper bound on emails/IPs tracked per bucket family; idle buckets are evicted first
+    private long maxKeys = 100_000;
+
+    // Header carrying the client address as appended by reverse proxies
+    private String clientIpHeader = "X-Forwarded-For";
+
+    // Proxies (addresses or CIDR ranges) whose forwarded header is believed; empty means the connection address is used
+    private List<String> trustedProxies = new ArrayList<>();
+
+    private Bucket sendOtpPerEmail = new Bucket(3, Duration.ofMinutes(2));
+    private Bucket sendOtpPerIp = new Bucket(20, Duration.ofSeconds(6));
+    private Bucket verifyOtpPerEmail = new Bucket(10, Duration.ofSeconds(30));
+    private Bucket verifyOtpPerIp = new Bucket(30, Duration.ofSeconds(2));
+
+    @Data
+    public static class Bucket {
+        // Requests allowed in a burst, and the time it takes to earn back one request
+        private int capacity;
+        private Duration refillInterval;
+
+        public Bucket() {
+        }
+
+        public Bucket(int capacity, Duration refillInterval) {
+            this.capacity = capacity;
+            this.refillInterval = refillInterval;
+        }
+    }
+}
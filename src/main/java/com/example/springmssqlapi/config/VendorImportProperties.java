@@ -0,0 +1,35 @@
+package com.example.springmssqlapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "vendor-import")
+@Data
+public class VendorImportProperties {
+
+    // Rows validated together and inserted in one transaction; progress advances a chunk at a time
+    private int chunkSize = 1000;
+
+    // Threads validating a chunk's rows; 0 uses one per available processor
+    private int parallelism = 0;
+
+    // Imports running at once; further submissions wait in QUEUED
+    private int maxConcurrentJobs = 2;
+
+    // Uploaded CSVs are spooled to a temporary file, so this bounds disk rather than heap
+    private DataSize maxFileSize = DataSize.ofMegabytes(200);
+
+    // Rejected rows reported per job; rejections beyond this are only counted
+    private int maxErrors = 1000;
+
+    // How long a job's status stays queryable after it was last looked at
+    private Duration retention = Duration.ofHours(24);
+
+    // Rows per JDBC batch statement (read by VendorBatchRepository)
+    private int jdbcBatchSize = 500;
+}
@@ -5,13 +5,19 @@ import com.example.springmssqlapi.dto.AuthResponse;
 import com.example.springmssqlapi.dto.SendOtpRequest;
 import com.example.springmssqlapi.dto.VerifyOtpRequest;
 import com.example.springmssqlapi.service.AuthService;
+import com.example.springmssqlapi.service.ClientIpResolver;
+import com.example.springmssqlapi.service.IdempotencyService;
+import com.example.springmssqlapi.service.RateLimitService;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Locale;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -19,25 +25,39 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
     
     private final AuthService authService;
+    private final RateLimitService rateLimitService;
+    private final ClientIpResolver clientIpResolver;
+    private final IdempotencyService idempotencyService;
     
     @PostMapping("/send-otp")
-    public ResponseEntity<ApiResponse> sendOtp(@Valid @RequestBody SendOtpRequest request) {
+    public ResponseEntity<ApiResponse> sendOtp(@Valid @RequestBody SendOtpRequest request,
+                                               @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                               HttpServletRequest httpRequest) {
         log.info("OTP request received for email: {} and company: {}", request.getEmail(), request.getCompany());
         
-        authService.sendOtp(request.getEmail());
-        
-        ApiResponse response = new ApiResponse(
-            true, 
-            "OTP has been sent to your email address. Please check your inbox."
-        );
-        
-        return ResponseEntity.ok(response);
+        // A retried key gets the original response back without issuing or mailing another code
+        String fingerprint = request.getEmail().trim().toLowerCase(Locale.ROOT);
+        return idempotencyService.execute("send-otp", idempotencyKey, fingerprint, () -> {
+            // Reject floods before any vendor/OTP writes or SMTP work
+            rateLimitService.checkSendOtp(request.getEmail(), clientIpResolver.resolve(httpRequest));
+            
+            authService.sendOtp(request.getEmail());
+            
+            ApiResponse response = new ApiResponse(
+                true, 
+                "OTP has been sent to your email address. Please check your inbox."
+            );
+            
+            return ResponseEntity.ok(response);
+        });
     }
     
     @PostMapping("/verify-otp")
-    public ResponseEntity<ApiResponse> verifyOtp(@Valid @RequestBody VerifyOtpRequest request) {
+    public ResponseEntity<ApiResponse> verifyOtp(@Valid @RequestBody VerifyOtpRequest request, HttpServletRequest httpRequest) {
         log.info("OTP verification request received for email: {}", request.getEmail());
         
+        rateLimitService.checkVerifyOtp(request.getEmail(), clientIpResolver.resolve(httpRequest));
+        
         AuthResponse authResponse = authService.verifyOtpAndAuthenticate(
             request.getEmail(), 
             request.getOtpCode()
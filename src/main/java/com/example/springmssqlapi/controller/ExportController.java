@@ -0,0 +1,68 @@
+package com.example.springmssqlapi.controller;
+
+import com.example.springmssqlapi.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/export")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Export", description = "Full-table NDJSON dumps for reconciliation jobs")
+public class ExportController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final ExportService exportService;
+
+    @GetMapping(value = "/users", produces = NDJSON)
+    @Operation(
+        summary = "Export all users",
+        description = "Streams every user as newline-delimited JSON, one object per line, in ID order"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streamed successfully")
+    })
+    public void exportUsers(HttpServletResponse response) throws IOException {
+        log.info("GET /export/users - Starting user export");
+
+        prepare(response, "users.ndjson");
+        long rows = exportService.exportUsers(response.getOutputStream());
+
+        log.info("GET /export/users - Streamed {} users", rows);
+    }
+
+    @GetMapping(value = "/vendors", produces = NDJSON)
+    @Operation(
+        summary = "Export all vendors",
+        description = "Streams every vendor as newline-delimited JSON, one object per line, in ID order"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streamed successfully")
+    })
+    public void exportVendors(HttpServletResponse response) throws IOException {
+        log.info("GET /export/vendors - Starting vendor export");
+
+        prepare(response, "vendors.ndjson");
+        long rows = exportService.exportVendors(response.getOutputStream());
+
+        log.info("GET /export/vendors - Streamed {} vendors", rows);
+    }
+
+    private static void prepare(HttpServletResponse response, String fileName) {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+    }
+}
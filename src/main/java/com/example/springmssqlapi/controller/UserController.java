@@ -1,6 +1,13 @@
 package com.example.springmssqlapi.controller;
 
+import com.example.springmssqlapi.dto.BatchItemResult;
+import com.example.springmssqlapi.dto.CursorPage;
+import com.example.springmssqlapi.dto.UserPatchRequest;
+import com.example.springmssqlapi.dto.UserSummary;
+import com.example.springmssqlapi.dto.UserView;
 import com.example.springmssqlapi.entity.User;
+import com.example.springmssqlapi.service.IdempotencyService;
+import com.example.springmssqlapi.service.UserSearchService;
 import com.example.springmssqlapi.service.UserService;
 import com.example.springmssqlapi.service.EmailService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,13 +17,17 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.validation.Valid;
+import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -28,7 +39,9 @@ import java.util.Map;
 public class UserController {
 
     private final UserService userService;
+    private final UserSearchService userSearchService;
     private final EmailService emailService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
     @Operation(
@@ -37,47 +50,149 @@ public class UserController {
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "User created successfully",
-            content = @Content(schema = @Schema(implementation = User.class))),
+            content = @Content(schema = @Schema(implementation = UserView.class))),
         @ApiResponse(responseCode = "400", description = "Invalid input data"),
         @ApiResponse(responseCode = "409", description = "Email already exists")
     })
-    public ResponseEntity<User> createUser(
+    public ResponseEntity<UserView> createUser(
             @Parameter(description = "User data to create", required = true)
-            @Valid @RequestBody User user) {
+            @Valid @RequestBody User user,
+            @Parameter(description = "Client-chosen key; a retry with the same key replays the original response")
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey) {
 
         log.info("POST /users - Creating new user with email: {}", user.getEmail());
 
-        User savedUser = userService.saveUser(user);
+        List<Object> fingerprint = Arrays.asList(user.getName(), user.getEmail(), user.getEmailVerified());
+        return idempotencyService.execute("create-user", idempotencyKey, fingerprint, () -> {
+            // Welcome email is queued in the same transaction and delivered after commit
+            User savedUser = userService.saveUser(user);
+
+            log.info("POST /users - Successfully created user with ID: {}", savedUser.getId());
+            // The response may be replayed for a retry, so it must not hold on to the entity
+            UserView view = new UserView(savedUser.getId(), savedUser.getName(), savedUser.getEmail(),
+                savedUser.getEmailVerified(), savedUser.getVersion());
+            return new ResponseEntity<>(view, HttpStatus.CREATED);
+        });
+    }
 
-        // Send welcome email
-        try {
-            emailService.sendWelcomeEmail(savedUser.getEmail(), savedUser.getName());
-            log.info("Welcome email sent successfully to: {}", savedUser.getEmail());
-        } catch (Exception e) {
-            log.error("Failed to send welcome email to {}: {}", savedUser.getEmail(), e.getMessage());
-            // Don't fail user creation if email fails, just log the error
-        }
+    @GetMapping
+    @Operation(
+        summary = "List users",
+        description = "Retrieves users in ID order, one page at a time. Pass the returned nextCursor as 'after' " +
+            "(or follow the 'next' link) to fetch the following page."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Users retrieved successfully"),
+        @ApiResponse(responseCode = "304", description = "Page unchanged since the ETag given in If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "Invalid paging parameters")
+    })
+    public ResponseEntity<CursorPage<UserSummary>> getAllUsers(
+            @Parameter(description = "Return users with an ID greater than this cursor")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Page size (capped at users.page.max-size)")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Only users whose email verification status matches")
+            @RequestParam(required = false) Boolean emailVerified,
+            @Parameter(description = "Only users whose name contains this text")
+            @RequestParam(required = false) String name) {
+
+        log.info("GET /users - Fetching users after cursor: {}", after);
+
+        CursorPage<UserSummary> page = userService.getUsers(after, limit, emailVerified, name);
+
+        String next = page.getNextCursor() == null ? null : ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", page.getNextCursor())
+                .toUriString();
+
+        log.info("GET /users - Returning {} users, next cursor: {}", page.getItems().size(), page.getNextCursor());
+        // A matching If-None-Match turns this into a 304 before the page is serialized
+        return ResponseEntity.ok()
+            .eTag(pageEtag(page))
+            .body(new CursorPage<>(page.getItems(), page.getNextCursor(), next));
+    }
+
+    @GetMapping("/search")
+    @Operation(
+        summary = "Search users (typeahead)",
+        description = "Returns the best matching users whose name or email contains the query, best match first. " +
+            "Queries shorter than three characters match the start of a word"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Matches returned successfully"),
+        @ApiResponse(responseCode = "400", description = "Empty query")
+    })
+    public ResponseEntity<List<UserSummary>> searchUsers(
+            @Parameter(description = "Text to search for in user names and emails", required = true)
+            @RequestParam String q,
+            @Parameter(description = "Maximum number of matches (capped at users.search.max-limit)")
+            @RequestParam(required = false) Integer limit) {
 
-        log.info("POST /users - Successfully created user with ID: {}", savedUser.getId());
-        return new ResponseEntity<>(savedUser, HttpStatus.CREATED);
+        log.debug("GET /users/search - Searching users for: {}", q);
+
+        List<UserSummary> matches = userSearchService.search(q, limit);
+
+        return new ResponseEntity<>(matches, HttpStatus.OK);
     }
 
-    @GetMapping
+    @GetMapping("/batch")
     @Operation(
-        summary = "Get all users",
-        description = "Retrieves a list of all users in the system"
+        summary = "Get users by IDs",
+        description = "Retrieves many users in one query; results are returned per requested ID, in request order"
     )
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Users retrieved successfully",
-            content = @Content(schema = @Schema(implementation = User.class)))
+        @ApiResponse(responseCode = "200", description = "Lookup completed; see per-item status"),
+        @ApiResponse(responseCode = "400", description = "No IDs, or more than users.batch.max-size")
     })
-    public ResponseEntity<List<User>> getAllUsers() {
-        log.info("GET /users - Fetching all users");
+    public ResponseEntity<List<BatchItemResult<UserSummary>>> getUsersByIds(
+            @Parameter(description = "Comma-separated user IDs", required = true)
+            @RequestParam List<Long> ids) {
+
+        log.info("GET /users/batch - Fetching {} users", ids.size());
 
-        List<User> users = userService.getAllUsers();
+        List<BatchItemResult<UserSummary>> results = userService.getUsersByIds(ids);
 
-        log.info("GET /users - Returning {} users", users.size());
-        return new ResponseEntity<>(users, HttpStatus.OK);
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
+    @PostMapping("/batch")
+    @Operation(
+        summary = "Create users in bulk",
+        description = "Creates many users in one request. Invalid items and emails that already exist are reported " +
+            "per item; the rest are created and sent welcome emails"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed; see per-item status"),
+        @ApiResponse(responseCode = "400", description = "Empty batch, or more than users.batch.max-size")
+    })
+    public ResponseEntity<List<BatchItemResult<UserSummary>>> createUsers(
+            @Parameter(description = "Users to create", required = true)
+            @RequestBody List<User> users) {
+
+        log.info("POST /users/batch - Creating {} users", users.size());
+
+        List<BatchItemResult<UserSummary>> results = userService.createUsers(users);
+
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
+    @DeleteMapping("/batch")
+    @Operation(
+        summary = "Delete users in bulk",
+        description = "Deletes many users in one statement; results are returned per requested ID, in request order"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed; see per-item status"),
+        @ApiResponse(responseCode = "400", description = "No IDs, or more than users.batch.max-size")
+    })
+    public ResponseEntity<List<BatchItemResult<UserSummary>>> deleteUsers(
+            @Parameter(description = "Comma-separated user IDs", required = true)
+            @RequestParam List<Long> ids) {
+
+        log.info("DELETE /users/batch - Deleting {} users", ids.size());
+
+        List<BatchItemResult<UserSummary>> results = userService.deleteUsers(ids);
+
+        return new ResponseEntity<>(results, HttpStatus.OK);
     }
 
     @GetMapping("/{id}")
@@ -87,19 +202,21 @@ public class UserController {
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "User found successfully",
-            content = @Content(schema = @Schema(implementation = User.class))),
+            content = @Content(schema = @Schema(implementation = UserView.class))),
+        @ApiResponse(responseCode = "304", description = "User unchanged since the ETag given in If-None-Match"),
         @ApiResponse(responseCode = "404", description = "User not found")
     })
-    public ResponseEntity<User> getUserById(
+    public ResponseEntity<UserView> getUserById(
             @Parameter(description = "ID of the user to retrieve", required = true)
             @PathVariable Long id) {
 
         log.info("GET /users/{} - Fetching user by ID", id);
 
-        User user = userService.getUser(id);
+        // Usually a second-level cache hit; a matching If-None-Match then becomes a 304 without serializing
+        UserView user = userService.getUserView(id);
 
         log.info("GET /users/{} - Successfully found user with email: {}", id, user.getEmail());
-        return new ResponseEntity<>(user, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(versionEtag(user.getVersion())).body(user);
     }
 
     @GetMapping("/email/{email}")
@@ -109,19 +226,20 @@ public class UserController {
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "User found successfully",
-            content = @Content(schema = @Schema(implementation = User.class))),
+            content = @Content(schema = @Schema(implementation = UserView.class))),
+        @ApiResponse(responseCode = "304", description = "User unchanged since the ETag given in If-None-Match"),
         @ApiResponse(responseCode = "404", description = "User not found")
     })
-    public ResponseEntity<User> getUserByEmail(
+    public ResponseEntity<UserView> getUserByEmail(
             @Parameter(description = "Email of the user to retrieve", required = true)
             @PathVariable String email) {
 
         log.info("GET /users/email/{} - Fetching user by email", email);
 
-        User user = userService.getUserByEmail(email);
+        UserView user = userService.getUserViewByEmail(email);
 
         log.info("GET /users/email/{} - Successfully found user with ID: {}", email, user.getId());
-        return new ResponseEntity<>(user, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(versionEtag(user.getVersion())).body(user);
     }
 
     @PutMapping("/{id}")
@@ -134,7 +252,7 @@ public class UserController {
             content = @Content(schema = @Schema(implementation = User.class))),
         @ApiResponse(responseCode = "400", description = "Invalid input data"),
         @ApiResponse(responseCode = "404", description = "User not found"),
-        @ApiResponse(responseCode = "409", description = "Email already exists")
+        @ApiResponse(responseCode = "409", description = "Email already exists, or the user was modified concurrently")
     })
     public ResponseEntity<User> updateUser(
             @Parameter(description = "ID of the user to update", required = true)
@@ -147,7 +265,34 @@ public class UserController {
         User updatedUser = userService.updateUser(id, userDetails);
 
         log.info("PUT /users/{} - Successfully updated user", id);
-        return new ResponseEntity<>(updatedUser, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(versionEtag(updatedUser.getVersion())).body(updatedUser);
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(
+        summary = "Partially update user",
+        description = "Changes only the supplied fields. Pass the version last read to reject the change if the " +
+            "user has been modified since"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "User updated successfully",
+            content = @Content(schema = @Schema(implementation = User.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input data, or email already in use"),
+        @ApiResponse(responseCode = "404", description = "User not found"),
+        @ApiResponse(responseCode = "409", description = "The user was modified since the given version, or concurrently")
+    })
+    public ResponseEntity<User> patchUser(
+            @Parameter(description = "ID of the user to update", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Fields to change", required = true)
+            @Valid @RequestBody UserPatchRequest patch) {
+
+        log.info("PATCH /users/{} - Patching user", id);
+
+        User patchedUser = userService.patchUser(id, patch);
+
+        log.info("PATCH /users/{} - Successfully patched user, now at version {}", id, patchedUser.getVersion());
+        return ResponseEntity.ok().eTag(versionEtag(patchedUser.getVersion())).body(patchedUser);
     }
 
     @DeleteMapping("/{id}")
@@ -229,4 +374,22 @@ public class UserController {
                     .body(Map.of("error", "Failed to send email: " + e.getMessage()));
         }
     }
+
+    // The version changes on every write, so it identifies the representation of a single user
+    private static String versionEtag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // Hash of exactly the fields serialized for the page, so it changes whenever the JSON would
+    private static String pageEtag(CursorPage<UserSummary> page) {
+        StringBuilder content = new StringBuilder();
+        for (UserSummary user : page.getItems()) {
+            content.append(user.getId()).append('\u0000')
+                .append(user.getName()).append('\u0000')
+                .append(user.getEmail()).append('\u0000')
+                .append(user.getEmailVerified()).append('\n');
+        }
+        content.append(page.getNextCursor());
+        return "\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
 }
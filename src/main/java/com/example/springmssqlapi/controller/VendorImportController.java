@@ -0,0 +1,78 @@
+package com.example.springmssqlapi.controller;
+
+import com.example.springmssqlapi.dto.VendorImportStatus;
+import com.example.springmssqlapi.service.VendorImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/vendors/imports")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Vendor Import", description = "Bulk import of vendors and their onboarding sections from CSV")
+public class VendorImportController {
+
+    private final VendorImportService vendorImportService;
+
+    @PostMapping
+    @Operation(
+        summary = "Start a vendor import",
+        description = "Queues the CSV request body for import and returns the job to poll. The header row names the columns: " +
+            "email, name, phoneNumber, and business.*, banking.*, compliance.* or contact.* followed by a section field"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Import queued"),
+        @ApiResponse(responseCode = "400", description = "Empty file"),
+        @ApiResponse(responseCode = "413", description = "File too large")
+    })
+    public ResponseEntity<VendorImportStatus> startImport(
+            @Parameter(description = "Name of the uploaded file, for reference")
+            @RequestParam(required = false) String filename,
+            @RequestHeader(name = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength,
+            InputStream content) throws IOException {
+
+        log.info("POST /api/vendors/imports - Importing {}", filename);
+
+        VendorImportStatus status = vendorImportService.submit(filename, contentLength, content);
+
+        return ResponseEntity.accepted()
+            .location(importLocation(status.getJobId()))
+            .body(status);
+    }
+
+    @GetMapping("/{jobId}")
+    @Operation(
+        summary = "Get import progress",
+        description = "Returns the job's state, row counts, throughput and rejected rows so far"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Status retrieved successfully"),
+        @ApiResponse(responseCode = "404", description = "Unknown or expired import")
+    })
+    public ResponseEntity<VendorImportStatus> getImport(
+            @Parameter(description = "ID of the import job", required = true)
+            @PathVariable String jobId) {
+
+        return ResponseEntity.ok(vendorImportService.status(jobId));
+    }
+
+    private static URI importLocation(String jobId) {
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+            .path("/api/vendors/imports/{jobId}")
+            .buildAndExpand(jobId)
+            .toUri();
+    }
+}
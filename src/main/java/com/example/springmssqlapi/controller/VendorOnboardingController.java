@@ -0,0 +1,451 @@
+package com.example.springmssqlapi.controller;
+
+import com.example.springmssqlapi.dto.BusinessDetailsSubmission;
+import com.example.springmssqlapi.dto.OnboardingStatus;
+import com.example.springmssqlapi.dto.UploadStatus;
+import com.example.springmssqlapi.entity.BankingDetails;
+import com.example.springmssqlapi.entity.BusinessDetails;
+import com.example.springmssqlapi.entity.ComplianceDetails;
+import com.example.springmssqlapi.entity.ContactDetails;
+import com.example.springmssqlapi.entity.OnboardingSection;
+import com.example.springmssqlapi.entity.VendorDocument;
+import com.example.springmssqlapi.exception.BadRequestException;
+import com.example.springmssqlapi.service.DocumentUploadService;
+import com.example.springmssqlapi.service.VendorDuplicateService;
+import com.example.springmssqlapi.service.VendorOnboardingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import javax.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/vendors/{vendorId}/onboarding")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Vendor Onboarding", description = "Submit and read the vendor onboarding sections and their documents")
+public class VendorOnboardingController {
+
+    // Bytes received so far in a resumable upload, as in the tus protocol
+    private static final String UPLOAD_OFFSET = "Upload-Offset";
+
+    private final VendorOnboardingService onboardingService;
+    private final DocumentUploadService documentUploadService;
+    private final VendorDuplicateService vendorDuplicateService;
+
+    @GetMapping
+    @Operation(
+        summary = "Get onboarding status",
+        description = "Lists which sections and documents the vendor has submitted"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Status retrieved successfully"),
+        @ApiResponse(responseCode = "404", description = "Vendor not found")
+    })
+    public ResponseEntity<OnboardingStatus> getStatus(
+            @Parameter(description = "ID of the vendor", required = true)
+            @PathVariable Long vendorId) {
+
+        log.info("GET /api/vendors/{}/onboarding - Fetching onboarding status", vendorId);
+
+        return ResponseEntity.ok(onboardingService.getStatus(vendorId));
+    }
+
+    @PutMapping("/business")
+    @Operation(
+        summary = "Submit business details",
+        description = "Creates or replaces the vendor's business details. Existing vendors with a similar legal name " +
+            "or address are listed in possibleDuplicates; they do not block the submission"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Business details saved successfully, with any likely duplicate vendors"),
+        @ApiResponse(responseCode = "400", description = "Invalid input data, or business registration number already registered"),
+        @ApiResponse(responseCode = "404", description = "Vendor not found")
+    })
+    public ResponseEntity<BusinessDetailsSubmission> saveBusinessDetails(
+            @Parameter(description = "ID of the vendor", required = true)
+            @PathVariable Long vendorId,
+            @Parameter(description = "Business details", required = true)
+            @Valid @RequestBody BusinessDetails details) {
+
+        log.info("PUT /api/vendors/{}/onboarding/business - Saving business details", vendorId);
+
+        BusinessDetails saved = onboardingService.saveBusinessDetails(vendorId, details);
+
+        return ResponseEntity.ok(new BusinessDetailsSubmission(saved, vendorDuplicateService.findPossibleDuplicates(vendorId, saved)));
+    }
+
+    @GetMapping("/business")
+    @Operation(
+        summary = "Get business details",
+        description = "Retrieves the vendor's business details without loading any other section"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Business details found"),
+        @ApiResponse(responseCode = "404", description = "No business details submitted for this vendor")
+    })
+    public ResponseEntity<BusinessDetails> getBusinessDetails(
+            @Parameter(description = "ID of the vendor", required = true)
+            @PathVariable Long vendorId) {
+
+        log.info("GET /api/vendors/{}/onboarding/business - Fetching business details", vendorId);
+
+        return ResponseEntity.ok(onboardingService.getBusinessDetails(vendorId));
+    }
+
+    @PutMapping("/banking")
+    @Operation(
+        summary = "Submit banking details",
+        description = "Creates or replaces the vendor's banking details"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Banking details saved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid input data"),
+        @ApiResponse(responseCode = "404", description = "Vendor not found")
+    })
+    public ResponseEntity<BankingDetails> saveBankingDetails(
+            @Parameter(description = "ID of the vendor", required = true)
+            @PathVariable Long vendorId,
+            @Parameter(description = "Banking details", required = true)
+            @Valid @RequestBody BankingDetails details) {
+
+        log.info("PUT /api/vendors/{}/onboarding/banking - Saving banking details", vendorId);
+
+        return ResponseEntity.ok(onboardingService.saveBankingDetails(vendorId, details));
+    }
+
+    @GetMapping("/banking")
+    @Operation(
+        summary = "Get banking details",
+        description = "Retrieves the vendor's banking details without loading any other section"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Banking details found"),
+        @ApiResponse(responseCode = "404", description = "No banking details submitted for this vendor")
+    })
+    public ResponseEntity<BankingDetails> getBankingDetails(
+            @Parameter(description = "ID of the vendor", required = true)
+            @PathVariable Long vendorId) {
+
+        log.info("GET /api/vendors/{}/onboarding/banking - Fetching banking details", vendorId);
+
+        return ResponseEntity.ok(onboardingService.getBankingDetails(vendorId));
+    }
+
+    @PutMapping("/compliance")
+    @Operation(
+        summary = "Submit compliance details",
+        description = "Creates or replaces the vendor's compliance details"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Compliance details saved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid input data"),
+        @ApiResponse(responseCode = "404", description = "Vendor not found")
+    })
+    public ResponseEntity<ComplianceDetails> saveComplianceDetails(
+            @Parameter(description = "ID of the vendor", required = true)
+            @PathVariable Long vendorId,
+            @Parameter(description = "Compliance details", required = true)
+            @Valid @RequestBody ComplianceDetails details) {
+
+        log.info("PUT /api/vendors/{}/onboarding/compliance - Saving compliance details", vendorId);
+
+        return ResponseEntity.ok(onboardingService.saveComplianceDetails(vendorId, details));
+    }
+
+    @GetMapping("/compliance")
+    @Operation(
+        summary = "Get compliance details",
+        description = "Retrieves the vendor's compliance details without loading any other section"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Compliance details found"),
+        @ApiResponse(responseCode = "404", description = "No compliance details submitted for this vendor")
+    })
+    public ResponseEntity<ComplianceDetails> getComplianceDetails(
+            @Parameter(description = "ID of the vendor", required = true)
+            @PathVariable Long vendorId) {
+
+        log.info("GET /api/vendors/{}/onboarding/compliance - Fetching compliance details", vendorId);
+
+        return ResponseEntity.ok(onboardingService.getComplianceDetails(vendorId));
+    }
+
+    @PutMapping("/contact")
+    @Operation(
+        summary = "Submit contact details",
+        description = "Creates or replaces the vendor's contact details"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Contact details saved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid input data"),
+        @ApiResponse(responseCode = "404", description = "Vendor not found")
+    })
+    public ResponseEntity<ContactDetails> saveContactDetails(
+            @Parameter(description = "ID of the vendor", required = true)
+            @PathVariable Long vendorId,
+            @Parameter(description = "Contact details", required = true)
+            @Valid @RequestBody ContactDetails details) {
+
+        log.info("PUT /api/vendors/{}/onboarding/contact - Saving contact details", vendorId);
+
+        return ResponseEntity.ok(onboardingService.saveContactDetails(vendorId, details));
+    }
+
+    @GetMapping("/contact")
+    @Operation(
+        summary = "Get contact details",
+        description = "Retrieves the vendor's contact details without loading any other section"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Contact details found"),
+        @ApiResponse(responseCode = "404", description = "No contact details submitted for this vendor")
+    })
+    public ResponseEntity<ContactDetails> getContactDetails(
+            @Parameter(description = "ID of the vendor", required = true)
+            @PathVariable Long vendorId) {
+
+        log.info("GET /api/vendors/{}/onboarding/contact - Fetching contact details", vendorId);
+
+        return ResponseEntity.ok(onboardingService.getContactDetails(vendorId));
+    }
+
+    @PutMapping("/{section}/document")
+    @Operation(
+        summary = "Upload section document",
+        description = "Streams the request body into the blob store as the supporting document for a section, replacing any earlier one"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Document stored successfully"),
+        @ApiResponse(responseCode = "400", description = "Unknown section or empty document"),
+        @ApiResponse(responseCode = "404", description = "Vendor not found"),
+        @ApiResponse(responseCode = "413", description = "Document too large")
+    })
+    public ResponseEntity<Map<String, Object>> uploadDocument(
+            @Parameter(description = "ID of the vendor", required = true)
+            @PathVariable Long vendorId,
+            @Parameter(description = "Section: business, banking, compliance or contact", required = true)
+            @PathVariable String section,
+            @Parameter(description = "Original filename of the document", required = true)
+            @RequestParam String filename,
+            @RequestHeader(name = HttpHeaders.CONTENT_TYPE, defaultValue = MediaType.APPLICATION_OCTET_STREAM_VALUE) String contentType,
+            @RequestHeader(name = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength,
+            InputStream content) throws IOException {
+
+        log.info("PUT /api/vendors/{}/onboarding/{}/document - Uploading document", vendorId, section);
+
+        VendorDocument document = documentUploadService.upload(vendorId, parseSection(section), filename, contentType, contentLength, content);
+
+        return ResponseEntity.ok(documentSummary(document));
+    }
+
+    @PostMapping(value = "/{section}/document", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+        summary = "Upload section document as multipart form data",
+        description = "Streams the 'file' part into the blob store as the supporting document for a section, replacing any earlier one"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Document stored successfully"),
+        @ApiResponse(responseCode = "400", description = "Unknown section or empty document"),
+        @ApiResponse(responseCode = "404", description = "Vendor not found"),
+        @ApiResponse(responseCode = "413", description = "Document too large")
+    })
+    public ResponseEntity<Map<String, Object>> uploadMultipartDocument(
+            @Parameter(description = "ID of the vendor", required = true)
+            @PathVariable Long vendorId,
+            @Parameter(description = "Section: business, banking, compliance or contact", required = true)
+            @PathVariable String section,
+            @Parameter(description = "The document", required = true)
+            @RequestPart("file") MultipartFile file) throws IOException {
+
+        log.info("POST /api/vendors/{}/onboarding/{}/document - Uploading {} ({} bytes)", vendorId, section, file.getOriginalFilename(), file.getSize());
+
+        String contentType = file.getContentType() != null ? file.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        VendorDocument document;
+        try (InputStream content = file.getInputStream()) {
+            document = documentUploadService.upload(vendorId, parseSection(section), file.getOriginalFilename(), contentType, file.getSize(), content);
+        }
+
+        return ResponseEntity.ok(documentSummary(document));
+    }
+
+    @PostMapping("/{section}/uploads")
+    @Operation(
+        summary = "Start a resumable document upload",
+        description = "Opens an upload of totalSize bytes that is then sent in chunks with PATCH; the document is stored once the last byte arrives"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Upload started"),
+        @ApiResponse(responseCode = "400", description = "Unknown section or invalid size"),
+        @ApiResponse(responseCode = "404", description = "Vendor not found"),
+        @ApiResponse(responseCode = "413", description = "Document too large")
+    })
+    public ResponseEntity<UploadStatus> startUpload(
+            @Parameter(description = "ID of the vendor", required = true)
+            @PathVariable Long vendorId,
+            @Parameter(description = "Section: business, banking, compliance or contact", required = true)
+            @PathVariable String section,
+            @Parameter(description = "Original filename of the document", required = true)
+            @RequestParam String filename,
+            @Parameter(description = "Size of the whole document in bytes", required = true)
+            @RequestParam long totalSize,
+            @Parameter(description = "Content type of the document")
+            @RequestParam(defaultValue = MediaType.APPLICATION_OCTET_STREAM_VALUE) String contentType) throws IOException {
+
+        log.info("POST /api/vendors/{}/onboarding/{}/uploads - Starting upload of {} bytes", vendorId, section, totalSize);
+
+        UploadStatus status = documentUploadService.start(vendorId, parseSection(section), filename, contentType, totalSize);
+
+        return ResponseEntity.created(uploadLocation(vendorId, section, status.getUploadId()))
+            .header(UPLOAD_OFFSET, String.valueOf(status.getOffset()))
+            .body(status);
+    }
+
+    @GetMapping("/{section}/uploads/{uploadId}")
+    @Operation(
+        summary = "Get resumable upload progress",
+        description = "Returns the number of bytes received so far, which is where the next chunk must start"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Upload in progress"),
+        @ApiResponse(responseCode = "404", description = "Upload not found, already completed or expired")
+    })
+    public ResponseEntity<UploadStatus> getUpload(
+            @Parameter(description = "ID of the vendor", required = true)
+            @PathVariable Long vendorId,
+            @Parameter(description = "Section: business, banking, compliance or contact", required = true)
+            @PathVariable String section,
+            @Parameter(description = "ID of the upload", required = true)
+            @PathVariable String uploadId) {
+
+        UploadStatus status = documentUploadService.status(vendorId, parseSection(section), uploadId);
+
+        return ResponseEntity.ok()
+            .header(UPLOAD_OFFSET, String.valueOf(status.getOffset()))
+            .body(status);
+    }
+
+    @PatchMapping("/{section}/uploads/{uploadId}")
+    @Operation(
+        summary = "Send a chunk of a resumable upload",
+        description = "Appends the request body at the offset given in the Upload-Offset header. The chunk that completes the upload stores the document"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Chunk stored"),
+        @ApiResponse(responseCode = "404", description = "Upload not found, already completed or expired"),
+        @ApiResponse(responseCode = "409", description = "Offset does not match the bytes received so far, or another chunk is in progress"),
+        @ApiResponse(responseCode = "413", description = "Chunk goes past the declared total size")
+    })
+    public ResponseEntity<UploadStatus> appendUploadChunk(
+            @Parameter(description = "ID of the vendor", required = true)
+            @PathVariable Long vendorId,
+            @Parameter(description = "Section: business, banking, compliance or contact", required = true)
+            @PathVariable String section,
+            @Parameter(description = "ID of the upload", required = true)
+            @PathVariable String uploadId,
+            @Parameter(description = "Position of the first byte of this chunk", required = true)
+            @RequestHeader(UPLOAD_OFFSET) long offset,
+            @RequestHeader(name = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength,
+            InputStream content) throws IOException {
+
+        log.info("PATCH /api/vendors/{}/onboarding/{}/uploads/{} - Receiving chunk at offset {}", vendorId, section, uploadId, offset);
+
+        UploadStatus status = documentUploadService.appendChunk(vendorId, parseSection(section), uploadId, offset, contentLength, content);
+
+        return ResponseEntity.ok()
+            .header(UPLOAD_OFFSET, String.valueOf(status.getOffset()))
+            .body(status);
+    }
+
+    @DeleteMapping("/{section}/uploads/{uploadId}")
+    @Operation(
+        summary = "Cancel a resumable upload",
+        description = "Discards the upload and the bytes received so far"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Upload cancelled"),
+        @ApiResponse(responseCode = "404", description = "Upload not found, already completed or expired")
+    })
+    public ResponseEntity<Void> cancelUpload(
+            @Parameter(description = "ID of the vendor", required = true)
+            @PathVariable Long vendorId,
+            @Parameter(description = "Section: business, banking, compliance or contact", required = true)
+            @PathVariable String section,
+            @Parameter(description = "ID of the upload", required = true)
+            @PathVariable String uploadId) throws IOException {
+
+        log.info("DELETE /api/vendors/{}/onboarding/{}/uploads/{} - Cancelling upload", vendorId, section, uploadId);
+
+        documentUploadService.cancel(vendorId, parseSection(section), uploadId);
+
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{section}/document")
+    @Operation(
+        summary = "Download section document",
+        description = "Streams the supporting document for a section from the blob store. Supports Range requests and If-None-Match on the content hash"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Document returned"),
+        @ApiResponse(responseCode = "206", description = "Requested byte range returned"),
+        @ApiResponse(responseCode = "304", description = "Document unchanged since the supplied ETag"),
+        @ApiResponse(responseCode = "400", description = "Unknown section"),
+        @ApiResponse(responseCode = "404", description = "No document uploaded for this section")
+    })
+    public ResponseEntity<Resource> downloadDocument(
+            @Parameter(description = "ID of the vendor", required = true)
+            @PathVariable Long vendorId,
+            @Parameter(description = "Section: business, banking, compliance or contact", required = true)
+            @PathVariable String section) {
+
+        log.info("GET /api/vendors/{}/onboarding/{}/document - Downloading document", vendorId, section);
+
+        VendorDocument document = onboardingService.getDocument(vendorId, parseSection(section));
+
+        // Spring turns a Range header on a Resource body into 206 with ResourceRegions, streamed from the file
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(document.getContentType()))
+            .eTag("\"" + document.getContentHash() + "\"")
+            .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(document.getFilename()).build().toString())
+            .body(onboardingService.getDocumentContent(document));
+    }
+
+    private static Map<String, Object> documentSummary(VendorDocument document) {
+        return Map.of(
+            "section", document.getSection().path(),
+            "filename", document.getFilename(),
+            "contentType", document.getContentType(),
+            "sizeBytes", document.getSizeBytes()
+        );
+    }
+
+    private static URI uploadLocation(Long vendorId, String section, String uploadId) {
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+            .path("/api/vendors/{vendorId}/onboarding/{section}/uploads/{uploadId}")
+            .buildAndExpand(vendorId, section, uploadId)
+            .toUri();
+    }
+
+    private static OnboardingSection parseSection(String section) {
+        return OnboardingSection.fromPath(section)
+            .orElseThrow(() -> new BadRequestException("Unknown onboarding section: " + section));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.springmssqlapi.controller;
+
+import com.example.springmssqlapi.dto.VendorFacetSearchResult;
+import com.example.springmssqlapi.service.VendorFacetIndex.Facet;
+import com.example.springmssqlapi.service.VendorFacetService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/vendors/search")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Vendor Search", description = "Faceted vendor filtering with live counts")
+public class VendorSearchController {
+
+    private final VendorFacetService vendorFacetService;
+
+    @GetMapping
+    @Operation(
+        summary = "Filter vendors by facet",
+        description = "Values repeated within a facet are alternatives; different facets must all match. " +
+            "Facet counts for each facet ignore that facet's own filter, so the other values stay selectable"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Matching vendors and facet counts"),
+        @ApiResponse(responseCode = "503", description = "Search index still loading after startup")
+    })
+    public ResponseEntity<VendorFacetSearchResult> search(
+            @Parameter(description = "Industry sectors, e.g. Technology")
+            @RequestParam(required = false) List<String> industrySector,
+            @Parameter(description = "Business types, e.g. LLC")
+            @RequestParam(required = false) List<String> businessType,
+            @Parameter(description = "Currencies, e.g. USD")
+            @RequestParam(required = false) List<String> currency,
+            @Parameter(description = "Payment terms, e.g. Net 30")
+            @RequestParam(required = false) List<String> paymentTerms,
+            @Parameter(description = "Active state")
+            @RequestParam(required = false) Boolean active,
+            @Parameter(description = "Cursor from the previous page's nextCursor")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Page size (default 20, max 100)")
+            @RequestParam(required = false) Integer limit) {
+
+        Map<Facet, Set<String>> filters = new EnumMap<>(Facet.class);
+        putFilter(filters, Facet.INDUSTRY_SECTOR, industrySector);
+        putFilter(filters, Facet.BUSINESS_TYPE, businessType);
+        putFilter(filters, Facet.CURRENCY, currency);
+        putFilter(filters, Facet.PAYMENT_TERMS, paymentTerms);
+        if (active != null) {
+            putFilter(filters, Facet.ACTIVE, List.of(active.toString()));
+        }
+
+        log.debug("GET /api/vendors/search - Filters: {}", filters);
+
+        return ResponseEntity.ok(vendorFacetService.search(filters, after, limit));
+    }
+
+    private static void putFilter(Map<Facet, Set<String>> filters, Facet facet, List<String> values) {
+        if (values != null && !values.isEmpty()) {
+            filters.put(facet, new LinkedHashSet<>(values));
+        }
+    }
+}
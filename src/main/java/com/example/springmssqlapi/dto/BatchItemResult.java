@@ -0,0 +1,29 @@
+package com.example.springmssqlapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@Schema(description = "Outcome for one item of a batch request, in request order")
+public class BatchItemResult<T> {
+
+    public enum Status {
+        FOUND,
+        NOT_FOUND,
+        CREATED,
+        DUPLICATE,
+        INVALID,
+        DELETED
+    }
+
+    @Schema(description = "Position of the item in the request")
+    private final int index;
+
+    private final Status status;
+
+    private final String message;
+
+    private final T data;
+}
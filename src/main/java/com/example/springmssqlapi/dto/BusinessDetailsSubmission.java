@@ -0,0 +1,24 @@
+package com.example.springmssqlapi.dto;
+
+import com.example.springmssqlapi.entity.BusinessDetails;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Saved business details, serialized as before, plus the existing vendors they may duplicate.
+ */
+@Getter
+@AllArgsConstructor
+@Schema(description = "Saved business details and any likely duplicate vendors")
+public class BusinessDetailsSubmission {
+
+    @JsonUnwrapped
+    private final BusinessDetails details;
+
+    @Schema(description = "Existing vendors with a similar legal name or address, best match first")
+    private final List<PossibleDuplicate> possibleDuplicates;
+}
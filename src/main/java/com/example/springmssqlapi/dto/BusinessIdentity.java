@@ -0,0 +1,16 @@
+package com.example.springmssqlapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * What the duplicate detector indexes for a vendor's business details.
+ */
+@Getter
+@AllArgsConstructor
+public class BusinessIdentity {
+    private final Long vendorId;
+    private final String vendorName;
+    private final String legalBusinessName;
+    private final String businessAddress;
+}
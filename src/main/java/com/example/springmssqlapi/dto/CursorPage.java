@@ -0,0 +1,21 @@
+package com.example.springmssqlapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@Schema(description = "One page of a keyset-paginated listing")
+public class CursorPage<T> {
+
+    private final List<T> items;
+
+    @Schema(description = "Cursor to pass as 'after' for the next page; null on the last page")
+    private final Long nextCursor;
+
+    @Schema(description = "Link to the next page; null on the last page")
+    private final String next;
+}
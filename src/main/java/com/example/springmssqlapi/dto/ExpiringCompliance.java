@@ -0,0 +1,24 @@
+package com.example.springmssqlapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Compliance row whose license or insurance expires on one of the dates being scanned, together
+ * with the vendor to remind.
+ */
+@Getter
+@AllArgsConstructor
+public class ExpiringCompliance {
+    private final Long complianceId;
+    private final Long vendorId;
+    private final String vendorName;
+    private final String vendorEmail;
+    private final String businessLicenseNumber;
+    private final LocalDate licenseExpiryDate;
+    private final String insuranceProvider;
+    private final String insurancePolicyNumber;
+    private final LocalDate insuranceExpiryDate;
+}
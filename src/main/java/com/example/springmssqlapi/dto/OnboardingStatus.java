@@ -0,0 +1,18 @@
+package com.example.springmssqlapi.dto;
+
+import com.example.springmssqlapi.entity.OnboardingSection;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+@Getter
+@AllArgsConstructor
+@Schema(description = "Which onboarding sections a vendor has submitted")
+public class OnboardingStatus {
+    private final Long vendorId;
+    private final Set<OnboardingSection> submittedSections;
+    private final Set<OnboardingSection> documents;
+    private final boolean complete;
+}
@@ -0,0 +1,23 @@
+package com.example.springmssqlapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@Schema(description = "Existing vendor whose business details closely resemble a submission")
+public class PossibleDuplicate {
+    private final Long vendorId;
+    private final String vendorName;
+    private final String legalBusinessName;
+
+    @Schema(description = "Overall similarity from 0 to 1, driven mainly by the name", example = "0.92")
+    private final double score;
+
+    @Schema(description = "Similarity of the normalized legal business names", example = "1.0")
+    private final double nameSimilarity;
+
+    @Schema(description = "Similarity of the normalized business addresses", example = "0.8")
+    private final double addressSimilarity;
+}
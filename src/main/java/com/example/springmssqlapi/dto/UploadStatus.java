@@ -0,0 +1,25 @@
+package com.example.springmssqlapi.dto;
+
+import com.example.springmssqlapi.entity.OnboardingSection;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@Schema(description = "Progress of a resumable document upload")
+public class UploadStatus {
+    private final String uploadId;
+    private final OnboardingSection section;
+    private final String filename;
+    private final String contentType;
+    private final long totalSize;
+
+    @Schema(description = "Bytes received so far; the next chunk must start here")
+    private final long offset;
+
+    private final boolean complete;
+
+    @Schema(description = "SHA-256 of the stored document, once the upload is complete")
+    private final String contentHash;
+}
@@ -0,0 +1,36 @@
+package com.example.springmssqlapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.validation.constraints.Email;
+import javax.validation.constraints.Pattern;
+
+/**
+ * Partial update for a user: only non-null fields are applied.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Fields to change on a user; omitted fields are left as they are")
+public class UserPatchRequest {
+
+    @Pattern(regexp = ".*\\S.*", message = "Name must not be blank")
+    @Schema(description = "Full name of the user", example = "John Doe")
+    private String name;
+
+    @Email(message = "Email should be valid")
+    @Pattern(regexp = ".*\\S.*", message = "Email must not be blank")
+    @Schema(description = "Email address of the user (must be unique)", example = "john.doe@example.com")
+    private String email;
+
+    @Schema(description = "Whether the user's email has been verified", example = "true")
+    private Boolean emailVerified;
+
+    @Schema(description = "Version the change is based on; the patch is rejected with 409 if the user has changed since", example = "3")
+    private Long version;
+}
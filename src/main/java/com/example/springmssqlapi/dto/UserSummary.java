@@ -0,0 +1,19 @@
+package com.example.springmssqlapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Read-only view of a user, selected directly by JPQL constructor expressions so list
+ * endpoints never load managed entities.
+ */
+@Getter
+@AllArgsConstructor
+@Schema(description = "Read-only summary of a user")
+public class UserSummary {
+    private final Long id;
+    private final String name;
+    private final String email;
+    private final Boolean emailVerified;
+}
@@ -0,0 +1,20 @@
+package com.example.springmssqlapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Read-only view of a single user, including the version that backs its ETag. Serializes to the
+ * same JSON as the {@code User} entity.
+ */
+@Getter
+@AllArgsConstructor
+@Schema(description = "Read-only view of a user")
+public class UserView {
+    private final Long id;
+    private final String name;
+    private final String email;
+    private final Boolean emailVerified;
+    private final Long version;
+}
@@ -0,0 +1,26 @@
+package com.example.springmssqlapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+@Schema(description = "Vendors matching a faceted filter, with live counts per facet value")
+public class VendorFacetSearchResult {
+
+    @Schema(description = "Number of vendors matching all filters")
+    private final long total;
+
+    @Schema(description = "One page of matching vendor ids, ascending")
+    private final List<Long> vendorIds;
+
+    @Schema(description = "Cursor to pass as 'after' for the next page; null on the last page")
+    private final Long nextCursor;
+
+    @Schema(description = "Per facet, the matching vendors for each value given the other facets' filters, most frequent first")
+    private final Map<String, Map<String, Integer>> facets;
+}
@@ -0,0 +1,18 @@
+package com.example.springmssqlapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A vendor's values for each search facet; section values are null until the section is submitted.
+ */
+@Getter
+@AllArgsConstructor
+public class VendorFacetValues {
+    private final Long vendorId;
+    private final Boolean isActive;
+    private final String industrySector;
+    private final String businessType;
+    private final String currency;
+    private final String paymentTerms;
+}
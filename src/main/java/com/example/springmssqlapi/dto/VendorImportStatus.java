@@ -0,0 +1,44 @@
+package com.example.springmssqlapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@Schema(description = "Progress of a bulk vendor CSV import")
+public class VendorImportStatus {
+
+    public enum State {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String jobId;
+    private final State state;
+    private final String filename;
+
+    @Schema(description = "Data rows read from the file so far")
+    private final long rowsRead;
+
+    private final long rowsImported;
+    private final long rowsRejected;
+
+    @Schema(description = "Rows read per second since the job started")
+    private final double rowsPerSecond;
+
+    private final LocalDateTime submittedAt;
+    private final LocalDateTime startedAt;
+    private final LocalDateTime finishedAt;
+
+    @Schema(description = "Why the job stopped, if it failed; rows imported before that are kept")
+    private final String failure;
+
+    @Schema(description = "Rejected rows, indexed by their line in the file, up to the configured limit")
+    private final List<BatchItemResult<String>> errors;
+}
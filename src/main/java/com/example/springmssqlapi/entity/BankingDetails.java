@@ -1,25 +1,39 @@
 package com.example.springmssqlapi.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
-import jakarta.persistence.*;
-import jakarta.validation.constraints.*;
+import javax.persistence.*;
+import javax.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
 @Table(name = "banking_details")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@DynamicUpdate
 @Schema(description = "Banking details entity for vendor onboarding")
-public class BankingDetails {
+public class BankingDetails implements VendorSection {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Schema(description = "Unique identifier for the banking details", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
     private Long id;
 
+    // Owning side, so the section can be read and written without touching the vendor row
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "vendor_id", nullable = false, unique = true)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Schema(hidden = true)
+    private Vendor vendor;
+
     @NotBlank(message = "Bank name is mandatory")
     @Size(max = 100, message = "Bank name cannot exceed 100 characters")
     @Column(name = "bank_name", nullable = false)
@@ -53,7 +67,8 @@ public class BankingDetails {
     @Schema(description = "Bank routing number or SWIFT code", example = "021000021", required = true)
     private String routingSwiftCode;
 
-    @Pattern(regexp = "^[A-Z]{2}[0-9]{2}[A-Z0-9]{4}[0-9]{7}([A-Z0-9]?){0,16}$", 
+    // Shape only; country length and check digits are verified by BankDetailsValidator
+    @Pattern(regexp = "^[A-Z]{2}[0-9]{2}[A-Z0-9]{11,30}$",
              message = "IBAN must be in valid format")
     @Column(name = "iban")
     @Schema(description = "International Bank Account Number (IBAN)", example = "GB82WEST12345698765432")
@@ -74,17 +89,4 @@ public class BankingDetails {
     @Schema(description = "Primary currency for transactions", example = "USD", required = true,
             allowableValues = {"USD", "EUR", "GBP", "CAD", "AUD", "JPY", "CHF", "CNY", "INR", "Other"})
     private String currency;
-
-    @Lob
-    @Column(name = "document_upload")
-    @Schema(description = "Banking verification document (PDF format)", type = "string", format = "binary")
-    private byte[] documentUpload;
-
-    @Column(name = "document_filename")
-    @Schema(description = "Original filename of the uploaded document", example = "bank_verification.pdf")
-    private String documentFilename;
-
-    @Column(name = "document_content_type")
-    @Schema(description = "MIME type of the uploaded document", example = "application/pdf")
-    private String documentContentType;
-}
\ No newline at end of file
+}
@@ -1,27 +1,41 @@
 package com.example.springmssqlapi.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
-import jakarta.persistence.*;
-import jakarta.validation.constraints.*;
+import javax.persistence.*;
+import javax.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
 @Table(name = "business_details", uniqueConstraints = {
-    @UniqueConstraint(columnNames = "businessRegistrationNumber")
+    @UniqueConstraint(columnNames = "business_registration_number")
 })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@DynamicUpdate
 @Schema(description = "Business details entity for vendor onboarding")
-public class BusinessDetails {
+public class BusinessDetails implements VendorSection {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Schema(description = "Unique identifier for the business details", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
     private Long id;
 
+    // Owning side, so the section can be read and written without touching the vendor row
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "vendor_id", nullable = false, unique = true)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Schema(hidden = true)
+    private Vendor vendor;
+
     @NotBlank(message = "Legal business name is mandatory")
     @Pattern(regexp = "^[a-zA-Z0-9\\s&.,'-]+$", message = "Legal business name must contain only alphanumeric characters and common business symbols")
     @Size(max = 255, message = "Legal business name cannot exceed 255 characters")
@@ -67,17 +81,4 @@ public class BusinessDetails {
     @Schema(description = "Industry or sector of the business", example = "Technology", required = true,
             allowableValues = {"Technology", "Healthcare", "Finance", "Manufacturing", "Retail", "Construction", "Education", "Government", "Other"})
     private String industrySector;
-
-    @Lob
-    @Column(name = "document_upload")
-    @Schema(description = "Business registration document (PDF format)", type = "string", format = "binary")
-    private byte[] documentUpload;
-
-    @Column(name = "document_filename")
-    @Schema(description = "Original filename of the uploaded document", example = "business_registration.pdf")
-    private String documentFilename;
-
-    @Column(name = "document_content_type")
-    @Schema(description = "MIME type of the uploaded document", example = "application/pdf")
-    private String documentContentType;
-}
\ No newline at end of file
+}
@@ -1,27 +1,44 @@
 package com.example.springmssqlapi.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
-import jakarta.persistence.*;
-import jakarta.validation.constraints.*;
+import javax.persistence.*;
+import javax.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "compliance_details")
+@Table(name = "compliance_details", indexes = {
+    @Index(name = "idx_compliance_details_license_expiry", columnList = "license_expiry_date"),
+    @Index(name = "idx_compliance_details_insurance_expiry", columnList = "insurance_expiry_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@DynamicUpdate
 @Schema(description = "Compliance details entity for vendor onboarding")
-public class ComplianceDetails {
+public class ComplianceDetails implements VendorSection {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Schema(description = "Unique identifier for the compliance details", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
     private Long id;
 
+    // Owning side, so the section can be read and written without touching the vendor row
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "vendor_id", nullable = false, unique = true)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Schema(hidden = true)
+    private Vendor vendor;
+
     @NotBlank(message = "Tax identification number is mandatory")
     @Pattern(regexp = "^[0-9]{2}-[0-9]{7}|[0-9]{3}-[0-9]{2}-[0-9]{4}|[0-9]{9}$", 
              message = "Tax identification number must be in valid format (EIN: XX-XXXXXXX or SSN: XXX-XX-XXXX or 9 digits)")
@@ -64,17 +81,4 @@ public class ComplianceDetails {
     @Schema(description = "Industry certifications (comma-separated)", 
             example = "ISO 9001:2015, SOC 2 Type II, PCI DSS Level 1")
     private String industryCertifications;
-
-    @Lob
-    @Column(name = "document_upload")
-    @Schema(description = "Compliance documentation (PDF format)", type = "string", format = "binary")
-    private byte[] documentUpload;
-
-    @Column(name = "document_filename")
-    @Schema(description = "Original filename of the uploaded document", example = "compliance_documents.pdf")
-    private String documentFilename;
-
-    @Column(name = "document_content_type")
-    @Schema(description = "MIME type of the uploaded document", example = "application/pdf")
-    private String documentContentType;
-}
\ No newline at end of file
+}
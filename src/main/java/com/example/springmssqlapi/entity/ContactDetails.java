@@ -1,11 +1,15 @@
 package com.example.springmssqlapi.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
-import jakarta.persistence.*;
-import jakarta.validation.constraints.*;
+import javax.persistence.*;
+import javax.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.validator.constraints.URL;
 
 @Entity
@@ -13,14 +17,24 @@ import org.hibernate.validator.constraints.URL;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@DynamicUpdate
 @Schema(description = "Contact details entity for vendor onboarding")
-public class ContactDetails {
+public class ContactDetails implements VendorSection {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Schema(description = "Unique identifier for the contact details", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
     private Long id;
 
+    // Owning side, so the section can be read and written without touching the vendor row
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "vendor_id", nullable = false, unique = true)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Schema(hidden = true)
+    private Vendor vendor;
+
     @NotBlank(message = "Primary contact name is mandatory")
     @Pattern(regexp = "^[a-zA-Z\\s'-]+$", message = "Primary contact name must contain only alphabets, spaces, hyphens and apostrophes")
     @Size(max = 100, message = "Primary contact name cannot exceed 100 characters")
@@ -61,17 +75,4 @@ public class ContactDetails {
     @Column(name = "website")
     @Schema(description = "Company website URL", example = "https://www.company.com")
     private String website;
-
-    @Lob
-    @Column(name = "document_upload")
-    @Schema(description = "Contact verification document (PDF format)", type = "string", format = "binary")
-    private byte[] documentUpload;
-
-    @Column(name = "document_filename")
-    @Schema(description = "Original filename of the uploaded document", example = "contact_verification.pdf")
-    private String documentFilename;
-
-    @Column(name = "document_content_type")
-    @Schema(description = "MIME type of the uploaded document", example = "application/pdf")
-    private String documentContentType;
-}
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package com.example.springmssqlapi.entity;
+
+import java.util.Locale;
+import java.util.Optional;
+
+public enum OnboardingSection {
+    BUSINESS,
+    BANKING,
+    COMPLIANCE,
+    CONTACT;
+
+    // Lower-case name as used in URLs, e.g. /onboarding/banking
+    public String path() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static Optional<OnboardingSection> fromPath(String path) {
+        for (OnboardingSection section : values()) {
+            if (section.path().equalsIgnoreCase(path)) {
+                return Optional.of(section);
+            }
+        }
+        return Optional.empty();
+    }
+}
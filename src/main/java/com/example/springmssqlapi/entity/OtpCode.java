@@ -7,6 +7,7 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.PrePersist;
 import javax.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -15,7 +16,10 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "otp_codes")
+@Table(name = "otp_codes", indexes = {
+    @Index(name = "idx_otp_codes_email_id", columnList = "email, id"),
+    @Index(name = "idx_otp_codes_expires_at", columnList = "expires_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,47 @@
+package com.example.springmssqlapi.entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Progress of a scheduled scan that walks one day at a time. Every day up to and including
+ * {@code processedThrough} is done; within the next day, rows up to {@code resumeAfterId} are done.
+ */
+@Entity
+@Table(name = "scan_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScanCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(name = "processed_through", nullable = false)
+    private LocalDate processedThrough;
+
+    @Column(name = "resume_after_id")
+    private Long resumeAfterId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -7,6 +7,12 @@ import javax.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @Entity
 @Table(name = "users", uniqueConstraints = {
@@ -16,6 +22,9 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Schema(description = "User entity for vendor onboarding system")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
+@DynamicUpdate
 public class User {
 
     @Id
@@ -30,6 +39,7 @@ public class User {
 
     @Email(message = "Email should be valid")
     @NotBlank(message = "Email is mandatory")
+    @NaturalId(mutable = true)
     @Column(name = "email", nullable = false, unique = true)
     @Schema(description = "Email address of the user (must be unique)", example = "john.doe@example.com", required = true)
     private String email;
@@ -38,6 +48,13 @@ public class User {
     @Schema(description = "Whether the user's email has been verified", example = "false", defaultValue = "false")
     private Boolean emailVerified = false;
 
+    // Default lets ddl-auto=update add the column to a populated table
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    @Schema(description = "Optimistic locking version, incremented on every change", example = "0", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long version;
+
     public User(String name, String email) {
         this.name = name;
         this.email = email;
@@ -0,0 +1,71 @@
+package com.example.springmssqlapi.entity;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.PrePersist;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Supporting document for one onboarding section. The bytes live in the {@code BlobStore}; this row
+ * only holds the SHA-256 reference and the metadata needed to serve them.
+ */
+@Entity
+@Table(name = "vendor_documents", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_vendor_documents_vendor_section", columnNames = {"vendor_id", "section"})
+}, indexes = {
+    @Index(name = "idx_vendor_documents_content_hash", columnList = "content_hash")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class VendorDocument {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "vendor_id", nullable = false)
+    private Vendor vendor;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OnboardingSection section;
+
+    @Column(nullable = false)
+    private String filename;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+
+    @Column(name = "content_hash", nullable = false, length = 64, columnDefinition = "char(64)")
+    private String contentHash;
+
+    @Column(name = "uploaded_at", nullable = false)
+    private LocalDateTime uploadedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        uploadedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.springmssqlapi.entity;
+
+/**
+ * One of the onboarding detail sections, each stored in its own table with a unique vendor_id.
+ */
+public interface VendorSection {
+
+    Long getId();
+
+    void setId(Long id);
+
+    Vendor getVendor();
+
+    void setVendor(Vendor vendor);
+}
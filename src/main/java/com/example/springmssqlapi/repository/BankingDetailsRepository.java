@@ -0,0 +1,8 @@
+package com.example.springmssqlapi.repository;
+
+import com.example.springmssqlapi.entity.BankingDetails;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BankingDetailsRepository extends VendorSectionRepository<BankingDetails> {
+}
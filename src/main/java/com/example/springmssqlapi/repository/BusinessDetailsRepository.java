@@ -0,0 +1,26 @@
+package com.example.springmssqlapi.repository;
+
+import com.example.springmssqlapi.dto.BusinessIdentity;
+import com.example.springmssqlapi.entity.BusinessDetails;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BusinessDetailsRepository extends VendorSectionRepository<BusinessDetails> {
+
+    @Query("SELECT COUNT(b) > 0 FROM BusinessDetails b WHERE b.businessRegistrationNumber = :number AND b.vendor.id <> :vendorId")
+    boolean existsByRegistrationNumberForOtherVendor(@Param("number") String businessRegistrationNumber, @Param("vendorId") Long vendorId);
+
+    // Keyset page for loading the duplicate detector
+    @Query("SELECT new com.example.springmssqlapi.dto.BusinessIdentity(v.id, v.name, b.legalBusinessName, b.businessAddress) " +
+           "FROM BusinessDetails b JOIN b.vendor v WHERE v.id > :afterId ORDER BY v.id")
+    List<BusinessIdentity> findIdentitiesAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT b.businessRegistrationNumber FROM BusinessDetails b WHERE b.businessRegistrationNumber IN :numbers")
+    List<String> findExistingRegistrationNumbers(@Param("numbers") Collection<String> businessRegistrationNumbers);
+}
@@ -0,0 +1,28 @@
+package com.example.springmssqlapi.repository;
+
+import com.example.springmssqlapi.dto.ExpiringCompliance;
+import com.example.springmssqlapi.entity.ComplianceDetails;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ComplianceDetailsRepository extends VendorSectionRepository<ComplianceDetails> {
+
+    // Keyset page over rows expiring on any of the given dates; each side of the OR is a seek on its expiry index
+    @Query("SELECT new com.example.springmssqlapi.dto.ExpiringCompliance(c.id, v.id, v.name, v.email, " +
+           "c.businessLicenseNumber, c.licenseExpiryDate, c.insuranceProvider, c.insurancePolicyNumber, c.insuranceExpiryDate) " +
+           "FROM ComplianceDetails c JOIN c.vendor v " +
+           "WHERE c.id > :afterId " +
+           "AND (c.licenseExpiryDate IN :dates OR c.insuranceExpiryDate IN :dates) " +
+           "AND v.isActive = true " +
+           "ORDER BY c.id")
+    List<ExpiringCompliance> findExpiringAfter(@Param("afterId") long afterId,
+                                               @Param("dates") Collection<LocalDate> dates,
+                                               Pageable pageable);
+}
@@ -0,0 +1,8 @@
+package com.example.springmssqlapi.repository;
+
+import com.example.springmssqlapi.entity.ContactDetails;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ContactDetailsRepository extends VendorSectionRepository<ContactDetails> {
+}
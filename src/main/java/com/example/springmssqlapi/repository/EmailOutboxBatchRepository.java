@@ -0,0 +1,38 @@
+package com.example.springmssqlapi.repository;
+
+import com.example.springmssqlapi.entity.EmailOutbox;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC-batched outbox inserts for bulk operations (IDENTITY ids rule out Hibernate batching).
+ */
+@Repository
+public class EmailOutboxBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO email_outbox " +
+            "(recipient, subject, body, status, attempts, next_attempt_at, created_at) VALUES (?, ?, ?, ?, 0, ?, ?)";
+    private static final int JDBC_BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmailOutboxBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertPending(List<EmailOutbox> mails) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, mails, JDBC_BATCH_SIZE, (ps, mail) -> {
+            ps.setString(1, mail.getRecipient());
+            ps.setString(2, mail.getSubject());
+            ps.setString(3, mail.getBody());
+            ps.setString(4, EmailOutbox.Status.PENDING.name());
+            ps.setTimestamp(5, now);
+            ps.setTimestamp(6, now);
+        });
+    }
+}
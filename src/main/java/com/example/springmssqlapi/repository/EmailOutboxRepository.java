@@ -0,0 +1,42 @@
+package com.example.springmssqlapi.repository;
+
+import com.example.springmssqlapi.entity.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // Called with PENDING and SENDING: a SENDING row is only due again once its lease has run out
+    @Query("SELECT e.id FROM EmailOutbox e WHERE e.status IN :statuses AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt")
+    List<Long> findDueIds(@Param("statuses") Collection<EmailOutbox.Status> statuses,
+                          @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = :claimed, e.nextAttemptAt = :leaseUntil, e.claimToken = :token " +
+           "WHERE e.id = :id AND e.status IN :statuses AND e.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id, @Param("statuses") Collection<EmailOutbox.Status> statuses,
+              @Param("claimed") EmailOutbox.Status claimed,
+              @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil,
+              @Param("token") String token);
+
+    // Matches nothing once the lease ran out and another worker re-claimed the row
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = :status, e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt, " +
+           "e.sentAt = :sentAt, e.lastError = :lastError, e.claimToken = NULL " +
+           "WHERE e.id = :id AND e.status = :claimed AND e.claimToken = :token")
+    int recordOutcome(@Param("id") Long id, @Param("claimed") EmailOutbox.Status claimed, @Param("token") String token,
+                      @Param("status") EmailOutbox.Status status, @Param("attempts") int attempts,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("sentAt") LocalDateTime sentAt,
+                      @Param("lastError") String lastError);
+
+    long countByStatus(EmailOutbox.Status status);
+}
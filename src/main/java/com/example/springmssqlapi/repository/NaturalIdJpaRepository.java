@@ -0,0 +1,30 @@
+package com.example.springmssqlapi.repository;
+
+import org.hibernate.Session;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.Optional;
+
+/**
+ * Repository base class (see {@code JpaRepositoryConfig}) adding natural-id lookups to every repository.
+ */
+@Transactional(readOnly = true)
+public class NaturalIdJpaRepository<T, ID> extends SimpleJpaRepository<T, ID> implements NaturalIdRepository<T, ID> {
+
+    private final EntityManager entityManager;
+
+    public NaturalIdJpaRepository(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<T> findBySimpleNaturalId(Object naturalId) {
+        return Optional.ofNullable(entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(getDomainClass())
+                .load(naturalId));
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.springmssqlapi.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.Optional;
+
+@NoRepositoryBean
+public interface NaturalIdRepository<T, ID> extends JpaRepository<T, ID> {
+
+    /**
+     * Loads an entity by its {@code @NaturalId}, going through the natural-id and entity caches
+     * before the database (unlike a derived {@code findByXxx} query, which always hits the database).
+     */
+    Optional<T> findBySimpleNaturalId(Object naturalId);
+}
@@ -1,6 +1,7 @@
 package com.example.springmssqlapi.repository;
 
 import com.example.springmssqlapi.entity.OtpCode;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,20 +9,37 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface OtpCodeRepository extends JpaRepository<OtpCode, Long> {
     
-    Optional<OtpCode> findByEmailAndOtpCodeAndIsUsedFalse(String email, String otpCode);
+    @Query("SELECT o.id FROM OtpCode o WHERE o.expiresAt < :currentTime ORDER BY o.expiresAt")
+    List<Long> findExpiredIds(@Param("currentTime") LocalDateTime currentTime, Pageable pageable);
     
-    Optional<OtpCode> findTopByEmailAndIsUsedFalseOrderByCreatedAtDesc(String email);
+    @Modifying
+    @Query("DELETE FROM OtpCode o WHERE o.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+    
+    long countByExpiresAtBefore(LocalDateTime currentTime);
+    
+    Optional<OtpCode> findTopByEmailOrderByIdDesc(String email);
     
+    // Only the newest code issued to an email is live; issuing a new one shadows the rest without touching them.
+    // Verification is therefore a single conditional UPDATE, and losing a race simply affects zero rows.
     @Modifying
-    @Query("DELETE FROM OtpCode o WHERE o.expiresAt < :currentTime")
-    void deleteExpiredOtps(@Param("currentTime") LocalDateTime currentTime);
+    @Query("UPDATE OtpCode o SET o.isUsed = true WHERE o.email = :email AND o.otpCode = :otpCode AND o.isUsed = false " +
+           "AND o.expiresAt > :now AND o.retryCount < :maxRetryCount " +
+           "AND NOT EXISTS (SELECT n.id FROM OtpCode n WHERE n.email = o.email AND n.id > o.id)")
+    int consumeLatest(@Param("email") String email, @Param("otpCode") String otpCode,
+                      @Param("now") LocalDateTime now, @Param("maxRetryCount") int maxRetryCount);
     
     @Modifying
-    @Query("UPDATE OtpCode o SET o.isUsed = true WHERE o.email = :email AND o.isUsed = false")
-    void markAllOtpsAsUsedForEmail(@Param("email") String email);
+    @Query("UPDATE OtpCode o SET o.retryCount = o.retryCount + 1 WHERE o.email = :email AND o.otpCode <> :otpCode AND o.isUsed = false " +
+           "AND o.expiresAt > :now AND o.retryCount < :maxRetryCount " +
+           "AND NOT EXISTS (SELECT n.id FROM OtpCode n WHERE n.email = o.email AND n.id > o.id)")
+    int recordMismatchOnLatest(@Param("email") String email, @Param("otpCode") String otpCode,
+                               @Param("now") LocalDateTime now, @Param("maxRetryCount") int maxRetryCount);
 }
\ No newline at end of file
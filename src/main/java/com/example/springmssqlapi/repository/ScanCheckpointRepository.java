@@ -0,0 +1,20 @@
+package com.example.springmssqlapi.repository;
+
+import com.example.springmssqlapi.entity.ScanCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+@Repository
+public interface ScanCheckpointRepository extends JpaRepository<ScanCheckpoint, String> {
+
+    // Row lock held until commit, so two instances running the same scan take turns instead of both sending
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ScanCheckpoint c WHERE c.name = :name")
+    Optional<ScanCheckpoint> findByNameForUpdate(@Param("name") String name);
+}
@@ -0,0 +1,34 @@
+package com.example.springmssqlapi.repository;
+
+import com.example.springmssqlapi.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Multi-row user writes. Hibernate cannot batch inserts for IDENTITY ids, so these go through
+ * JDBC batches on the transaction's connection; callers read generated ids back by email.
+ */
+@Repository
+public class UserBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO users (name, email, email_verified, version) VALUES (?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int jdbcBatchSize;
+
+    public UserBatchRepository(JdbcTemplate jdbcTemplate, @Value("${users.batch.jdbc-batch-size:500}") int jdbcBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jdbcBatchSize = jdbcBatchSize;
+    }
+
+    public void insertAll(List<User> users) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, users, jdbcBatchSize, (ps, user) -> {
+            ps.setString(1, user.getName());
+            ps.setString(2, user.getEmail());
+            ps.setBoolean(3, Boolean.TRUE.equals(user.getEmailVerified()));
+        });
+    }
+}
@@ -1,16 +1,19 @@
 package com.example.springmssqlapi.repository;
 
+import com.example.springmssqlapi.dto.UserSummary;
 import com.example.springmssqlapi.entity.User;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends NaturalIdRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
 
@@ -21,4 +24,31 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT u FROM User u WHERE u.name LIKE %:name%")
     List<User> findByNameContaining(@Param("name") String name);
+
+    // Keyset page on the primary key; filters are optional (null means "any")
+    @Query("SELECT new com.example.springmssqlapi.dto.UserSummary(u.id, u.name, u.email, u.emailVerified) FROM User u " +
+           "WHERE u.id > :afterId " +
+           "AND (:verified IS NULL OR u.emailVerified = :verified) " +
+           "AND (:name IS NULL OR u.name LIKE CONCAT('%', :name, '%')) " +
+           "ORDER BY u.id")
+    List<UserSummary> findPageAfter(@Param("afterId") long afterId,
+                                    @Param("verified") Boolean verified,
+                                    @Param("name") String name,
+                                    Pageable pageable);
+
+    @Query("SELECT new com.example.springmssqlapi.dto.UserSummary(u.id, u.name, u.email, u.emailVerified) FROM User u WHERE u.id IN :ids")
+    List<UserSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.example.springmssqlapi.dto.UserSummary(u.id, u.name, u.email, u.emailVerified) FROM User u WHERE u.email IN :emails")
+    List<UserSummary> findSummariesByEmailIn(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
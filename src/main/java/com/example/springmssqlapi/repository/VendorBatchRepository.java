@@ -0,0 +1,111 @@
+package com.example.springmssqlapi.repository;
+
+import com.example.springmssqlapi.entity.BankingDetails;
+import com.example.springmssqlapi.entity.BusinessDetails;
+import com.example.springmssqlapi.entity.ComplianceDetails;
+import com.example.springmssqlapi.entity.ContactDetails;
+import com.example.springmssqlapi.entity.Vendor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Multi-row vendor and onboarding section writes for bulk imports. Hibernate cannot batch inserts
+ * for IDENTITY ids, so these go through JDBC batches on the transaction's connection; callers read
+ * generated vendor ids back by email before inserting the sections.
+ */
+@Repository
+public class VendorBatchRepository {
+
+    private static final String INSERT_VENDOR_SQL =
+        "INSERT INTO vendors (email, name, phone_number, created_at, updated_at, is_active) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_BUSINESS_SQL =
+        "INSERT INTO business_details (vendor_id, legal_business_name, business_registration_number, business_type, " +
+        "year_established, business_address, number_of_employees, industry_sector) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_BANKING_SQL =
+        "INSERT INTO banking_details (vendor_id, bank_name, account_holder_name, account_number, account_type, " +
+        "routing_swift_code, iban, payment_terms, currency) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_COMPLIANCE_SQL =
+        "INSERT INTO compliance_details (vendor_id, tax_identification_number, business_license_number, license_expiry_date, " +
+        "insurance_provider, insurance_policy_number, insurance_expiry_date, industry_certifications) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_CONTACT_SQL =
+        "INSERT INTO contact_details (vendor_id, primary_contact_name, job_title, email_address, phone_number, " +
+        "secondary_contact_name, secondary_contact_email, website) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int jdbcBatchSize;
+
+    public VendorBatchRepository(JdbcTemplate jdbcTemplate, @Value("${vendor-import.jdbc-batch-size:500}") int jdbcBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jdbcBatchSize = jdbcBatchSize;
+    }
+
+    public void insertVendors(List<Vendor> vendors) {
+        jdbcTemplate.batchUpdate(INSERT_VENDOR_SQL, vendors, jdbcBatchSize, (ps, vendor) -> {
+            ps.setString(1, vendor.getEmail());
+            ps.setString(2, vendor.getName());
+            ps.setString(3, vendor.getPhoneNumber());
+            ps.setTimestamp(4, Timestamp.valueOf(vendor.getCreatedAt()));
+            ps.setTimestamp(5, Timestamp.valueOf(vendor.getUpdatedAt()));
+            ps.setBoolean(6, !Boolean.FALSE.equals(vendor.getIsActive()));
+        });
+    }
+
+    public void insertBusinessDetails(List<BusinessDetails> rows) {
+        jdbcTemplate.batchUpdate(INSERT_BUSINESS_SQL, rows, jdbcBatchSize, (ps, row) -> {
+            ps.setLong(1, row.getVendor().getId());
+            ps.setString(2, row.getLegalBusinessName());
+            ps.setString(3, row.getBusinessRegistrationNumber());
+            ps.setString(4, row.getBusinessType());
+            ps.setInt(5, row.getYearEstablished());
+            ps.setString(6, row.getBusinessAddress());
+            ps.setObject(7, row.getNumberOfEmployees(), Types.INTEGER);
+            ps.setString(8, row.getIndustrySector());
+        });
+    }
+
+    public void insertBankingDetails(List<BankingDetails> rows) {
+        jdbcTemplate.batchUpdate(INSERT_BANKING_SQL, rows, jdbcBatchSize, (ps, row) -> {
+            ps.setLong(1, row.getVendor().getId());
+            ps.setString(2, row.getBankName());
+            ps.setString(3, row.getAccountHolderName());
+            ps.setString(4, row.getAccountNumber());
+            ps.setString(5, row.getAccountType());
+            ps.setString(6, row.getRoutingSwiftCode());
+            ps.setString(7, row.getIban());
+            ps.setString(8, row.getPaymentTerms());
+            ps.setString(9, row.getCurrency());
+        });
+    }
+
+    public void insertComplianceDetails(List<ComplianceDetails> rows) {
+        jdbcTemplate.batchUpdate(INSERT_COMPLIANCE_SQL, rows, jdbcBatchSize, (ps, row) -> {
+            ps.setLong(1, row.getVendor().getId());
+            ps.setString(2, row.getTaxIdentificationNumber());
+            ps.setString(3, row.getBusinessLicenseNumber());
+            ps.setDate(4, Date.valueOf(row.getLicenseExpiryDate()));
+            ps.setString(5, row.getInsuranceProvider());
+            ps.setString(6, row.getInsurancePolicyNumber());
+            ps.setDate(7, Date.valueOf(row.getInsuranceExpiryDate()));
+            ps.setString(8, row.getIndustryCertifications());
+        });
+    }
+
+    public void insertContactDetails(List<ContactDetails> rows) {
+        jdbcTemplate.batchUpdate(INSERT_CONTACT_SQL, rows, jdbcBatchSize, (ps, row) -> {
+            ps.setLong(1, row.getVendor().getId());
+            ps.setString(2, row.getPrimaryContactName());
+            ps.setString(3, row.getJobTitle());
+            ps.setString(4, row.getEmailAddress());
+            ps.setString(5, row.getPhoneNumber());
+            ps.setString(6, row.getSecondaryContactName());
+            ps.setString(7, row.getSecondaryContactEmail());
+            ps.setString(8, row.getWebsite());
+        });
+    }
+}
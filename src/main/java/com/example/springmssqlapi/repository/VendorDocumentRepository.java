@@ -0,0 +1,28 @@
+package com.example.springmssqlapi.repository;
+
+import com.example.springmssqlapi.entity.OnboardingSection;
+import com.example.springmssqlapi.entity.VendorDocument;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface VendorDocumentRepository extends JpaRepository<VendorDocument, Long> {
+
+    Optional<VendorDocument> findByVendorIdAndSection(Long vendorId, OnboardingSection section);
+
+    // Which sections have a document, without reading any content
+    @Query("SELECT d.section FROM VendorDocument d WHERE d.vendor.id = :vendorId")
+    List<OnboardingSection> findSectionsByVendorId(@Param("vendorId") Long vendorId);
+
+    boolean existsByContentHash(String contentHash);
+
+    @Modifying
+    @Query("DELETE FROM VendorDocument d WHERE d.vendor.id = :vendorId AND d.section = :section")
+    int deleteByVendorIdAndSection(@Param("vendorId") Long vendorId, @Param("section") OnboardingSection section);
+}
@@ -1,13 +1,33 @@
 package com.example.springmssqlapi.repository;
 
+import com.example.springmssqlapi.dto.VendorFacetValues;
 import com.example.springmssqlapi.entity.Vendor;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface VendorRepository extends JpaRepository<Vendor, Long> {
+public interface VendorRepository extends NaturalIdRepository<Vendor, Long> {
     Optional<Vendor> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    @Query("SELECT v.email FROM Vendor v WHERE v.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT v FROM Vendor v WHERE v.email IN :emails")
+    List<Vendor> findByEmailIn(@Param("emails") Collection<String> emails);
+
+    // Keyset page for loading the facet index; sections are optional, hence the outer joins
+    @Query("SELECT new com.example.springmssqlapi.dto.VendorFacetValues(v.id, v.isActive, " +
+           "b.industrySector, b.businessType, k.currency, k.paymentTerms) " +
+           "FROM Vendor v " +
+           "LEFT JOIN BusinessDetails b ON b.vendor = v " +
+           "LEFT JOIN BankingDetails k ON k.vendor = v " +
+           "WHERE v.id > :afterId ORDER BY v.id")
+    List<VendorFacetValues> findFacetValuesAfter(@Param("afterId") long afterId, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.example.springmssqlapi.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+@NoRepositoryBean
+public interface VendorSectionRepository<T> extends JpaRepository<T, Long> {
+
+    // Explicit JPQL so the filter stays on the section's own vendor_id column; derived queries join vendors
+    @Query("SELECT s FROM #{#entityName} s WHERE s.vendor.id = :vendorId")
+    Optional<T> findByVendorId(@Param("vendorId") Long vendorId);
+
+    @Query("SELECT COUNT(s) > 0 FROM #{#entityName} s WHERE s.vendor.id = :vendorId")
+    boolean existsByVendorId(@Param("vendorId") Long vendorId);
+}
@@ -27,7 +27,7 @@ public class AuthService {
     
     public void sendOtp(String email) {
         // Check if vendor exists, if not this will be handled in OtpService
-        Optional<Vendor> vendorOpt = vendorRepository.findByEmail(email);
+        Optional<Vendor> vendorOpt = vendorRepository.findBySimpleNaturalId(email);
         String companyName = vendorOpt.map(Vendor::getName).orElse("Unknown Company");
 
         otpService.sendOtp(email, companyName);
@@ -41,7 +41,7 @@ public class AuthService {
         }
         
         // Get vendor details
-        Vendor vendor = vendorRepository.findByEmail(email)
+        Vendor vendor = vendorRepository.findBySimpleNaturalId(email)
                 .orElseThrow(() -> new IllegalArgumentException("Vendor not found"));
         
         if (!vendor.getIsActive()) {
@@ -0,0 +1,116 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.entity.BankingDetails;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks banking details beyond their format, so bad bank data is rejected at submission instead of
+ * surfacing at payment time: IBAN length per country and ISO 7064 mod-97 check digits, ABA routing
+ * number check digit, and SWIFT/BIC codes against the offline {@link BankDirectory}.
+ */
+@Component
+@RequiredArgsConstructor
+public class BankDetailsValidator {
+
+    // IBAN length per country, from the ISO 13616 registry
+    private static final Map<String, Integer> IBAN_LENGTHS = Map.ofEntries(
+        Map.entry("AD", 24), Map.entry("AE", 23), Map.entry("AL", 28), Map.entry("AT", 20), Map.entry("AZ", 28),
+        Map.entry("BA", 20), Map.entry("BE", 16), Map.entry("BG", 22), Map.entry("BH", 22), Map.entry("BI", 27),
+        Map.entry("BR", 29), Map.entry("BY", 28), Map.entry("CH", 21), Map.entry("CR", 22), Map.entry("CY", 28),
+        Map.entry("CZ", 24), Map.entry("DE", 22), Map.entry("DJ", 27), Map.entry("DK", 18), Map.entry("DO", 28),
+        Map.entry("EE", 20), Map.entry("EG", 29), Map.entry("ES", 24), Map.entry("FI", 18), Map.entry("FK", 18),
+        Map.entry("FO", 18), Map.entry("FR", 27), Map.entry("GB", 22), Map.entry("GE", 22), Map.entry("GI", 23),
+        Map.entry("GL", 18), Map.entry("GR", 27), Map.entry("GT", 28), Map.entry("HR", 21), Map.entry("HU", 28),
+        Map.entry("IE", 22), Map.entry("IL", 23), Map.entry("IQ", 23), Map.entry("IS", 26), Map.entry("IT", 27),
+        Map.entry("JO", 30), Map.entry("KW", 30), Map.entry("KZ", 20), Map.entry("LB", 28), Map.entry("LC", 32),
+        Map.entry("LI", 21), Map.entry("LT", 20), Map.entry("LU", 20), Map.entry("LV", 21), Map.entry("LY", 25),
+        Map.entry("MC", 27), Map.entry("MD", 24), Map.entry("ME", 22), Map.entry("MK", 19), Map.entry("MN", 20),
+        Map.entry("MR", 27), Map.entry("MT", 31), Map.entry("MU", 30), Map.entry("NI", 28), Map.entry("NL", 18),
+        Map.entry("NO", 15), Map.entry("OM", 23), Map.entry("PK", 24), Map.entry("PL", 28), Map.entry("PS", 29),
+        Map.entry("PT", 25), Map.entry("QA", 29), Map.entry("RO", 24), Map.entry("RS", 22), Map.entry("RU", 33),
+        Map.entry("SA", 24), Map.entry("SC", 31), Map.entry("SD", 18), Map.entry("SE", 24), Map.entry("SI", 19),
+        Map.entry("SK", 24), Map.entry("SM", 27), Map.entry("SO", 23), Map.entry("ST", 25), Map.entry("SV", 28),
+        Map.entry("TL", 23), Map.entry("TN", 24), Map.entry("TR", 26), Map.entry("UA", 29), Map.entry("VA", 22),
+        Map.entry("VG", 24), Map.entry("XK", 20), Map.entry("YE", 30)
+    );
+
+    private final BankDirectory bankDirectory;
+
+    /**
+     * Returns one message per problem found; an empty list means the details are acceptable.
+     */
+    public List<String> validate(BankingDetails details) {
+        List<String> errors = new ArrayList<>();
+
+        String code = details.getRoutingSwiftCode();
+        if (code != null && code.length() == 9 && code.chars().allMatch(Character::isDigit)) {
+            if (!isValidRoutingNumber(code)) {
+                errors.add("routingSwiftCode: routing number " + code + " has an invalid check digit");
+            }
+        } else if (code != null && bankDirectory.isLoaded() && bankDirectory.findBankName(code).isEmpty()) {
+            errors.add("routingSwiftCode: SWIFT code " + code + " is not in the bank directory");
+        }
+
+        if (details.getIban() != null && !details.getIban().isEmpty()) {
+            String problem = checkIban(details.getIban());
+            if (problem != null) {
+                errors.add("iban: " + problem);
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Returns why the IBAN is invalid, or null if its country length and check digits are correct.
+     */
+    static String checkIban(String iban) {
+        String value = iban.replace(" ", "").toUpperCase();
+        if (value.length() < 5) {
+            return "IBAN is too short";
+        }
+        String country = value.substring(0, 2);
+        Integer expectedLength = IBAN_LENGTHS.get(country);
+        if (expectedLength == null) {
+            return "IBAN country " + country + " is not supported";
+        }
+        if (value.length() != expectedLength) {
+            return "IBAN for " + country + " must be " + expectedLength + " characters, not " + value.length();
+        }
+        if (mod97(value) != 1) {
+            return "IBAN check digits are invalid";
+        }
+        return null;
+    }
+
+    // ISO 7064 MOD 97-10 over the IBAN with its first four characters moved to the end and letters as 10..35,
+    // computed digit by digit so no big number is built
+    private static int mod97(String iban) {
+        int remainder = 0;
+        for (int i = 0; i < iban.length(); i++) {
+            char c = iban.charAt((i + 4) % iban.length());
+            if (c >= '0' && c <= '9') {
+                remainder = (remainder * 10 + (c - '0')) % 97;
+            } else if (c >= 'A' && c <= 'Z') {
+                remainder = (remainder * 100 + (c - 'A' + 10)) % 97;
+            } else {
+                return -1;
+            }
+        }
+        return remainder;
+    }
+
+    // ABA check digit: 3, 7, 1 weights repeated over the nine digits must sum to a multiple of 10
+    static boolean isValidRoutingNumber(String routingNumber) {
+        int[] weights = {3, 7, 1};
+        int sum = 0;
+        for (int i = 0; i < 9; i++) {
+            sum += (routingNumber.charAt(i) - '0') * weights[i % 3];
+        }
+        return sum % 10 == 0;
+    }
+}
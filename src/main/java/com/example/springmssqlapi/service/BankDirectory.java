@@ -0,0 +1,270 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.config.BankDirectoryProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Offline BIC directory. The source CSV is compiled into a sorted binary index that is memory-mapped,
+ * so lookups are a binary search over the mapped file and the directory costs no heap beyond the
+ * lookup itself. The source is checked for changes periodically and a new file replaces the index
+ * atomically; lookups in flight keep using the old mapping.
+ *
+ * <p>Index layout: a header ({@code magic, version, count, namesOffset, source mtime, source size}),
+ * then {@code count} sorted
+ * 16-byte records ({@code 11-byte BIC, 1 byte padding, int offset into the name area}), then the
+ * names as {@code unsigned short length + UTF-8 bytes}.
+ */
+@Component
+@Slf4j
+public class BankDirectory {
+
+    private static final int MAGIC = 0x42494358; // "BICX"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int BIC_LENGTH = 11;
+    private static final int RECORD_SIZE = 16;
+    private static final Pattern BIC = Pattern.compile("[A-Z]{6}[A-Z0-9]{2}([A-Z0-9]{3})?");
+
+    private final Path source;
+    private final Path indexFile;
+
+    private volatile Index index;
+
+    public BankDirectory(BankDirectoryProperties properties, MeterRegistry meterRegistry) {
+        this.source = properties.getSource().toAbsolutePath().normalize();
+        this.indexFile = source.resolveSibling(source.getFileName() + ".idx");
+        Gauge.builder("bank.directory.entries", this, BankDirectory::size)
+                .description("BICs in the loaded bank directory")
+                .register(meterRegistry);
+        reloadIfChanged();
+    }
+
+    public boolean isLoaded() {
+        return index != null;
+    }
+
+    public int size() {
+        Index current = index;
+        return current == null ? 0 : current.count;
+    }
+
+    /**
+     * Looks up the bank registered under a BIC. An 8-character BIC is the institution's primary
+     * office and matches the directory entry with branch code {@code XXX}.
+     */
+    public Optional<String> findBankName(String bic) {
+        Index current = index;
+        if (current == null || bic == null) {
+            return Optional.empty();
+        }
+        String key = normalize(bic);
+        if (key == null) {
+            return Optional.empty();
+        }
+        return current.find(key.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Scheduled(fixedDelayString = "${bank-directory.reload-interval:PT1M}", initialDelayString = "${bank-directory.reload-interval:PT1M}")
+    public synchronized void reloadIfChanged() {
+        try {
+            if (!Files.isRegularFile(source)) {
+                if (index == null) {
+                    log.warn("No bank directory at {}, BICs are checked for format only", source);
+                }
+                return;
+            }
+            // Identified by mtime and size rather than compared to the index's age, since a file moved
+            // into place keeps its original timestamp
+            long sourceModified = Files.getLastModifiedTime(source).toMillis();
+            long sourceSize = Files.size(source);
+            Index current = index;
+            if (current != null && current.isBuiltFrom(sourceModified, sourceSize)) {
+                return;
+            }
+
+            // Reuse an index already compiled from this version of the source, e.g. after a restart
+            Index existing = Files.isRegularFile(indexFile) ? map() : null;
+            if (existing != null && existing.isBuiltFrom(sourceModified, sourceSize)) {
+                index = existing;
+            } else {
+                compile(sourceModified, sourceSize);
+                index = map();
+            }
+            log.info("Bank directory loaded from {} with {} BICs", source, index.count);
+        } catch (IOException | RuntimeException e) {
+            // Keep serving the previous directory until a readable file is dropped in
+            log.error("Could not load bank directory from {}: {}", source, e.getMessage(), e);
+        }
+    }
+
+    private void compile(long sourceModified, long sourceSize) throws IOException {
+        TreeMap<String, String> entries = new TreeMap<>();
+        int skipped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int comma = line.indexOf(',');
+                String bic = normalize(comma < 0 ? line : line.substring(0, comma));
+                if (bic == null) {
+                    // Header, comment or malformed line
+                    if (!line.isBlank()) {
+                        skipped++;
+                    }
+                    continue;
+                }
+                entries.putIfAbsent(bic, comma < 0 ? "" : unquote(line.substring(comma + 1).trim()));
+            }
+        }
+
+        Path temp = Files.createTempFile(indexFile.getParent(), indexFile.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream file = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 64 * 1024))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(entries.size());
+                out.writeInt(HEADER_SIZE + entries.size() * RECORD_SIZE);
+                out.writeLong(sourceModified);
+                out.writeLong(sourceSize);
+
+                int nameOffset = 0;
+                for (var entry : entries.entrySet()) {
+                    out.write(entry.getKey().getBytes(StandardCharsets.US_ASCII));
+                    out.writeByte(0);
+                    out.writeInt(nameOffset);
+                    nameOffset += 2 + nameBytes(entry.getValue()).length;
+                }
+                for (String name : entries.values()) {
+                    byte[] bytes = nameBytes(name);
+                    out.writeShort(bytes.length);
+                    out.write(bytes);
+                }
+            }
+            // Replace rather than overwrite, so an existing mapping keeps seeing the old file
+            try {
+                Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        log.info("Compiled bank directory index {} with {} BICs ({} lines skipped)", indexFile, entries.size(), skipped);
+    }
+
+    // Returns null for a file that is not an index of the current version, so it gets rebuilt
+    private Index map() throws IOException {
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                return null;
+            }
+            return new Index(buffer, buffer.getInt(8), buffer.getInt(12), buffer.getLong(16), buffer.getLong(24));
+        }
+    }
+
+    private static String normalize(String bic) {
+        String value = bic.trim().toUpperCase();
+        if (!BIC.matcher(value).matches()) {
+            return null;
+        }
+        return value.length() == 8 ? value + "XXX" : value;
+    }
+
+    private static String unquote(String name) {
+        if (name.length() >= 2 && name.startsWith("\"") && name.endsWith("\"")) {
+            return name.substring(1, name.length() - 1).replace("\"\"", "\"");
+        }
+        return name;
+    }
+
+    // Names longer than an unsigned short are cut; real bank names are far shorter
+    private static byte[] nameBytes(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        return bytes.length <= 0xFFFF ? bytes : Arrays.copyOf(bytes, 0xFFFF);
+    }
+
+    private static final class Index {
+        private final ByteBuffer buffer;
+        private final int count;
+        private final int namesOffset;
+        private final long sourceModified;
+        private final long sourceSize;
+
+        private Index(ByteBuffer buffer, int count, int namesOffset, long sourceModified, long sourceSize) {
+            this.buffer = buffer;
+            this.count = count;
+            this.namesOffset = namesOffset;
+            this.sourceModified = sourceModified;
+            this.sourceSize = sourceSize;
+        }
+
+        private boolean isBuiltFrom(long modified, long size) {
+            return sourceModified == modified && sourceSize == size;
+        }
+
+        private Optional<String> find(byte[] key) {
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compare(HEADER_SIZE + mid * RECORD_SIZE, key);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return Optional.of(name(buffer.getInt(HEADER_SIZE + mid * RECORD_SIZE + 12)));
+                }
+            }
+            return Optional.empty();
+        }
+
+        // Absolute reads only, so concurrent lookups can share the buffer without copying it
+        private int compare(int recordOffset, byte[] key) {
+            for (int i = 0; i < BIC_LENGTH; i++) {
+                int diff = buffer.get(recordOffset + i) - key[i];
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return 0;
+        }
+
+        private String name(int offset) {
+            int position = namesOffset + offset;
+            int length = Short.toUnsignedInt(buffer.getShort(position));
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = buffer.get(position + 2 + i);
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.config.BlobStoreProperties;
+import com.example.springmssqlapi.exception.BadRequestException;
+import com.example.springmssqlapi.exception.PayloadTooLargeException;
+import com.example.springmssqlapi.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed file store. A blob's name is the SHA-256 of its bytes, so storing the same
+ * content twice keeps a single file. Content is streamed to disk through a fixed buffer and read
+ * back as a file resource, so no blob is ever held in heap.
+ */
+@Service
+@Slf4j
+public class BlobStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path root;
+    private final Path staging;
+    // Striped by hash; orders an upload's commit against the sweep deleting the same blob
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public BlobStore(BlobStoreProperties properties) throws IOException {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.root = properties.getRoot().toAbsolutePath().normalize();
+        this.staging = root.resolve("tmp");
+        Files.createDirectories(staging);
+        log.info("Blob store at {}", root);
+    }
+
+    /**
+     * Streams the content into the store and returns its hash and size. The bytes are hashed while
+     * they are written to a staging file, which is then moved into place or dropped if a blob with
+     * the same hash already exists.
+     */
+    public StoredBlob put(InputStream content, DataSize maxSize) throws IOException {
+        Path temp = createStagingFile();
+        try {
+            MessageDigest digest = newDigest();
+            long size = append(temp, content, digest, maxSize.toBytes());
+            if (size == 0) {
+                throw new BadRequestException("Content is empty");
+            }
+            return commit(temp, digest, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Creates an empty file in the staging area for content that arrives in several parts.
+     */
+    public Path createStagingFile() throws IOException {
+        return Files.createTempFile(staging, "upload-", ".part");
+    }
+
+    /**
+     * Appends the stream to a staging file through a fixed buffer, feeding every byte to the digest.
+     * Fails as soon as more than {@code limit} bytes have arrived, without reading the rest.
+     */
+    public long append(Path stagedFile, InputStream content, MessageDigest digest, long limit) throws IOException {
+        long written = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (OutputStream out = Files.newOutputStream(stagedFile, StandardOpenOption.APPEND)) {
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                written += read;
+                if (written > limit) {
+                    throw new PayloadTooLargeException("Content exceeds the allowed size of " + limit + " bytes");
+                }
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Moves a fully written staging file into place under its hash, or drops it if that blob is
+     * already stored.
+     */
+    public StoredBlob commit(Path stagedFile, MessageDigest digest, long size) throws IOException {
+        String hash = toHex(digest.digest());
+        Path target = path(hash);
+        // Under the hash lock the sweep either deletes the blob before this sees it, or sees the fresh timestamp
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            if (Files.exists(target)) {
+                // Refresh the timestamp so the orphan sweep treats the blob as freshly referenced
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                Files.deleteIfExists(stagedFile);
+                log.debug("Blob {} already stored, dropping duplicate upload", hash);
+            } else {
+                Files.createDirectories(target.getParent());
+                moveIntoPlace(stagedFile, target);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return new StoredBlob(hash, size);
+    }
+
+    /**
+     * Deletes staging files last written before the cutoff, left behind by abandoned uploads.
+     */
+    public int deleteStagedOlderThan(Instant cutoff) throws IOException {
+        int deleted = 0;
+        try (Stream<Path> files = Files.list(staging)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                if (isOlderThan(path, cutoff) && Files.deleteIfExists(path)) {
+                    deleted++;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public Resource get(String hash) {
+        Path path = path(hash);
+        if (!Files.isRegularFile(path)) {
+            throw new ResourceNotFoundException("Blob not found: " + hash);
+        }
+        return new FileSystemResource(path);
+    }
+
+    /**
+     * Calls back with the hash of every stored blob last written before the cutoff.
+     */
+    public void forEachOlderThan(Instant cutoff, Consumer<String> action) throws IOException {
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            files.filter(path -> !path.startsWith(staging))
+                .filter(path -> HASH.matcher(path.getFileName().toString()).matches())
+                .filter(path -> isOlderThan(path, cutoff))
+                .forEach(path -> action.accept(path.getFileName().toString()));
+        }
+    }
+
+    /**
+     * Deletes the blob unless it was written or re-uploaded at or after the cutoff, which means an
+     * upload that may not have committed its reference yet is using it, or {@code referenced} finds
+     * a reference to it. Both are checked under the blob's lock, so a concurrent upload of the same
+     * content either finds the blob gone and stores it again, or refreshes it before the check.
+     */
+    public boolean deleteIfUnreferenced(String hash, Instant cutoff, Predicate<String> referenced) throws IOException {
+        Path path = path(hash);
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            return isOlderThan(path, cutoff) && !referenced.test(hash) && Files.deleteIfExists(path);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lockFor(String hash) {
+        return locks[hash.hashCode() & (LOCK_STRIPES - 1)];
+    }
+
+    private Path path(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Not a SHA-256 blob reference: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            try {
+                Files.move(temp, target);
+            } catch (FileAlreadyExistsException alreadyStored) {
+                // A concurrent upload of the same content won; its file is identical
+            }
+        } catch (FileAlreadyExistsException alreadyStored) {
+            // Same as above, on platforms where an atomic move refuses to replace
+        }
+    }
+
+    private static boolean isOlderThan(Path path, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(path).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    public static final class StoredBlob {
+        private final String hash;
+        private final long size;
+
+        StoredBlob(String hash, long size) {
+            this.hash = hash;
+            this.size = size;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public long getSize() {
+            return size;
+        }
+    }
+}
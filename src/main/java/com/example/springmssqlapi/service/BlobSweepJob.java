@@ -0,0 +1,68 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.config.BlobStoreProperties;
+import com.example.springmssqlapi.config.DocumentUploadProperties;
+import com.example.springmssqlapi.repository.VendorDocumentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+
+/**
+ * Deletes blobs that no document references any more, either because the document was replaced
+ * or because the transaction that stored it rolled back. Blobs are shared between documents with
+ * the same content, so a blob can only go once no row points at it. Staged bytes of uploads that
+ * were abandoned and outlived their session are removed as well.
+ */
+@Component
+@Slf4j
+public class BlobSweepJob {
+
+    private final BlobStore blobStore;
+    private final VendorDocumentRepository vendorDocumentRepository;
+    private final BlobStoreProperties properties;
+    private final DocumentUploadProperties uploadProperties;
+
+    private final Counter blobsDeleted;
+
+    public BlobSweepJob(BlobStore blobStore, VendorDocumentRepository vendorDocumentRepository,
+                        BlobStoreProperties properties, DocumentUploadProperties uploadProperties, MeterRegistry meterRegistry) {
+        this.blobStore = blobStore;
+        this.vendorDocumentRepository = vendorDocumentRepository;
+        this.properties = properties;
+        this.uploadProperties = uploadProperties;
+        this.blobsDeleted = Counter.builder("blob.store.orphans.deleted")
+                .description("Unreferenced blobs removed from the blob store")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${blob-store.sweep-interval:PT6H}", initialDelayString = "${blob-store.sweep-initial-delay:PT10M}")
+    public void sweepOrphans() throws IOException {
+        Instant cutoff = Instant.now().minus(properties.getOrphanGracePeriod());
+        int[] deleted = {0};
+
+        blobStore.forEachOlderThan(cutoff, hash -> {
+            if (vendorDocumentRepository.existsByContentHash(hash)) {
+                return;
+            }
+            try {
+                // Checked again under the blob's lock, as a reference may have committed since
+                if (blobStore.deleteIfUnreferenced(hash, cutoff, vendorDocumentRepository::existsByContentHash)) {
+                    blobsDeleted.increment();
+                    deleted[0]++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        int staged = blobStore.deleteStagedOlderThan(Instant.now().minus(uploadProperties.getSessionTtl()));
+
+        log.info("Blob sweep completed, {} unreferenced blobs and {} abandoned staged uploads removed", deleted[0], staged);
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.config.BulkMailProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMailMessage;
+import org.springframework.stereotype.Service;
+
+import javax.mail.MessagingException;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends mail in batches over a small pool of SMTP connections that stay open between batches,
+ * instead of paying a fresh connect + STARTTLS + AUTH for every message the way
+ * {@link JavaMailSender#send(SimpleMailMessage)} does.
+ *
+ * If the configured sender is not a {@link JavaMailSenderImpl} (e.g. a test double) messages are
+ * handed to it one by one.
+ */
+@Service
+@Slf4j
+public class BulkMailSender implements DisposableBean {
+
+    private final JavaMailSender mailSender;
+    private final BulkMailProperties properties;
+    private final BlockingQueue<PooledTransport> pool;
+    private final SendRateLimiter rateLimiter;
+
+    private final Timer sendLatency;
+    private final DistributionSummary batchSizes;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter connectionsOpened;
+
+    public BulkMailSender(JavaMailSender mailSender, BulkMailProperties properties, MeterRegistry meterRegistry) {
+        this.mailSender = mailSender;
+        this.properties = properties;
+        this.pool = new ArrayBlockingQueue<>(properties.getPoolSize());
+        for (int i = 0; i < properties.getPoolSize(); i++) {
+            pool.add(new PooledTransport());
+        }
+        this.rateLimiter = new SendRateLimiter(properties.getRatePerSecond());
+
+        this.sendLatency = Timer.builder("mail.bulk.send.latency")
+                .description("Time to hand one message to the SMTP server")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("mail.bulk.batch.size")
+                .description("Messages sent per borrowed SMTP connection")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("mail.bulk.messages").tag("result", "sent").register(meterRegistry);
+        this.failedCounter = Counter.builder("mail.bulk.messages").tag("result", "failed").register(meterRegistry);
+        this.connectionsOpened = Counter.builder("mail.bulk.connections.opened")
+                .description("SMTP sessions opened (connect + STARTTLS + AUTH)")
+                .register(meterRegistry);
+        Gauge.builder("mail.bulk.connections.idle", pool, BlockingQueue::size).register(meterRegistry);
+    }
+
+    /**
+     * Sends the messages over one pooled connection.
+     *
+     * @return one entry per message, in order: {@code null} if it was accepted by the server,
+     *         otherwise the exception that made it fail
+     */
+    public List<Exception> send(List<SimpleMailMessage> messages) {
+        List<Exception> results = new ArrayList<>(messages.size());
+        if (messages.isEmpty()) {
+            return results;
+        }
+        batchSizes.record(messages.size());
+
+        if (!(mailSender instanceof JavaMailSenderImpl)) {
+            for (SimpleMailMessage message : messages) {
+                results.add(sendDirect(message));
+            }
+            return results;
+        }
+
+        JavaMailSenderImpl sender = (JavaMailSenderImpl) mailSender;
+        PooledTransport pooled = borrow();
+        try {
+            for (SimpleMailMessage message : messages) {
+                results.add(sendPooled(sender, pooled, message));
+            }
+        } finally {
+            pool.offer(pooled);
+        }
+        return results;
+    }
+
+    private Exception sendDirect(SimpleMailMessage message) {
+        rateLimiter.acquire();
+        long start = System.nanoTime();
+        try {
+            mailSender.send(message);
+            sentCounter.increment();
+            return null;
+        } catch (Exception e) {
+            failedCounter.increment();
+            return e;
+        } finally {
+            sendLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Exception sendPooled(JavaMailSenderImpl sender, PooledTransport pooled, SimpleMailMessage message) {
+        rateLimiter.acquire();
+        long start = System.nanoTime();
+        try {
+            Transport transport = pooled.connected(sender);
+
+            MimeMessage mimeMessage = sender.createMimeMessage();
+            message.copyTo(new MimeMailMessage(mimeMessage));
+            mimeMessage.saveChanges();
+            transport.sendMessage(mimeMessage, mimeMessage.getAllRecipients());
+
+            pooled.messagesSent++;
+            pooled.lastUsedNanos = System.nanoTime();
+            sentCounter.increment();
+            return null;
+        } catch (Exception e) {
+            // The session may be in an unknown state after a failure; start the next message on a fresh one
+            pooled.close();
+            failedCounter.increment();
+            return e;
+        } finally {
+            sendLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private PooledTransport borrow() {
+        try {
+            PooledTransport pooled = pool.poll(properties.getBorrowTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            if (pooled == null) {
+                throw new MailSendException("Timed out waiting for a pooled SMTP connection");
+            }
+            return pooled;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted waiting for a pooled SMTP connection", e);
+        }
+    }
+
+    // Same resolution order as JavaMailSenderImpl: explicit protocol, session property, then smtp
+    private static String protocol(JavaMailSenderImpl sender) {
+        if (sender.getProtocol() != null) {
+            return sender.getProtocol();
+        }
+        String sessionProtocol = sender.getSession().getProperty("mail.transport.protocol");
+        return sessionProtocol != null ? sessionProtocol : JavaMailSenderImpl.DEFAULT_PROTOCOL;
+    }
+
+    @Override
+    public void destroy() {
+        for (PooledTransport pooled : pool) {
+            pooled.close();
+        }
+    }
+
+    /**
+     * One SMTP session. Only touched by the thread that borrowed it from the pool.
+     */
+    private final class PooledTransport {
+        private Transport transport;
+        private int messagesSent;
+        private long lastUsedNanos;
+
+        private Transport connected(JavaMailSenderImpl sender) throws MessagingException {
+            boolean stale = transport != null
+                    && (messagesSent >= properties.getMaxMessagesPerConnection()
+                        || System.nanoTime() - lastUsedNanos > properties.getIdleTimeout().toNanos()
+                        || !transport.isConnected());
+            if (stale) {
+                close();
+            }
+            if (transport == null) {
+                Transport fresh = sender.getSession().getTransport(protocol(sender));
+                fresh.connect(sender.getHost(), sender.getPort(), sender.getUsername(), sender.getPassword());
+                transport = fresh;
+                messagesSent = 0;
+                lastUsedNanos = System.nanoTime();
+                connectionsOpened.increment();
+            }
+            return transport;
+        }
+
+        private void close() {
+            if (transport == null) {
+                return;
+            }
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Error closing SMTP connection: {}", e.getMessage());
+            }
+            transport = null;
+        }
+    }
+
+    /**
+     * Spaces sends evenly so the whole pool stays under the provider's messages-per-second limit.
+     */
+    private static final class SendRateLimiter {
+        private final long intervalNanos;
+        private long nextFreeNanos = System.nanoTime();
+
+        private SendRateLimiter(double ratePerSecond) {
+            this.intervalNanos = ratePerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond) : 0;
+        }
+
+        private void acquire() {
+            if (intervalNanos == 0) {
+                return;
+            }
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long slot = Math.max(now, nextFreeNanos);
+                nextFreeNanos = slot + intervalNanos;
+                waitNanos = slot - now;
+            }
+            if (waitNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
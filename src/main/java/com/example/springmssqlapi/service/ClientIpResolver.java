@@ -0,0 +1,216 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.config.RateLimitProperties;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Works out the client address behind reverse proxies. The forwarded header is only believed
+ * when the connection comes from a configured trusted proxy; it is then read right to left,
+ * skipping further trusted hops, so a client cannot pick its own address by sending the header.
+ */
+@Component
+public class ClientIpResolver {
+
+    private final String header;
+    private final List<Cidr> trustedProxies = new ArrayList<>();
+
+    public ClientIpResolver(RateLimitProperties properties) {
+        this.header = properties.getClientIpHeader();
+        for (String proxy : properties.getTrustedProxies()) {
+            if (!proxy.isBlank()) {
+                trustedProxies.add(Cidr.parse(proxy.trim()));
+            }
+        }
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (trustedProxies.isEmpty() || !isTrusted(remoteAddr)) {
+            return remoteAddr;
+        }
+        String forwarded = request.getHeader(header);
+        if (forwarded == null || forwarded.isBlank()) {
+            return remoteAddr;
+        }
+        String[] hops = forwarded.split(",");
+        String client = remoteAddr;
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                break;
+            }
+            client = hop;
+            if (!isTrusted(hop)) {
+                break;
+            }
+        }
+        return client;
+    }
+
+    private boolean isTrusted(String address) {
+        byte[] bytes = toBytes(address);
+        if (bytes == null) {
+            return false;
+        }
+        for (Cidr proxy : trustedProxies) {
+            if (proxy.contains(bytes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses an IPv4 dotted quad or an IPv6 literal. Anything else (a hostname, garbage in the
+     * header) is unparseable and never trusted; nothing here ever goes to DNS.
+     */
+    static byte[] toBytes(String address) {
+        if (address == null || address.isEmpty()) {
+            return null;
+        }
+        return address.indexOf(':') < 0 ? parseIpv4(address) : parseIpv6(address);
+    }
+
+    private static byte[] parseIpv4(String address) {
+        String[] parts = address.split("\\.", -1);
+        if (parts.length != 4) {
+            return null;
+        }
+        byte[] bytes = new byte[4];
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i];
+            if (part.isEmpty() || part.length() > 3) {
+                return null;
+            }
+            int value = 0;
+            for (int j = 0; j < part.length(); j++) {
+                char c = part.charAt(j);
+                if (c < '0' || c > '9') {
+                    return null;
+                }
+                value = value * 10 + (c - '0');
+            }
+            if (value > 255) {
+                return null;
+            }
+            bytes[i] = (byte) value;
+        }
+        return bytes;
+    }
+
+    private static byte[] parseIpv6(String address) {
+        int gap = address.indexOf("::");
+        if (gap >= 0 && address.indexOf("::", gap + 1) >= 0) {
+            return null;
+        }
+        byte[] head = parseGroups(gap < 0 ? address : address.substring(0, gap), gap < 0);
+        byte[] tail = gap < 0 ? new byte[0] : parseGroups(address.substring(gap + 2), true);
+        if (head == null || tail == null) {
+            return null;
+        }
+        int length = head.length + tail.length;
+        // "::" stands for at least one zero group
+        if (gap < 0 ? length != 16 : length > 14) {
+            return null;
+        }
+        byte[] bytes = new byte[16];
+        System.arraycopy(head, 0, bytes, 0, head.length);
+        System.arraycopy(tail, 0, bytes, 16 - tail.length, tail.length);
+        return bytes;
+    }
+
+    // Colon-separated groups of up to four hex digits; the last part of an address may be a dotted quad
+    private static byte[] parseGroups(String groups, boolean endsAddress) {
+        if (groups.isEmpty()) {
+            return new byte[0];
+        }
+        String[] parts = groups.split(":", -1);
+        byte[] bytes = new byte[16];
+        int length = 0;
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i];
+            if (endsAddress && i == parts.length - 1 && part.indexOf('.') >= 0) {
+                byte[] ipv4 = parseIpv4(part);
+                if (ipv4 == null || length + 4 > bytes.length) {
+                    return null;
+                }
+                System.arraycopy(ipv4, 0, bytes, length, 4);
+                length += 4;
+                continue;
+            }
+            if (part.isEmpty() || part.length() > 4 || length + 2 > bytes.length) {
+                return null;
+            }
+            int value = 0;
+            for (int j = 0; j < part.length(); j++) {
+                int digit = hexDigit(part.charAt(j));
+                if (digit < 0) {
+                    return null;
+                }
+                value = value * 16 + digit;
+            }
+            bytes[length++] = (byte) (value >> 8);
+            bytes[length++] = (byte) value;
+        }
+        return Arrays.copyOf(bytes, length);
+    }
+
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    private static final class Cidr {
+        private final byte[] network;
+        private final int prefixLength;
+
+        private Cidr(byte[] network, int prefixLength) {
+            this.network = network;
+            this.prefixLength = prefixLength;
+        }
+
+        static Cidr parse(String value) {
+            int slash = value.indexOf('/');
+            byte[] network = toBytes(slash < 0 ? value : value.substring(0, slash));
+            if (network == null) {
+                throw new IllegalArgumentException("Not an IP address or CIDR range: " + value);
+            }
+            int prefixLength = slash < 0 ? network.length * 8 : Integer.parseInt(value.substring(slash + 1));
+            if (prefixLength < 0 || prefixLength > network.length * 8) {
+                throw new IllegalArgumentException("Invalid prefix length in " + value);
+            }
+            return new Cidr(network, prefixLength);
+        }
+
+        boolean contains(byte[] address) {
+            if (address.length != network.length) {
+                return false;
+            }
+            int fullBytes = prefixLength / 8;
+            for (int i = 0; i < fullBytes; i++) {
+                if (address[i] != network[i]) {
+                    return false;
+                }
+            }
+            int remainingBits = prefixLength % 8;
+            if (remainingBits == 0) {
+                return true;
+            }
+            int mask = 0xFF << (8 - remainingBits);
+            return (address[fullBytes] & mask) == (network[fullBytes] & mask);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.config.ComplianceReminderProperties;
+import com.example.springmssqlapi.dto.ExpiringCompliance;
+import com.example.springmssqlapi.entity.ScanCheckpoint;
+import com.example.springmssqlapi.repository.ComplianceDetailsRepository;
+import com.example.springmssqlapi.repository.ScanCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Reminds vendors of expiring licenses and insurance policies. Each calendar day is scanned once:
+ * for day D, the rows expiring on D plus each configured lead time are read through the expiry
+ * indexes in keyset batches, and every recipient in a batch gets one digest. The digests and the
+ * advanced checkpoint are committed together, so a restart resumes after the last committed batch
+ * and never scans or mails the same rows twice. Days missed during downtime are caught up in order.
+ */
+@Component
+@Slf4j
+public class ComplianceExpiryScanner {
+
+    static final String CHECKPOINT = "compliance-expiry";
+
+    private enum Step { BATCH, DAY, CAUGHT_UP }
+
+    private final ComplianceDetailsRepository complianceDetailsRepository;
+    private final ScanCheckpointRepository checkpointRepository;
+    private final EmailService emailService;
+    private final ComplianceReminderProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter digestsQueued;
+    private final Counter rowsScanned;
+
+    public ComplianceExpiryScanner(ComplianceDetailsRepository complianceDetailsRepository,
+                                   ScanCheckpointRepository checkpointRepository,
+                                   EmailService emailService,
+                                   ComplianceReminderProperties properties,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
+        this.complianceDetailsRepository = complianceDetailsRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.emailService = emailService;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.digestsQueued = Counter.builder("compliance.expiry.digests")
+                .description("Compliance expiry digest emails queued")
+                .register(meterRegistry);
+        this.rowsScanned = Counter.builder("compliance.expiry.rows")
+                .description("Compliance rows found expiring on a scanned day")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${compliance.reminders.cron:0 0 6 * * *}")
+    public void scan() {
+        scanThrough(LocalDate.now());
+    }
+
+    /**
+     * Processes every day after the checkpoint up to and including {@code today}, at most
+     * {@code maxDaysPerRun} of them, and returns how many days were completed.
+     */
+    public int scanThrough(LocalDate today) {
+        if (!checkpointRepository.existsById(CHECKPOINT)) {
+            // First run starts with today; there is nothing to catch up on
+            transactionTemplate.executeWithoutResult(status ->
+                    checkpointRepository.save(new ScanCheckpoint(CHECKPOINT, today.minusDays(1), null, null)));
+        }
+
+        int days = 0;
+        while (days < properties.getMaxDaysPerRun()) {
+            Step step = transactionTemplate.execute(status -> processBatch(today));
+            if (step == Step.CAUGHT_UP) {
+                break;
+            }
+            if (step == Step.DAY) {
+                days++;
+            }
+        }
+        log.info("Compliance expiry scan completed {} days", days);
+        return days;
+    }
+
+    private Step processBatch(LocalDate today) {
+        ScanCheckpoint checkpoint = checkpointRepository.findByNameForUpdate(CHECKPOINT)
+                .orElseThrow(() -> new IllegalStateException("Missing scan checkpoint " + CHECKPOINT));
+        LocalDate day = checkpoint.getProcessedThrough().plusDays(1);
+        if (day.isAfter(today)) {
+            return Step.CAUGHT_UP;
+        }
+
+        Set<LocalDate> dueDates = properties.getLeadDays().stream()
+                .map(day::plusDays)
+                .collect(Collectors.toCollection(TreeSet::new));
+        long afterId = checkpoint.getResumeAfterId() != null ? checkpoint.getResumeAfterId() : 0L;
+        int batchSize = properties.getBatchSize();
+
+        List<ExpiringCompliance> rows = complianceDetailsRepository.findExpiringAfter(afterId, dueDates, PageRequest.of(0, batchSize));
+        if (!rows.isEmpty()) {
+            Map<String, List<ExpiringCompliance>> byRecipient = rows.stream()
+                    .collect(Collectors.groupingBy(ExpiringCompliance::getVendorEmail, LinkedHashMap::new, Collectors.toList()));
+            emailService.queueComplianceExpiryDigests(byRecipient, dueDates, today);
+            rowsScanned.increment(rows.size());
+            digestsQueued.increment(byRecipient.size());
+        }
+
+        if (rows.size() < batchSize) {
+            checkpoint.setProcessedThrough(day);
+            checkpoint.setResumeAfterId(null);
+            log.debug("Compliance expiry scan finished {} ({} rows in last batch)", day, rows.size());
+            return Step.DAY;
+        }
+        checkpoint.setResumeAfterId(rows.get(rows.size() - 1).getComplianceId());
+        return Step.BATCH;
+    }
+}
@@ -0,0 +1,449 @@
+package com.example.springmssqlapi.service;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Compressed set of non-negative ints in the Roaring layout: values are split by their high 16
+ * bits into chunks of up to 65536, and each chunk is stored either as a sorted {@code char} array
+ * (at most {@value #MAX_ARRAY_SIZE} values, 2 bytes each) or, once denser than that, as a fixed
+ * 8 KB bitset. Intersections, unions and intersection counts work chunk by chunk and never
+ * expand a chunk to individual values unless one side is an array.
+ *
+ * Not thread-safe; {@link VendorFacetIndex} guards its bitmaps with a lock.
+ */
+public final class CompressedBitmap {
+
+    private static final int MAX_ARRAY_SIZE = 4096;
+
+    private char[] keys = new char[0];
+    private Container[] containers = new Container[0];
+    private int size;
+
+    public void add(int value) {
+        checkValue(value);
+        int i = indexOf(high(value));
+        if (i >= 0) {
+            containers[i] = containers[i].add(low(value));
+        } else {
+            insertAt(-i - 1, high(value), new ArrayContainer().add(low(value)));
+        }
+    }
+
+    public void remove(int value) {
+        if (value < 0) {
+            return;
+        }
+        int i = indexOf(high(value));
+        if (i < 0) {
+            return;
+        }
+        Container container = containers[i].remove(low(value));
+        if (container.cardinality() == 0) {
+            removeAt(i);
+        } else {
+            containers[i] = container;
+        }
+    }
+
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int i = indexOf(high(value));
+        return i >= 0 && containers[i].contains(low(value));
+    }
+
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Passes the values greater than {@code after} to {@code action} in ascending order, until it
+     * returns false.
+     */
+    public void forEachAfter(int after, IntPredicate action) {
+        int from = after + 1;
+        if (from < 0) {
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            int base = keys[i] << 16;
+            if (base + 0xFFFF < from) {
+                continue;
+            }
+            char fromLow = base >= from ? 0 : low(from);
+            if (!containers[i].forEachFrom(base, fromLow, action)) {
+                return;
+            }
+        }
+    }
+
+    public static CompressedBitmap and(CompressedBitmap a, CompressedBitmap b) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                Container container = and(a.containers[i], b.containers[j]);
+                if (container.cardinality() > 0) {
+                    result.insertAt(result.size, a.keys[i], container);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public static CompressedBitmap or(CompressedBitmap a, CompressedBitmap b) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size || j < b.size) {
+            if (j == b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+                result.insertAt(result.size, a.keys[i], a.containers[i].copy());
+                i++;
+            } else if (i == a.size || a.keys[i] > b.keys[j]) {
+                result.insertAt(result.size, b.keys[j], b.containers[j].copy());
+                j++;
+            } else {
+                result.insertAt(result.size, a.keys[i], or(a.containers[i], b.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Size of the intersection, without building it.
+     */
+    public static int andCardinality(CompressedBitmap a, CompressedBitmap b) {
+        int cardinality = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                cardinality += andCardinality(a.containers[i], b.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return cardinality;
+    }
+
+    private static Container and(Container a, Container b) {
+        if (a instanceof ArrayContainer) {
+            return ((ArrayContainer) a).filter(b);
+        }
+        if (b instanceof ArrayContainer) {
+            return ((ArrayContainer) b).filter(a);
+        }
+        long[] left = ((BitmapContainer) a).words;
+        long[] right = ((BitmapContainer) b).words;
+        BitmapContainer result = new BitmapContainer();
+        for (int w = 0; w < left.length; w++) {
+            result.words[w] = left[w] & right[w];
+            result.cardinality += Long.bitCount(result.words[w]);
+        }
+        return result.cardinality <= MAX_ARRAY_SIZE ? result.toArray() : result;
+    }
+
+    private static Container or(Container a, Container b) {
+        if (a instanceof ArrayContainer && b instanceof ArrayContainer) {
+            ArrayContainer left = (ArrayContainer) a;
+            ArrayContainer right = (ArrayContainer) b;
+            if (left.size + right.size <= MAX_ARRAY_SIZE) {
+                return left.union(right);
+            }
+        }
+        BitmapContainer result = a instanceof BitmapContainer ? (BitmapContainer) a.copy() : ((ArrayContainer) a).toBitmap();
+        if (b instanceof BitmapContainer) {
+            long[] other = ((BitmapContainer) b).words;
+            result.cardinality = 0;
+            for (int w = 0; w < other.length; w++) {
+                result.words[w] |= other[w];
+                result.cardinality += Long.bitCount(result.words[w]);
+            }
+        } else {
+            ArrayContainer other = (ArrayContainer) b;
+            for (int k = 0; k < other.size; k++) {
+                result.add(other.values[k]);
+            }
+        }
+        return result.cardinality <= MAX_ARRAY_SIZE ? result.toArray() : result;
+    }
+
+    private static int andCardinality(Container a, Container b) {
+        if (a instanceof ArrayContainer) {
+            return ((ArrayContainer) a).countIn(b);
+        }
+        if (b instanceof ArrayContainer) {
+            return ((ArrayContainer) b).countIn(a);
+        }
+        long[] left = ((BitmapContainer) a).words;
+        long[] right = ((BitmapContainer) b).words;
+        int cardinality = 0;
+        for (int w = 0; w < left.length; w++) {
+            cardinality += Long.bitCount(left[w] & right[w]);
+        }
+        return cardinality;
+    }
+
+    private int indexOf(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insertAt(int index, char key, Container container) {
+        if (size == keys.length) {
+            int capacity = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    private void removeAt(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        size--;
+        containers[size] = null;
+    }
+
+    private static void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Only non-negative values can be stored: " + value);
+        }
+    }
+
+    private static char high(int value) {
+        return (char) (value >>> 16);
+    }
+
+    private static char low(int value) {
+        return (char) value;
+    }
+
+    private abstract static class Container {
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        abstract Container copy();
+
+        abstract boolean forEachFrom(int base, char from, IntPredicate action);
+    }
+
+    private static final class ArrayContainer extends Container {
+        char[] values = new char[4];
+        int size;
+
+        @Override
+        Container add(char value) {
+            int i = Arrays.binarySearch(values, 0, size, value);
+            if (i >= 0) {
+                return this;
+            }
+            if (size == MAX_ARRAY_SIZE) {
+                return toBitmap().add(value);
+            }
+            i = -i - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(size * 2, MAX_ARRAY_SIZE));
+            }
+            System.arraycopy(values, i, values, i + 1, size - i);
+            values[i] = value;
+            size++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int i = Arrays.binarySearch(values, 0, size, value);
+            if (i >= 0) {
+                System.arraycopy(values, i + 1, values, i, size - i - 1);
+                size--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return size;
+        }
+
+        @Override
+        Container copy() {
+            ArrayContainer copy = new ArrayContainer();
+            copy.values = Arrays.copyOf(values, Math.max(size, 4));
+            copy.size = size;
+            return copy;
+        }
+
+        @Override
+        boolean forEachFrom(int base, char from, IntPredicate action) {
+            int i = Arrays.binarySearch(values, 0, size, from);
+            for (i = i >= 0 ? i : -i - 1; i < size; i++) {
+                if (!action.test(base | values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        ArrayContainer filter(Container other) {
+            ArrayContainer result = new ArrayContainer();
+            result.values = new char[Math.max(size, 4)];
+            for (int i = 0; i < size; i++) {
+                if (other.contains(values[i])) {
+                    result.values[result.size++] = values[i];
+                }
+            }
+            return result;
+        }
+
+        int countIn(Container other) {
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (other.contains(values[i])) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        ArrayContainer union(ArrayContainer other) {
+            ArrayContainer result = new ArrayContainer();
+            result.values = new char[Math.max(size + other.size, 4)];
+            int i = 0;
+            int j = 0;
+            while (i < size || j < other.size) {
+                char next;
+                if (j == other.size || (i < size && values[i] < other.values[j])) {
+                    next = values[i++];
+                } else if (i == size || values[i] > other.values[j]) {
+                    next = other.values[j++];
+                } else {
+                    next = values[i++];
+                    j++;
+                }
+                result.values[result.size++] = next;
+            }
+            return result;
+        }
+
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < size; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        final long[] words = new long[1024];
+        int cardinality;
+
+        @Override
+        Container add(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) == 0) {
+                words[value >>> 6] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) != 0) {
+                words[value >>> 6] &= ~bit;
+                cardinality--;
+            }
+            return cardinality <= MAX_ARRAY_SIZE ? toArray() : this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container copy() {
+            BitmapContainer copy = new BitmapContainer();
+            System.arraycopy(words, 0, copy.words, 0, words.length);
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        @Override
+        boolean forEachFrom(int base, char from, IntPredicate action) {
+            int w = from >>> 6;
+            long word = words[w] & (-1L << from);
+            while (true) {
+                while (word != 0) {
+                    int value = base | (w << 6) | Long.numberOfTrailingZeros(word);
+                    if (!action.test(value)) {
+                        return false;
+                    }
+                    word &= word - 1;
+                }
+                if (++w == words.length) {
+                    return true;
+                }
+                word = words[w];
+            }
+        }
+
+        ArrayContainer toArray() {
+            ArrayContainer array = new ArrayContainer();
+            array.values = new char[Math.max(cardinality, 4)];
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    array.values[array.size++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return array;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.springmssqlapi.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: comma separated, fields optionally quoted with {@code "}, quotes
+ * escaped by doubling, and line breaks allowed inside quoted fields. Reads one record at a time, so
+ * memory use does not depend on the size of the input.
+ */
+public class CsvReader {
+
+    private final Reader reader;
+    private int lookahead = -2;
+    private long line = 1;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    // Line on which the next record starts, for error messages
+    public long getLine() {
+        return line;
+    }
+
+    /**
+     * Returns the next record, or null at the end of the input.
+     */
+    public List<String> next() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        if (c == '\uFEFF' && line == 1) {
+            c = read();
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field at line " + line);
+                }
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int following = read();
+                    if (following != '\n') {
+                        lookahead = following;
+                    }
+                }
+                if (c != -1) {
+                    line++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (lookahead != -2) {
+            int c = lookahead;
+            lookahead = -2;
+            return c;
+        }
+        return reader.read();
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.config.DocumentUploadProperties;
+import com.example.springmssqlapi.dto.UploadStatus;
+import com.example.springmssqlapi.entity.OnboardingSection;
+import com.example.springmssqlapi.entity.VendorDocument;
+import com.example.springmssqlapi.exception.BadRequestException;
+import com.example.springmssqlapi.exception.ConflictException;
+import com.example.springmssqlapi.exception.PayloadTooLargeException;
+import com.example.springmssqlapi.exception.ResourceNotFoundException;
+import com.example.springmssqlapi.repository.VendorRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Streams onboarding documents into the {@link BlobStore}, either in one request or as a resumable
+ * upload sent in chunks. Bytes go to disk through a fixed buffer and are hashed as they arrive, and
+ * no transaction is held while a request body is being read; the document row is written only once
+ * the content is complete.
+ */
+@Service
+@Slf4j
+public class DocumentUploadService {
+
+    private final BlobStore blobStore;
+    private final VendorOnboardingService onboardingService;
+    private final VendorRepository vendorRepository;
+    private final DataSize documentMaxSize;
+    private final Cache<String, UploadSession> sessions;
+
+    public DocumentUploadService(BlobStore blobStore, VendorOnboardingService onboardingService, VendorRepository vendorRepository,
+                                 DocumentUploadProperties properties,
+                                 @Value("${vendor.onboarding.document-max-size:20MB}") DataSize documentMaxSize) {
+        this.blobStore = blobStore;
+        this.onboardingService = onboardingService;
+        this.vendorRepository = vendorRepository;
+        this.documentMaxSize = documentMaxSize;
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSessions())
+                .expireAfterAccess(properties.getSessionTtl())
+                .removalListener((String uploadId, UploadSession session, RemovalCause cause) -> {
+                    if (session != null && cause != RemovalCause.EXPLICIT) {
+                        log.info("Dropping abandoned upload {} at {} of {} bytes", uploadId, session.offset, session.totalSize);
+                        session.discard();
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Stores a complete document sent in a single request. {@code declaredSize} is the length the
+     * client announced, if any, and is checked before any of the body is read.
+     */
+    public VendorDocument upload(Long vendorId, OnboardingSection section, String filename, String contentType,
+                                 Long declaredSize, InputStream content) throws IOException {
+        requireVendor(vendorId);
+        if (declaredSize != null) {
+            checkSize(declaredSize);
+        }
+        BlobStore.StoredBlob blob = blobStore.put(content, documentMaxSize);
+        return onboardingService.attachDocument(vendorId, section, filename, contentType, blob);
+    }
+
+    public UploadStatus start(Long vendorId, OnboardingSection section, String filename, String contentType, long totalSize) throws IOException {
+        requireVendor(vendorId);
+        if (totalSize <= 0) {
+            throw new BadRequestException("Total size must be positive");
+        }
+        checkSize(totalSize);
+
+        UploadSession session = new UploadSession(UUID.randomUUID().toString(), vendorId, section, filename, contentType,
+                totalSize, blobStore.createStagingFile());
+        sessions.put(session.uploadId, session);
+
+        log.info("Started upload {} of {} bytes for the {} document of vendor {}", session.uploadId, totalSize, section.path(), vendorId);
+        return session.status(null);
+    }
+
+    public UploadStatus status(Long vendorId, OnboardingSection section, String uploadId) {
+        return requireSession(vendorId, section, uploadId).status(null);
+    }
+
+    /**
+     * Appends one chunk at {@code offset}, which must match the bytes received so far. A chunk that
+     * fails part way is rolled back, so the client resumes from the offset reported by
+     * {@link #status}. The chunk that reaches the total size completes the upload and stores the
+     * document; if storing it fails, an empty chunk at the total size retries just that step.
+     */
+    public UploadStatus appendChunk(Long vendorId, OnboardingSection section, String uploadId, long offset,
+                                    Long declaredSize, InputStream content) throws IOException {
+        UploadSession session = requireSession(vendorId, section, uploadId);
+        if (!session.lock.tryLock()) {
+            throw new ConflictException("Another chunk for upload " + uploadId + " is still being received");
+        }
+        try {
+            if (session.discarded) {
+                throw new ResourceNotFoundException("Upload not found: " + uploadId);
+            }
+            if (offset != session.offset) {
+                throw new ConflictException("Upload " + uploadId + " is at offset " + session.offset + ", not " + offset);
+            }
+            long remaining = session.totalSize - session.offset;
+            if (declaredSize != null && declaredSize > remaining) {
+                throw new PayloadTooLargeException("Chunk of " + declaredSize + " bytes exceeds the " + remaining + " bytes left in the upload");
+            }
+
+            // Once every byte is staged the body is not read; the call only retries completion
+            if (remaining > 0) {
+                MessageDigest digest = copy(session.digest);
+                long written;
+                try {
+                    written = blobStore.append(session.file, content, digest, remaining);
+                } catch (IOException | RuntimeException e) {
+                    truncate(session.file, session.offset);
+                    throw e;
+                }
+                session.offset += written;
+                session.digest = digest;
+
+                if (session.offset < session.totalSize) {
+                    return session.status(null);
+                }
+            }
+            UploadStatus status = complete(session);
+            sessions.invalidate(uploadId);
+            return status;
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    public void cancel(Long vendorId, OnboardingSection section, String uploadId) throws IOException {
+        UploadSession session = requireSession(vendorId, section, uploadId);
+        sessions.invalidate(uploadId);
+        session.discard();
+        log.info("Cancelled upload {}", uploadId);
+    }
+
+    // Called under the session lock. The staged file is moved into the store only once, so a failed
+    // attach is retried against the blob already stored rather than the file that is gone.
+    private UploadStatus complete(UploadSession session) throws IOException {
+        if (session.blob == null) {
+            session.blob = blobStore.commit(session.file, copy(session.digest), session.offset);
+        }
+        onboardingService.attachDocument(session.vendorId, session.section, session.filename, session.contentType, session.blob);
+        log.info("Completed upload {} as blob {}", session.uploadId, session.blob.getHash());
+        return session.status(session.blob.getHash());
+    }
+
+    private UploadSession requireSession(Long vendorId, OnboardingSection section, String uploadId) {
+        UploadSession session = sessions.getIfPresent(uploadId);
+        if (session == null || !session.vendorId.equals(vendorId) || session.section != section) {
+            throw new ResourceNotFoundException("Upload not found: " + uploadId);
+        }
+        touch(session.file);
+        return session;
+    }
+
+    // The staging sweep ages files by their timestamp; keeping it at the last access puts the sweep
+    // on the same clock as the session's access-based expiry
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            log.debug("Could not touch staged upload {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void requireVendor(Long vendorId) {
+        if (vendorRepository.findById(vendorId).isEmpty()) {
+            throw new ResourceNotFoundException("Vendor not found with id: " + vendorId);
+        }
+    }
+
+    private void checkSize(long size) {
+        if (size > documentMaxSize.toBytes()) {
+            throw new PayloadTooLargeException("Document exceeds the maximum size of " + documentMaxSize.toMegabytes() + " MB");
+        }
+    }
+
+    private static MessageDigest copy(MessageDigest digest) {
+        try {
+            return (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("SHA-256 digest cannot be cloned", e);
+        }
+    }
+
+    private static void truncate(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+        }
+    }
+
+    private static final class UploadSession {
+        private final String uploadId;
+        private final Long vendorId;
+        private final OnboardingSection section;
+        private final String filename;
+        private final String contentType;
+        private final long totalSize;
+        private final Path file;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        // Written under lock; the digest covers exactly the first offset bytes of the file
+        private volatile long offset;
+        private MessageDigest digest = BlobStore.newDigest();
+        private BlobStore.StoredBlob blob;
+        private boolean discarded;
+
+        private UploadSession(String uploadId, Long vendorId, OnboardingSection section, String filename, String contentType,
+                              long totalSize, Path file) {
+            this.uploadId = uploadId;
+            this.vendorId = vendorId;
+            this.section = section;
+            this.filename = filename;
+            this.contentType = contentType;
+            this.totalSize = totalSize;
+            this.file = file;
+        }
+
+        private UploadStatus status(String contentHash) {
+            return new UploadStatus(uploadId, section, filename, contentType, totalSize, offset, contentHash != null, contentHash);
+        }
+
+        // Waits for a chunk in progress, so its file is never deleted from under it
+        private void discard() {
+            lock.lock();
+            try {
+                discarded = true;
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete staged upload {}: {}", file, e.getMessage());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.config.BulkMailProperties;
+import com.example.springmssqlapi.config.EmailOutboxProperties;
+import com.example.springmssqlapi.entity.EmailOutbox;
+import com.example.springmssqlapi.repository.EmailOutboxBatchRepository;
+import com.example.springmssqlapi.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Transactional outbox for outgoing mail. Callers write the mail as a row in their own
+ * transaction; delivery happens on a bounded worker pool after commit, so SMTP latency never
+ * holds a DB connection or row locks. Workers drain queued mails in batches and hand each batch
+ * to {@link BulkMailSender}, which sends it over one pooled SMTP connection. Failed sends are
+ * retried with exponential backoff and dead-lettered after {@code email.outbox.max-attempts}.
+ * A scheduled poller picks up anything the workers could not take (queue full, restart,
+ * expired lease).
+ */
+@Service
+@Slf4j
+public class EmailOutboxService implements DisposableBean {
+
+    private static final Set<EmailOutbox.Status> CLAIMABLE = EnumSet.of(EmailOutbox.Status.PENDING, EmailOutbox.Status.SENDING);
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailOutboxBatchRepository emailOutboxBatchRepository;
+    private final BulkMailSender bulkMailSender;
+    private final EmailOutboxProperties properties;
+    private final int batchSize;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Long> pendingIds;
+    private final ExecutorService workers;
+    private final ExecutorService poller;
+    private final AtomicBoolean pollRequested = new AtomicBoolean();
+    private volatile boolean running = true;
+
+    private final Timer deliveryLatency;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter deadCounter;
+
+    // Ids currently queued or being delivered on this node, so the poller doesn't queue them twice
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    public EmailOutboxService(EmailOutboxRepository emailOutboxRepository,
+                              EmailOutboxBatchRepository emailOutboxBatchRepository,
+                              BulkMailSender bulkMailSender,
+                              EmailOutboxProperties properties,
+                              BulkMailProperties bulkMailProperties,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailOutboxBatchRepository = emailOutboxBatchRepository;
+        this.bulkMailSender = bulkMailSender;
+        this.properties = properties;
+        this.batchSize = Math.max(1, bulkMailProperties.getBatchSize());
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pendingIds = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+
+        Gauge.builder("email.outbox.queue.depth", pendingIds, BlockingQueue::size)
+                .description("Committed mails waiting for a delivery worker on this node")
+                .register(meterRegistry);
+        this.deliveryLatency = Timer.builder("email.outbox.delivery.latency")
+                .description("Time from a mail being written to the outbox until it was accepted by SMTP, retries included")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("email.outbox.messages").tag("result", "sent").register(meterRegistry);
+        this.retriedCounter = Counter.builder("email.outbox.messages").tag("result", "retried").register(meterRegistry);
+        this.deadCounter = Counter.builder("email.outbox.messages").tag("result", "dead").register(meterRegistry);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(properties.getWorkerThreads(), r -> {
+            Thread thread = new Thread(r, "email-outbox-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < properties.getWorkerThreads(); i++) {
+            workers.execute(this::drainLoop);
+        }
+        this.poller = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "email-outbox-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Transactional
+    public void enqueue(String to, String subject, String body) {
+        EmailOutbox mail = new EmailOutbox();
+        mail.setRecipient(to);
+        mail.setSubject(subject);
+        mail.setBody(body);
+        mail.setStatus(EmailOutbox.Status.PENDING);
+        mail.setAttempts(0);
+
+        Long id = emailOutboxRepository.save(mail).getId();
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatch(id);
+            }
+        });
+    }
+
+    /**
+     * Writes many mails in JDBC batches. Their ids are not read back, so instead of dispatching
+     * each one a poll is requested after commit; it runs on the poller thread, not the caller's.
+     */
+    @Transactional
+    public void enqueueAll(List<EmailOutbox> mails) {
+        if (mails.isEmpty()) {
+            return;
+        }
+        emailOutboxBatchRepository.insertPending(mails);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                requestPoll();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval:PT15S}")
+    public void dispatchDue() {
+        List<Long> dueIds = emailOutboxRepository.findDueIds(
+                CLAIMABLE, LocalDateTime.now(), PageRequest.of(0, properties.getPollBatchSize()));
+        for (Long id : dueIds) {
+            if (!dispatch(id)) {
+                break;
+            }
+        }
+    }
+
+    // Commits that land while a poll is waiting to run share it
+    private void requestPoll() {
+        if (!pollRequested.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            poller.execute(() -> {
+                pollRequested.set(false);
+                try {
+                    dispatchDue();
+                } catch (RuntimeException e) {
+                    log.error("Email outbox poll failed, leaving the mails for the scheduled poller", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pollRequested.set(false);
+        }
+    }
+
+    public int getQueueDepth() {
+        return pendingIds.size();
+    }
+
+    private boolean dispatch(Long id) {
+        if (!inFlight.add(id)) {
+            return true;
+        }
+        if (!pendingIds.offer(id)) {
+            inFlight.remove(id);
+            log.debug("Email outbox queue is full, mail {} left for the poller", id);
+            return false;
+        }
+        return true;
+    }
+
+    private void drainLoop() {
+        while (running) {
+            List<Long> batch = new ArrayList<>(batchSize);
+            try {
+                Long first = pendingIds.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                pendingIds.drainTo(batch, batchSize - 1);
+                deliver(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Email outbox batch of {} failed, leaving it for the poller", batch.size(), e);
+            } finally {
+                inFlight.removeAll(batch);
+            }
+        }
+    }
+
+    void deliver(List<Long> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plus(properties.getLease());
+        String claimToken = UUID.randomUUID().toString();
+        List<EmailOutbox> claimed = transactionTemplate.execute(status -> {
+            List<EmailOutbox> mails = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                if (emailOutboxRepository.claim(id, CLAIMABLE, EmailOutbox.Status.SENDING, now, leaseUntil, claimToken) == 1) {
+                    emailOutboxRepository.findById(id).ifPresent(mails::add);
+                }
+            }
+            return mails;
+        });
+        if (claimed == null || claimed.isEmpty()) {
+            return;
+        }
+
+        List<SimpleMailMessage> messages = new ArrayList<>(claimed.size());
+        for (EmailOutbox mail : claimed) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(mail.getRecipient());
+            message.setSubject(mail.getSubject());
+            message.setText(mail.getBody());
+            messages.add(message);
+        }
+
+        List<Exception> results = bulkMailSender.send(messages);
+
+        for (int i = 0; i < claimed.size(); i++) {
+            EmailOutbox mail = claimed.get(i);
+            Exception error = results.get(i);
+            if (error == null) {
+                markSent(mail);
+            } else {
+                markFailed(mail, error);
+            }
+        }
+        // The lease may have run out during the send; a row another worker has re-claimed keeps its outcome
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < claimed.size(); i++) {
+                EmailOutbox mail = claimed.get(i);
+                if (recordOutcome(mail, claimToken)) {
+                    report(mail, results.get(i));
+                } else {
+                    log.warn("Email {} was re-claimed after its lease ran out, dropping this attempt's outcome ({})",
+                            mail.getId(), mail.getStatus());
+                }
+            }
+        });
+    }
+
+    private boolean recordOutcome(EmailOutbox mail, String claimToken) {
+        return emailOutboxRepository.recordOutcome(mail.getId(), EmailOutbox.Status.SENDING, claimToken,
+                mail.getStatus(), mail.getAttempts(), mail.getNextAttemptAt(), mail.getSentAt(), mail.getLastError()) == 1;
+    }
+
+    private void markSent(EmailOutbox mail) {
+        mail.setStatus(EmailOutbox.Status.SENT);
+        mail.setSentAt(LocalDateTime.now());
+        mail.setAttempts(mail.getAttempts() + 1);
+        mail.setLastError(null);
+    }
+
+    private void markFailed(EmailOutbox mail, Exception e) {
+        int attempts = mail.getAttempts() + 1;
+        mail.setAttempts(attempts);
+        mail.setLastError(truncate(e.getMessage()));
+
+        if (attempts >= properties.getMaxAttempts()) {
+            mail.setStatus(EmailOutbox.Status.DEAD);
+        } else {
+            mail.setStatus(EmailOutbox.Status.PENDING);
+            mail.setNextAttemptAt(LocalDateTime.now().plus(backoff(attempts)));
+        }
+    }
+
+    private void report(EmailOutbox mail, Exception e) {
+        switch (mail.getStatus()) {
+            case SENT:
+                sentCounter.increment();
+                if (mail.getCreatedAt() != null) {
+                    deliveryLatency.record(Duration.between(mail.getCreatedAt(), mail.getSentAt()));
+                }
+                log.info("Email {} delivered to: {}", mail.getId(), mail.getRecipient());
+                break;
+            case DEAD:
+                deadCounter.increment();
+                log.error("Email {} to {} dead-lettered after {} attempts", mail.getId(), mail.getRecipient(), mail.getAttempts(), e);
+                break;
+            default:
+                retriedCounter.increment();
+                log.warn("Email {} to {} failed (attempt {}), retrying at {}: {}",
+                        mail.getId(), mail.getRecipient(), mail.getAttempts(), mail.getNextAttemptAt(), e.getMessage());
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : delay;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        poller.shutdownNow();
+        workers.shutdownNow();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
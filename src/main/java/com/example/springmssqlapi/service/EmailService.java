@@ -1,30 +1,87 @@
 package com.example.springmssqlapi.service;
 
+import com.example.springmssqlapi.dto.ExpiringCompliance;
+import com.example.springmssqlapi.entity.EmailOutbox;
+import com.example.springmssqlapi.entity.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailService {
 
     private final JavaMailSender mailSender;
+    private final EmailOutboxService emailOutboxService;
+
+    // Written to the outbox in the caller's transaction and delivered after commit
+    public void queueOtpEmail(String to, String company, String otp) {
+        emailOutboxService.enqueue(to, "OTP for Vendor Onboarding - " + company, buildOtpEmailContent(company, otp));
+        log.info("OTP email queued for: {}", to);
+    }
+
+    // Written to the outbox in the caller's transaction and delivered after commit
+    public void queueWelcomeEmail(String to, String name) {
+        emailOutboxService.enqueue(to, "Welcome to Vendor Onboarding", buildWelcomeEmailContent(name));
+        log.info("Welcome email queued for: {}", to);
+    }
+
+    public void queueWelcomeEmails(List<User> users) {
+        List<EmailOutbox> mails = new ArrayList<>(users.size());
+        for (User user : users) {
+            EmailOutbox mail = new EmailOutbox();
+            mail.setRecipient(user.getEmail());
+            mail.setSubject("Welcome to Vendor Onboarding");
+            mail.setBody(buildWelcomeEmailContent(user.getName()));
+            mails.add(mail);
+        }
+        emailOutboxService.enqueueAll(mails);
+        log.info("{} welcome emails queued", mails.size());
+    }
+
+    /**
+     * Queues one digest per recipient listing every license and insurance policy of theirs that
+     * expires on one of {@code dueDates}.
+     */
+    public void queueComplianceExpiryDigests(Map<String, List<ExpiringCompliance>> byRecipient, Set<LocalDate> dueDates, LocalDate asOf) {
+        List<EmailOutbox> mails = new ArrayList<>(byRecipient.size());
+        byRecipient.forEach((recipient, items) -> {
+            EmailOutbox mail = new EmailOutbox();
+            mail.setRecipient(recipient);
+            mail.setSubject("Compliance documents expiring soon");
+            mail.setBody(buildComplianceExpiryDigestContent(items, dueDates, asOf));
+            mails.add(mail);
+        });
+        emailOutboxService.enqueueAll(mails);
+        log.info("{} compliance expiry digests queued", mails.size());
+    }
+
+    public void sendWelcomeEmail(String to, String name) {
+        sendSimpleEmail(to, "Welcome to Vendor Onboarding", buildWelcomeEmailContent(name));
+    }
 
-    public void sendOtpEmail(String to, String company, String otp) {
+    public void sendSimpleEmail(String to, String subject, String body) {
         try {
             SimpleMailMessage message = new SimpleMailMessage();
             message.setTo(to);
-            message.setSubject("OTP for Vendor Onboarding - " + company);
-            message.setText(buildOtpEmailContent(company, otp));
+            message.setSubject(subject);
+            message.setText(body);
 
             mailSender.send(message);
-            log.info("OTP email sent successfully to: {}", to);
+            log.info("Email sent successfully to: {}", to);
         } catch (Exception e) {
-            log.error("Failed to send OTP email to: {}", to, e);
-            throw new RuntimeException("Failed to send OTP email", e);
+            log.error("Failed to send email to: {}", to, e);
+            throw new RuntimeException("Failed to send email", e);
         }
     }
 
@@ -39,4 +96,44 @@ public class EmailService {
             company, otp
         );
     }
+
+    private String buildComplianceExpiryDigestContent(List<ExpiringCompliance> items, Set<LocalDate> dueDates, LocalDate asOf) {
+        StringBuilder body = new StringBuilder()
+            .append("Dear ").append(items.get(0).getVendorName()).append(",\n\n")
+            .append("The following compliance documents on file for you are about to expire:\n\n");
+        for (ExpiringCompliance item : items) {
+            if (dueDates.contains(item.getLicenseExpiryDate())) {
+                body.append(String.format("- Business license %s expires on %s (%s)%n",
+                    item.getBusinessLicenseNumber(), item.getLicenseExpiryDate(), daysLeft(asOf, item.getLicenseExpiryDate())));
+            }
+            if (dueDates.contains(item.getInsuranceExpiryDate())) {
+                body.append(String.format("- Insurance policy %s with %s expires on %s (%s)%n",
+                    item.getInsurancePolicyNumber(), item.getInsuranceProvider(), item.getInsuranceExpiryDate(),
+                    daysLeft(asOf, item.getInsuranceExpiryDate())));
+            }
+        }
+        return body
+            .append("\nPlease upload renewed documents in the Vendor Onboarding portal before they expire.\n\n")
+            .append("Best regards,\n")
+            .append("Vendor Onboarding Team")
+            .toString();
+    }
+
+    private static String daysLeft(LocalDate asOf, LocalDate expiry) {
+        long days = ChronoUnit.DAYS.between(asOf, expiry);
+        if (days < 0) {
+            return "already expired";
+        }
+        return days == 0 ? "today" : days == 1 ? "in 1 day" : "in " + days + " days";
+    }
+
+    private String buildWelcomeEmailContent(String name) {
+        return String.format(
+            "Dear %s,\n\n" +
+            "Welcome to the Vendor Onboarding platform. Your account has been created successfully.\n\n" +
+            "Best regards,\n" +
+            "Vendor Onboarding Team",
+            name
+        );
+    }
 }
@@ -0,0 +1,98 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.entity.User;
+import com.example.springmssqlapi.entity.Vendor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Full-table dumps as newline-delimited JSON (one object per line).
+ *
+ * Rows are read through a forward-only result stream with a bounded JDBC fetch size and written
+ * with Jackson's streaming generator; each entity is detached once written, so neither the
+ * persistence context nor the output buffer grows with the table.
+ */
+@Service
+@Slf4j
+public class ExportService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public ExportService(ObjectMapper objectMapper, @Value("${export.fetch-size:1000}") int fetchSize) {
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    @Transactional(readOnly = true)
+    public long exportUsers(OutputStream out) throws IOException {
+        return export("SELECT u FROM User u ORDER BY u.id", User.class, out, (gen, user) -> {
+            gen.writeNumberField("id", user.getId());
+            gen.writeStringField("name", user.getName());
+            gen.writeStringField("email", user.getEmail());
+            gen.writeObjectField("emailVerified", user.getEmailVerified());
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public long exportVendors(OutputStream out) throws IOException {
+        return export("SELECT v FROM Vendor v ORDER BY v.id", Vendor.class, out, (gen, vendor) -> {
+            gen.writeNumberField("id", vendor.getId());
+            gen.writeStringField("email", vendor.getEmail());
+            gen.writeStringField("name", vendor.getName());
+            gen.writeStringField("phoneNumber", vendor.getPhoneNumber());
+            gen.writeObjectField("createdAt", vendor.getCreatedAt());
+            gen.writeObjectField("updatedAt", vendor.getUpdatedAt());
+            gen.writeObjectField("isActive", vendor.getIsActive());
+        });
+    }
+
+    private <T> long export(String jpql, Class<T> type, OutputStream out, RowWriter<T> rowWriter) throws IOException {
+        long rows = 0;
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out);
+             Stream<T> stream = entityManager.createQuery(jpql, type)
+                     .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                     .setHint(QueryHints.HINT_READONLY, true)
+                     .setHint(QueryHints.HINT_CACHEABLE, false)
+                     // A full scan would otherwise write every row into the second-level cache, evicting the hot entries
+                     .setHint(QueryHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                     .getResultStream()) {
+
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<T> rowIterator = stream.iterator();
+            while (rowIterator.hasNext()) {
+                T entity = rowIterator.next();
+                gen.writeStartObject();
+                rowWriter.write(gen, entity);
+                gen.writeEndObject();
+                gen.writeRaw('\n');
+                entityManager.detach(entity);
+                rows++;
+            }
+            gen.flush();
+        }
+        log.info("Exported {} {} rows", rows, type.getSimpleName());
+        return rows;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter<T> {
+        void write(JsonGenerator gen, T entity) throws IOException;
+    }
+}
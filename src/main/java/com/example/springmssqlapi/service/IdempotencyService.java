@@ -0,0 +1,135 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.config.IdempotencyProperties;
+import com.example.springmssqlapi.exception.BadRequestException;
+import com.example.springmssqlapi.exception.ConflictException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Replays the stored response for a repeated {@code Idempotency-Key} instead of running the request again.
+ * The first request with a key registers an in-flight entry before doing any work, so concurrent duplicates
+ * wait for its outcome rather than racing it. Failed executions are not stored, so a retry after an error
+ * runs again; only successful responses are replayed, and their bodies must be immutable values.
+ *
+ * In-flight entries are kept apart from the size-bounded store of completed responses, so a burst of new
+ * keys can never evict a request that is still running and let its duplicate run it a second time.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final Cache<String, Entry> entries;
+    private final Map<String, Entry> inFlight = new ConcurrentHashMap<>();
+    private final Duration inFlightTimeout;
+    private final int maxKeyLength;
+    private final MeterRegistry meterRegistry;
+
+    public IdempotencyService(IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxKeys())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+        this.inFlightTimeout = properties.getInFlightTimeout();
+        this.maxKeyLength = properties.getMaxKeyLength();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs {@code action} once per {@code (endpoint, key)}. {@code fingerprint} identifies the request payload;
+     * reusing a key for a different payload is rejected. Without a key the action simply runs.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> execute(String endpoint, String key, Object fingerprint, Supplier<ResponseEntity<T>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > maxKeyLength) {
+            throw new BadRequestException(HEADER + " must be between 1 and " + maxKeyLength + " characters");
+        }
+
+        String cacheKey = endpoint + ':' + key;
+        Entry entry = new Entry(fingerprint);
+        Entry existing = inFlight.putIfAbsent(cacheKey, entry);
+        if (existing == null) {
+            // A completed entry is stored before its in-flight one is removed, so one of the two is always seen
+            existing = entries.getIfPresent(cacheKey);
+            if (existing != null) {
+                inFlight.remove(cacheKey, entry);
+            }
+        }
+        if (existing != null) {
+            if (!Objects.equals(existing.fingerprint, fingerprint)) {
+                throw new BadRequestException(HEADER + " " + key + " was already used for a different request");
+            }
+            ResponseEntity<T> stored = (ResponseEntity<T>) await(existing, key);
+            meterRegistry.counter("idempotency.replays", "endpoint", endpoint).increment();
+            log.info("Replaying stored response for {} {}: {}", HEADER, endpoint, key);
+            return replayed(stored);
+        }
+
+        try {
+            ResponseEntity<T> response = action.get();
+            entry.response.complete(response);
+            entries.put(cacheKey, entry);
+            return response;
+        } catch (RuntimeException | Error e) {
+            entry.response.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(cacheKey, entry);
+        }
+    }
+
+    private ResponseEntity<?> await(Entry entry, String key) {
+        try {
+            return entry.response.get(inFlightTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new ConflictException("A request with " + HEADER + " " + key + " is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while waiting for the request with " + HEADER + " " + key);
+        } catch (ExecutionException e) {
+            // The first request failed; its duplicates fail the same way
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw (Error) cause;
+        }
+    }
+
+    private static <T> ResponseEntity<T> replayed(ResponseEntity<T> stored) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(stored.getHeaders());
+        headers.set(REPLAYED_HEADER, "true");
+        return new ResponseEntity<>(stored.getBody(), headers, stored.getStatusCode());
+    }
+
+    private static final class Entry {
+        private final Object fingerprint;
+        private final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+
+        private Entry(Object fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.example.springmssqlapi.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps OTP codes on the heap so issuing and verifying never touch the database.
+ *
+ * Emails are spread over lock stripes; every read-modify-write of a code (including the retry
+ * counter) happens under its stripe lock. Expired codes are reclaimed by a hashed timer wheel
+ * rather than by scanning the whole map; verify also checks expiry itself, so a late wheel tick
+ * never lets an expired code through.
+ */
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "memory")
+@Slf4j
+public class InMemoryOtpStore implements OtpStore, DisposableBean {
+
+    private static final int WHEEL_SLOTS = 1024;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final ExpiryWheel wheel;
+    private final ScheduledExecutorService ticker;
+
+    public InMemoryOtpStore(@Value("${otp.store.memory.stripes:64}") int stripeCount,
+                            @Value("${otp.store.memory.wheel-tick:PT1S}") Duration wheelTick) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMask = size - 1;
+
+        long tickMillis = Math.max(1, wheelTick.toMillis());
+        this.wheel = new ExpiryWheel(tickMillis, System.currentTimeMillis());
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "otp-expiry-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::advanceWheel, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void store(String email, String company, String otpCode, LocalDateTime expiresAt) {
+        Entry entry = new Entry(otpCode, expiresAt);
+        Stripe stripe = stripeFor(email);
+        stripe.lock.lock();
+        try {
+            // Replacing the map value supersedes any earlier code; its wheel slot becomes a no-op
+            stripe.entries.put(email, entry);
+        } finally {
+            stripe.lock.unlock();
+        }
+        wheel.schedule(email, entry);
+    }
+
+    @Override
+    public VerificationResult verify(String email, String otpCode, int maxRetryCount) {
+        Stripe stripe = stripeFor(email);
+        stripe.lock.lock();
+        try {
+            Entry entry = stripe.entries.get(email);
+            if (entry == null) {
+                return VerificationResult.NOT_FOUND;
+            }
+            if (entry.isExpired(System.currentTimeMillis())) {
+                stripe.entries.remove(email);
+                return VerificationResult.EXPIRED;
+            }
+            if (entry.retryCount >= maxRetryCount) {
+                stripe.entries.remove(email);
+                return VerificationResult.RETRIES_EXHAUSTED;
+            }
+            if (!entry.matches(otpCode)) {
+                entry.retryCount++;
+                if (entry.retryCount >= maxRetryCount) {
+                    stripe.entries.remove(email);
+                    log.warn("OTP discarded due to max retry attempts for email: {}", email);
+                }
+                return VerificationResult.MISMATCH;
+            }
+
+            stripe.entries.remove(email);
+            return VerificationResult.VERIFIED;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    @Override
+    public int purgeExpired(LocalDateTime now, int maxCodes) {
+        long nowMillis = toEpochMillis(now);
+        int purged = 0;
+        for (Stripe stripe : stripes) {
+            if (purged >= maxCodes) {
+                break;
+            }
+            stripe.lock.lock();
+            try {
+                Iterator<Entry> it = stripe.entries.values().iterator();
+                while (it.hasNext() && purged < maxCodes) {
+                    if (it.next().isExpired(nowMillis)) {
+                        it.remove();
+                        purged++;
+                    }
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return purged;
+    }
+
+    @Override
+    public long countExpired(LocalDateTime now) {
+        long nowMillis = toEpochMillis(now);
+        long expired = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                for (Entry entry : stripe.entries.values()) {
+                    if (entry.isExpired(nowMillis)) {
+                        expired++;
+                    }
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return expired;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public void destroy() {
+        ticker.shutdownNow();
+    }
+
+    void advanceWheel() {
+        try {
+            wheel.advance(System.currentTimeMillis(), this::expire);
+        } catch (RuntimeException e) {
+            log.error("OTP expiry wheel tick failed", e);
+        }
+    }
+
+    private void expire(String email, Entry entry) {
+        Stripe stripe = stripeFor(email);
+        stripe.lock.lock();
+        try {
+            // Only drop the exact entry that was scheduled; a newer code for the same email stays
+            stripe.entries.remove(email, entry);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private Stripe stripeFor(String email) {
+        int h = email.hashCode();
+        return stripes[(h ^ (h >>> 16)) & stripeMask];
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Entry> entries = new HashMap<>();
+    }
+
+    private static final class Entry {
+        private final byte[] code;
+        private final long expiresAtMillis;
+        private int retryCount; // guarded by the owning stripe's lock
+
+        private Entry(String code, LocalDateTime expiresAt) {
+            this.code = code.getBytes(StandardCharsets.UTF_8);
+            this.expiresAtMillis = toEpochMillis(expiresAt);
+        }
+
+        private boolean isExpired(long nowMillis) {
+            return nowMillis > expiresAtMillis;
+        }
+
+        private boolean matches(String candidate) {
+            return candidate != null && MessageDigest.isEqual(code, candidate.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Hashed timer wheel: each slot holds the codes whose expiry falls on that tick (modulo the
+     * wheel size). Only one thread advances the wheel; scheduling is lock-free.
+     */
+    private static final class ExpiryWheel {
+        private final long tickMillis;
+        private final List<Queue<Timeout>> slots = new ArrayList<>(WHEEL_SLOTS);
+        private volatile long currentTick;
+
+        private ExpiryWheel(long tickMillis, long startMillis) {
+            this.tickMillis = tickMillis;
+            for (int i = 0; i < WHEEL_SLOTS; i++) {
+                slots.add(new ConcurrentLinkedQueue<>());
+            }
+            this.currentTick = startMillis / tickMillis;
+        }
+
+        private void schedule(String email, Entry entry) {
+            long deadlineTick = Math.max(currentTick + 1, (entry.expiresAtMillis + tickMillis - 1) / tickMillis);
+            slots.get((int) (deadlineTick & (WHEEL_SLOTS - 1))).add(new Timeout(email, entry, deadlineTick));
+        }
+
+        private void advance(long nowMillis, ExpiryCallback callback) {
+            long targetTick = nowMillis / tickMillis;
+            while (currentTick < targetTick) {
+                long tick = currentTick + 1;
+                Queue<Timeout> slot = slots.get((int) (tick & (WHEEL_SLOTS - 1)));
+                // Entries more than one wheel revolution away go back into the same slot
+                for (int pending = slot.size(); pending > 0; pending--) {
+                    Timeout timeout = slot.poll();
+                    if (timeout == null) {
+                        break;
+                    }
+                    if (timeout.deadlineTick <= tick) {
+                        callback.expire(timeout.email, timeout.entry);
+                    } else {
+                        slot.add(timeout);
+                    }
+                }
+                currentTick = tick;
+            }
+        }
+    }
+
+    private static final class Timeout {
+        private final String email;
+        private final Entry entry;
+        private final long deadlineTick;
+
+        private Timeout(String email, Entry entry, long deadlineTick) {
+            this.email = email;
+            this.entry = entry;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ExpiryCallback {
+        void expire(String email, Entry entry);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.springmssqlapi.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Orders the initial load of an in-memory index against the updates committed while it runs.
+ *
+ * A load reads the table page by page, so a page can be older than an update that committed after
+ * the load started; applied in arrival order, the stale row would overwrite the update or bring
+ * back a deleted row. Updates that commit before the load finishes are therefore held back and
+ * replayed, in commit order, once the last page is in. Every update sets an entry to its committed
+ * state, so replaying it over an older row is always safe.
+ */
+public class IndexLoadGate {
+
+    private final Object lock = new Object();
+    // Updates waiting for the load to finish; null once they are applied directly
+    private List<Runnable> pending = new ArrayList<>();
+    private volatile boolean ready;
+
+    /**
+     * Runs {@code update} once the current transaction commits (or now, outside one), or queues it
+     * if the load has not finished.
+     */
+    public void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(update);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(update);
+            }
+        });
+    }
+
+    /**
+     * Runs the load, then replays the updates queued meanwhile. Updates that arrive during the
+     * replay are queued behind it, so they still apply after the ones that committed first. If the
+     * load fails the queue is replayed anyway, but the index is not marked ready.
+     */
+    public void load(Runnable loader) {
+        boolean loaded = false;
+        try {
+            loader.run();
+            loaded = true;
+        } finally {
+            replay();
+            ready = loaded;
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void apply(Runnable update) {
+        synchronized (lock) {
+            if (pending != null) {
+                pending.add(update);
+                return;
+            }
+        }
+        update.run();
+    }
+
+    private void replay() {
+        while (true) {
+            List<Runnable> batch;
+            synchronized (lock) {
+                if (pending == null) {
+                    return;
+                }
+                if (pending.isEmpty()) {
+                    pending = null;
+                    return;
+                }
+                batch = pending;
+                pending = new ArrayList<>();
+            }
+            batch.forEach(Runnable::run);
+        }
+    }
+}
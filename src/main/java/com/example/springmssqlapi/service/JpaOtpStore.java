@@ -0,0 +1,81 @@
+package com.example.springmssqlapi.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.example.springmssqlapi.entity.OtpCode;
+import com.example.springmssqlapi.repository.OtpCodeRepository;
+
+import javax.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class JpaOtpStore implements OtpStore {
+
+    private final OtpCodeRepository otpCodeRepository;
+
+    @Override
+    @Transactional
+    public void store(String email, String company, String otpCode, LocalDateTime expiresAt) {
+        // A single insert: the newest code for an email shadows any earlier ones (see OtpCodeRepository)
+        OtpCode otp = new OtpCode();
+        otp.setEmail(email);
+        otp.setCompany(company);
+        otp.setOtpCode(otpCode);
+        otp.setExpiresAt(expiresAt);
+        otp.setIsUsed(false);
+        otp.setRetryCount(0);
+
+        otpCodeRepository.save(otp);
+    }
+
+    @Override
+    @Transactional
+    public VerificationResult verify(String email, String otpCode, int maxRetryCount) {
+        LocalDateTime now = LocalDateTime.now();
+
+        if (otpCodeRepository.consumeLatest(email, otpCode, now, maxRetryCount) > 0) {
+            return VerificationResult.VERIFIED;
+        }
+        if (otpCodeRepository.recordMismatchOnLatest(email, otpCode, now, maxRetryCount) > 0) {
+            return VerificationResult.MISMATCH;
+        }
+
+        // Neither update matched; only now read the row to report why
+        Optional<OtpCode> latest = otpCodeRepository.findTopByEmailOrderByIdDesc(email);
+        if (latest.isEmpty() || Boolean.TRUE.equals(latest.get().getIsUsed())) {
+            return VerificationResult.NOT_FOUND;
+        }
+        OtpCode otp = latest.get();
+        if (!otp.getExpiresAt().isAfter(now)) {
+            return VerificationResult.EXPIRED;
+        }
+        if (otp.getRetryCount() >= maxRetryCount) {
+            log.warn("OTP retry limit reached for email: {}", email);
+            return VerificationResult.RETRIES_EXHAUSTED;
+        }
+        return VerificationResult.NOT_FOUND;
+    }
+
+    @Override
+    @Transactional
+    public int purgeExpired(LocalDateTime now, int maxCodes) {
+        // Delete by primary key so each chunk only locks the rows it removes
+        List<Long> ids = otpCodeRepository.findExpiredIds(now, PageRequest.of(0, maxCodes));
+        return ids.isEmpty() ? 0 : otpCodeRepository.deleteByIds(ids);
+    }
+
+    @Override
+    public long countExpired(LocalDateTime now) {
+        return otpCodeRepository.countByExpiresAtBefore(now);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.springmssqlapi.service;
+
+import java.time.Instant;
+
+/**
+ * Immutable result of verifying a JWT once: the subject email and the token's expiry.
+ */
+public final class JwtPrincipal {
+
+    private final String email;
+    private final Instant expiresAt;
+
+    public JwtPrincipal(String email, Instant expiresAt) {
+        this.email = email;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
@@ -1,13 +1,23 @@
 package com.example.springmssqlapi.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -16,11 +26,33 @@ import java.util.function.Function;
 @Service
 public class JwtService {
     
-    @Value("${jwt.secret:mySecretKeyForJWTTokenGenerationThatMustBeLongEnoughForHS256}")
-    private String jwtSecret;
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
     
-    @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
-    private long jwtExpirationInMs;
+    private final long jwtExpirationInMs;
+    private final Key signKey;
+    private final JwtParser jwtParser;
+    
+    // Tokens that already passed signature verification, keyed by SHA-256 digest of the raw token
+    private final Cache<String, JwtPrincipal> verifiedTokens;
+    
+    public JwtService(
+            @Value("${jwt.secret:mySecretKeyForJWTTokenGenerationThatMustBeLongEnoughForHS256}") String jwtSecret,
+            @Value("${jwt.expiration:86400000}") long jwtExpirationInMs, // 24 hours in milliseconds
+            @Value("${jwt.cache.max-size:10000}") long cacheMaxSize,
+            @Value("${jwt.cache.max-ttl:PT5M}") Duration cacheMaxTtl) {
+        this.jwtExpirationInMs = jwtExpirationInMs;
+        this.signKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signKey)
+                .build();
+        this.verifiedTokens = cacheMaxSize > 0 ? buildCache(cacheMaxSize, cacheMaxTtl) : null;
+    }
     
     public String generateToken(String email) {
         Map<String, Object> claims = new HashMap<>();
@@ -33,21 +65,39 @@ public class JwtService {
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationInMs))
-                .signWith(getSignKey(), SignatureAlgorithm.HS256)
+                .signWith(signKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
-    private Key getSignKey() {
-        byte[] keyBytes = jwtSecret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Parses and verifies the token at most once, serving repeat presentations of the same
+     * token from the verified-token cache until it expires.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public JwtPrincipal verifyToken(String token) {
+        if (verifiedTokens == null) {
+            return parsePrincipal(token);
+        }
+        
+        String digest = digest(token);
+        JwtPrincipal cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && !cached.isExpired(Instant.now())) {
+            return cached;
+        }
+        
+        JwtPrincipal principal = parsePrincipal(token);
+        verifiedTokens.put(digest, principal);
+        return principal;
     }
     
     public String extractEmail(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verifyToken(token).getEmail();
     }
     
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        Instant expiresAt = verifyToken(token).getExpiresAt();
+        return expiresAt != null ? Date.from(expiresAt) : null;
     }
     
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -56,19 +106,52 @@ public class JwtService {
     }
     
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return jwtParser.parseClaimsJws(token).getBody();
     }
     
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private JwtPrincipal parsePrincipal(String token) {
+        Claims claims = extractAllClaims(token);
+        Date expiration = claims.getExpiration();
+        return new JwtPrincipal(claims.getSubject(), expiration != null ? expiration.toInstant() : null);
     }
     
     public Boolean validateToken(String token, String email) {
-        final String extractedEmail = extractEmail(token);
-        return (extractedEmail.equals(email) && !isTokenExpired(token));
+        final JwtPrincipal principal = verifyToken(token);
+        return (principal.getEmail().equals(email) && !principal.isExpired(Instant.now()));
+    }
+    
+    private static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+    
+    private static Cache<String, JwtPrincipal> buildCache(long maxSize, Duration maxTtl) {
+        final long maxTtlNanos = maxTtl.toNanos();
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, JwtPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String key, JwtPrincipal value, long currentTime) {
+                        if (value.getExpiresAt() == null) {
+                            return maxTtlNanos;
+                        }
+                        Duration untilExpiry = Duration.between(Instant.now(), value.getExpiresAt());
+                        if (untilExpiry.compareTo(maxTtl) > 0) {
+                            return maxTtlNanos;
+                        }
+                        return Math.max(0, untilExpiry.toNanos());
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(String key, JwtPrincipal value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(String key, JwtPrincipal value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
-}
\ No newline at end of file
+}
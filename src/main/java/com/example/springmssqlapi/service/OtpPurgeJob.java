@@ -0,0 +1,79 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.config.OtpPurgeProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Removes expired OTP codes in bounded chunks, each in its own short transaction, pausing between
+ * chunks and stopping once the time budget is spent.
+ */
+@Component
+@Slf4j
+public class OtpPurgeJob {
+
+    private final OtpStore otpStore;
+    private final OtpPurgeProperties properties;
+
+    private final Counter rowsPurged;
+    private final Timer chunkLatency;
+    private final AtomicLong backlog = new AtomicLong();
+
+    public OtpPurgeJob(OtpStore otpStore, OtpPurgeProperties properties, MeterRegistry meterRegistry) {
+        this.otpStore = otpStore;
+        this.properties = properties;
+        this.rowsPurged = Counter.builder("otp.purge.rows")
+                .description("Expired OTP codes deleted")
+                .register(meterRegistry);
+        this.chunkLatency = Timer.builder("otp.purge.chunk.latency")
+                .description("Time to delete one chunk of expired OTP codes")
+                .register(meterRegistry);
+        Gauge.builder("otp.purge.backlog", backlog, AtomicLong::get)
+                .description("Expired OTP codes still waiting to be deleted after the last run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${otp.purge.interval:PT1H}", initialDelayString = "${otp.purge.initial-delay:PT1M}")
+    public void purgeExpired() {
+        long deadline = System.nanoTime() + properties.getTimeBudget().toNanos();
+        int batchSize = properties.getBatchSize();
+        int purged = 0;
+        int chunks = 0;
+
+        while (true) {
+            long start = System.nanoTime();
+            int deleted = otpStore.purgeExpired(LocalDateTime.now(), batchSize);
+            chunkLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            rowsPurged.increment(deleted);
+            purged += deleted;
+            chunks++;
+
+            if (deleted < batchSize || System.nanoTime() >= deadline || !pause()) {
+                break;
+            }
+        }
+
+        long remaining = otpStore.countExpired(LocalDateTime.now());
+        backlog.set(remaining);
+        log.info("Cleanup completed for expired OTPs, {} removed in {} chunks, {} remaining", purged, chunks, remaining);
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getPauseBetweenChunks().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -2,14 +2,10 @@ package com.example.springmssqlapi.service;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
-import java.util.Optional;
 
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import com.example.springmssqlapi.entity.OtpCode;
 import com.example.springmssqlapi.entity.Vendor;
-import com.example.springmssqlapi.repository.OtpCodeRepository;
 import com.example.springmssqlapi.repository.VendorRepository;
 
 import javax.transaction.Transactional;
@@ -21,9 +17,10 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class OtpService {
     
-    private final OtpCodeRepository otpCodeRepository;
+    private final OtpStore otpStore;
     private final VendorRepository vendorRepository;
     private final EmailService emailService;
+    private final VendorFacetService vendorFacetService;
     private final SecureRandom secureRandom = new SecureRandom();
     
     private static final int OTP_LENGTH = 6;
@@ -33,78 +30,40 @@ public class OtpService {
     @Transactional
     public void sendOtp(String email, String company) {
         // Check if vendor exists, if not create a new one
-        if (!vendorRepository.existsByEmail(email)) {
+        if (vendorRepository.findBySimpleNaturalId(email).isEmpty()) {
             Vendor newVendor = new Vendor();
             newVendor.setEmail(email);
             newVendor.setName(company);
             newVendor.setIsActive(true);
             vendorRepository.save(newVendor);
+            vendorFacetService.indexAfterCommit(newVendor);
             log.info("New vendor created with email: {} and company: {}", email, company);
         }
         
-        // Mark any existing OTPs as used for this email
-        otpCodeRepository.markAllOtpsAsUsedForEmail(email);
-        
-        // Generate new OTP
+        // Generate new OTP; storing it supersedes any earlier code for this email
         String otpCode = generateOtp();
+        otpStore.store(email, company, otpCode, LocalDateTime.now().plusMinutes(OTP_EXPIRY_MINUTES));
         
-        // Save OTP to database
-        OtpCode otp = new OtpCode();
-        otp.setEmail(email);
-        otp.setCompany(company);
-        otp.setOtpCode(otpCode);
-        otp.setExpiresAt(LocalDateTime.now().plusMinutes(OTP_EXPIRY_MINUTES));
-        otp.setIsUsed(false);
-        otp.setRetryCount(0);
-        
-        otpCodeRepository.save(otp);
-        
-        // Send email
-        emailService.sendOtpEmail(email, company, otpCode);
+        // Queue email in the outbox; it is delivered after this transaction commits
+        emailService.queueOtpEmail(email, company, otpCode);
 
-        log.info("OTP generated and sent for email: {} and company: {}", email, company);
+        log.info("OTP generated and queued for email: {} and company: {}", email, company);
     }
     
-    @Transactional
     public boolean verifyOtp(String email, String otpCode) {
-        Optional<OtpCode> otpOptional = otpCodeRepository.findByEmailAndOtpCodeAndIsUsedFalse(email, otpCode);
-        
-        if (otpOptional.isEmpty()) {
-            log.warn("Invalid OTP attempt for email: {}", email);
-            incrementRetryCount(email);
-            return false;
-        }
-        
-        OtpCode otp = otpOptional.get();
-        
-        if (!otp.isValidForVerification()) {
-            log.warn("OTP verification failed - expired or max retries reached for email: {}", email);
-            return false;
-        }
-        
-        // Mark OTP as used
-        otp.setIsUsed(true);
-        otpCodeRepository.save(otp);
+        OtpStore.VerificationResult result = otpStore.verify(email, otpCode, MAX_RETRY_COUNT);
         
-        // Mark all other OTPs for this email as used
-        otpCodeRepository.markAllOtpsAsUsedForEmail(email);
-        
-        log.info("OTP verification successful for email: {}", email);
-        return true;
-    }
-    
-    private void incrementRetryCount(String email) {
-        Optional<OtpCode> latestOtpOptional = otpCodeRepository.findTopByEmailAndIsUsedFalseOrderByCreatedAtDesc(email);
-        if (latestOtpOptional.isPresent()) {
-            OtpCode latestOtp = latestOtpOptional.get();
-            latestOtp.setRetryCount(latestOtp.getRetryCount() + 1);
-            
-            if (latestOtp.getRetryCount() >= MAX_RETRY_COUNT) {
-                latestOtp.setIsUsed(true);
-                log.warn("OTP marked as used due to max retry attempts for email: {}", email);
-            }
-            
-            otpCodeRepository.save(latestOtp);
+        switch (result) {
+            case VERIFIED:
+                log.info("OTP verification successful for email: {}", email);
+                return true;
+            case EXPIRED:
+            case RETRIES_EXHAUSTED:
+                log.warn("OTP verification failed - expired or max retries reached for email: {}", email);
+                return false;
+            default:
+                log.warn("Invalid OTP attempt for email: {}", email);
+                return false;
         }
     }
     
@@ -115,11 +74,4 @@ public class OtpService {
         }
         return otp.toString();
     }
-    
-    @Scheduled(fixedRate = 3600000) // Run every hour
-    @Transactional
-    public void cleanupExpiredOtps() {
-        otpCodeRepository.deleteExpiredOtps(LocalDateTime.now());
-        log.info("Cleanup completed for expired OTPs");
-    }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.example.springmssqlapi.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Storage for issued OTP codes. At most one code is live per email: storing a new code
+ * supersedes any earlier one. Implementations must apply verify attempts atomically.
+ *
+ * Selected with {@code otp.store=jpa} (default, shared across instances) or {@code otp.store=memory}.
+ */
+public interface OtpStore {
+
+    enum VerificationResult {
+        VERIFIED,
+        MISMATCH,
+        EXPIRED,
+        RETRIES_EXHAUSTED,
+        NOT_FOUND
+    }
+
+    void store(String email, String company, String otpCode, LocalDateTime expiresAt);
+
+    VerificationResult verify(String email, String otpCode, int maxRetryCount);
+
+    /**
+     * Removes at most {@code maxCodes} expired codes.
+     *
+     * @return number of expired codes removed
+     */
+    int purgeExpired(LocalDateTime now, int maxCodes);
+
+    long countExpired(LocalDateTime now);
+}
@@ -0,0 +1,83 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.config.RateLimitProperties;
+import com.example.springmssqlapi.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-email and per-client-IP limits for the OTP endpoints. Checked before any DB or SMTP work,
+ * so a flood of requests is turned away at the cost of one CAS per bucket. A request refused by
+ * one limit costs nothing against the other.
+ */
+@Service
+@Slf4j
+public class RateLimitService {
+
+    private final boolean enabled;
+    private final TokenBucketRateLimiter sendOtpPerEmail;
+    private final TokenBucketRateLimiter sendOtpPerIp;
+    private final TokenBucketRateLimiter verifyOtpPerEmail;
+    private final TokenBucketRateLimiter verifyOtpPerIp;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitService(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.sendOtpPerEmail = limiter(properties.getSendOtpPerEmail(), properties.getMaxKeys());
+        this.sendOtpPerIp = limiter(properties.getSendOtpPerIp(), properties.getMaxKeys());
+        this.verifyOtpPerEmail = limiter(properties.getVerifyOtpPerEmail(), properties.getMaxKeys());
+        this.verifyOtpPerIp = limiter(properties.getVerifyOtpPerIp(), properties.getMaxKeys());
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void checkSendOtp(String email, String clientIp) {
+        check("send-otp", sendOtpPerIp, clientIp, "Too many OTP requests from this client",
+                sendOtpPerEmail, normalize(email), "Too many OTP requests for this email");
+    }
+
+    public void checkVerifyOtp(String email, String clientIp) {
+        check("verify-otp", verifyOtpPerIp, clientIp, "Too many OTP verification attempts from this client",
+                verifyOtpPerEmail, normalize(email), "Too many OTP verification attempts for this email");
+    }
+
+    /**
+     * Takes a token from both buckets or from neither: if the email bucket refuses, the client
+     * bucket's token is given back, so a request for a throttled email doesn't use up the IP's
+     * allowance (and the reverse never starts).
+     */
+    private void check(String endpoint, TokenBucketRateLimiter ipLimiter, String ip, String ipMessage,
+                       TokenBucketRateLimiter emailLimiter, String email, String emailMessage) {
+        if (!enabled) {
+            return;
+        }
+        long waitNanos = ip == null ? 0 : ipLimiter.tryAcquire(ip);
+        if (waitNanos > 0) {
+            reject(endpoint, ipMessage, waitNanos);
+        }
+        waitNanos = email == null ? 0 : emailLimiter.tryAcquire(email);
+        if (waitNanos > 0) {
+            if (ip != null) {
+                ipLimiter.release(ip);
+            }
+            reject(endpoint, emailMessage, waitNanos);
+        }
+    }
+
+    private void reject(String endpoint, String message, long waitNanos) {
+        meterRegistry.counter("auth.rate_limit.rejected", "endpoint", endpoint).increment();
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        throw new TooManyRequestsException(message + ". Please retry in " + retryAfterSeconds + " seconds.", retryAfterSeconds);
+    }
+
+    private static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static TokenBucketRateLimiter limiter(RateLimitProperties.Bucket bucket, long maxKeys) {
+        return new TokenBucketRateLimiter(bucket.getCapacity(), bucket.getRefillInterval(), maxKeys);
+    }
+}
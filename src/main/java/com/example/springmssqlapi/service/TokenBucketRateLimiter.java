@@ -0,0 +1,66 @@
+package com.example.springmssqlapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets keyed by an arbitrary string (email, client IP, ...), held in a bounded map.
+ *
+ * Each bucket is a single {@link AtomicLong} holding its "theoretical arrival time" (the GCRA
+ * formulation of a token bucket), so taking a token is one compare-and-set with no locks.
+ * A bucket that has been idle long enough to refill completely is indistinguishable from a
+ * new one, which is why idle buckets can simply be evicted.
+ */
+public final class TokenBucketRateLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final long originNanos = System.nanoTime();
+    private final Cache<String, AtomicLong> buckets;
+
+    /**
+     * @param capacity       tokens available in a burst
+     * @param refillInterval time to regain one token
+     * @param maxKeys        upper bound on tracked keys
+     */
+    public TokenBucketRateLimiter(int capacity, Duration refillInterval, long maxKeys) {
+        this.emissionIntervalNanos = refillInterval.toNanos();
+        this.burstToleranceNanos = emissionIntervalNanos * (Math.max(1, capacity) - 1);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(refillInterval.multipliedBy(Math.max(1, capacity)))
+                .build();
+    }
+
+    /**
+     * @return 0 if a token was taken, otherwise the nanoseconds until one becomes available
+     */
+    public long tryAcquire(String key) {
+        AtomicLong arrival = buckets.get(key, k -> new AtomicLong());
+        while (true) {
+            long now = System.nanoTime() - originNanos;
+            long current = arrival.get();
+            long base = Math.max(current, now);
+            long conformsAt = base - burstToleranceNanos;
+            if (conformsAt > now) {
+                return conformsAt - now;
+            }
+            if (arrival.compareAndSet(current, base + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by {@link #tryAcquire} for a request that was refused elsewhere.
+     */
+    public void release(String key) {
+        AtomicLong arrival = buckets.getIfPresent(key);
+        if (arrival != null) {
+            arrival.addAndGet(-emissionIntervalNanos);
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.dto.UserSummary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over user names and emails, for typeahead.
+ *
+ * Every user is a document with an ordinal, and matches are ranked (best first):
+ * name starts with the query, a later name word does, email starts with it, a later email word
+ * does, and - for queries of three or more characters - name contains it, email contains it.
+ * Ties keep index order.
+ *
+ * Two kinds of posting lists are kept:
+ * <ul>
+ *   <li>every trigram of the lower-cased name and email, for substring matching; a query scans the
+ *   list of its rarest trigram and verifies each candidate</li>
+ *   <li>word-start grams ({@code "\2\2j"}, {@code "\2jo"}, {@code "joh"} for a word "john"), split by
+ *   the rank at which the word occurs, so a common prefix can stop after the first k matches of the
+ *   best rank instead of ranking everything</li>
+ * </ul>
+ * One- and two-character queries only use the word-start grams and so match word prefixes only.
+ *
+ * Updates never rewrite posting lists: a changed user gets a new ordinal and the old one becomes
+ * a tombstone that searches skip. Lists are rebuilt once tombstones outnumber live documents.
+ */
+public class UserSearchIndex {
+
+    private static final char WORD_START = '\u0002';
+    private static final int COMPACT_MIN_TOMBSTONES = 1024;
+
+    // Ranks 0-3 are word-start matches and have their own posting lists; 4-5 are substring matches
+    private static final int WORD_RANKS = 4;
+    private static final int NO_MATCH = -1;
+
+    // Below this many candidates it is cheaper to rank them all than to walk the word-start lists
+    private static final int FULL_SCAN_MAX_CANDIDATES = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IntList> postings = new HashMap<>();
+    private final Map<Long, Integer> ordinalById = new HashMap<>();
+    private final List<Doc> docs = new ArrayList<>();
+    private int tombstones;
+
+    public void put(Long id, String name, String email, Boolean emailVerified) {
+        Doc doc = new Doc(id, name, email, emailVerified);
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            addLocked(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return up to {@code limit} users whose name or email contains {@code query} (or, for
+     *         queries shorter than three characters, has a word starting with it), best match first
+     */
+    public List<UserSummary> search(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit < 1) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Doc> matches;
+            if (q.length() < 3) {
+                matches = searchWordStarts(q, limit, null);
+            } else {
+                IntList rarest = rarestTrigramPosting(q);
+                if (rarest == null) {
+                    return Collections.emptyList();
+                }
+                matches = rarest.size <= FULL_SCAN_MAX_CANDIDATES
+                        ? rankAll(q, limit, rarest)
+                        : searchWordStarts(q, limit, rarest);
+            }
+
+            List<UserSummary> results = new ArrayList<>(matches.size());
+            for (Doc doc : matches) {
+                results.add(new UserSummary(doc.id, doc.name, doc.email, doc.emailVerified));
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks every candidate and keeps the best {@code limit}.
+     */
+    private List<Doc> rankAll(String q, int limit, IntList candidates) {
+        Comparator<long[]> worstFirst = Comparator.<long[]>comparingLong(m -> m[0]).thenComparingLong(m -> m[1]).reversed();
+        PriorityQueue<long[]> top = new PriorityQueue<>(limit + 1, worstFirst);
+        for (int i = 0; i < candidates.size; i++) {
+            int ordinal = candidates.values[i];
+            Doc doc = docs.get(ordinal);
+            int rank = doc == null ? NO_MATCH : rank(doc, q);
+            if (rank == NO_MATCH) {
+                continue;
+            }
+            top.offer(new long[] {rank, ordinal});
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<long[]> best = new ArrayList<>(top);
+        best.sort(worstFirst.reversed());
+        List<Doc> matches = new ArrayList<>(best.size());
+        for (long[] match : best) {
+            matches.add(docs.get((int) match[1]));
+        }
+        return matches;
+    }
+
+    /**
+     * Walks the word-start lists rank by rank and stops at {@code limit} matches; only if those run
+     * out are substring matches collected from {@code substringCandidates} (null for short queries).
+     */
+    private List<Doc> searchWordStarts(String q, int limit, IntList substringCandidates) {
+        long prefixGram = q.length() == 1 ? pack(WORD_START, WORD_START, q.charAt(0))
+                : q.length() == 2 ? pack(WORD_START, q.charAt(0), q.charAt(1))
+                : gramKey(q, 0);
+
+        List<Doc> matches = new ArrayList<>(limit);
+        // A doc is listed under the best rank its word-start gram reaches; longer queries can
+        // verify to a worse rank, so those wait here until their rank comes up
+        List<List<Doc>> deferred = new ArrayList<>(WORD_RANKS);
+        for (int r = 0; r < WORD_RANKS; r++) {
+            deferred.add(new ArrayList<>());
+        }
+
+        for (int listRank = 0; listRank < WORD_RANKS; listRank++) {
+            for (Doc doc : deferred.get(listRank)) {
+                matches.add(doc);
+                if (matches.size() == limit) {
+                    return matches;
+                }
+            }
+            IntList posting = postings.get(rankedGramKey(prefixGram, listRank));
+            if (posting == null) {
+                continue;
+            }
+            for (int i = 0; i < posting.size; i++) {
+                Doc doc = docs.get(posting.values[i]);
+                int rank = doc == null ? NO_MATCH : rank(doc, q);
+                if (rank == listRank) {
+                    matches.add(doc);
+                    if (matches.size() == limit) {
+                        return matches;
+                    }
+                } else if (rank > listRank && rank < WORD_RANKS) {
+                    deferred.get(rank).add(doc);
+                }
+            }
+        }
+
+        if (substringCandidates != null) {
+            collectSubstringMatches(q, limit, substringCandidates, matches);
+        }
+        return matches;
+    }
+
+    private void collectSubstringMatches(String q, int limit, IntList candidates, List<Doc> matches) {
+        int wanted = limit - matches.size();
+        List<Doc> nameMatches = new ArrayList<>();
+        List<Doc> emailMatches = new ArrayList<>();
+        for (int i = 0; i < candidates.size && nameMatches.size() < wanted; i++) {
+            Doc doc = docs.get(candidates.values[i]);
+            int rank = doc == null ? NO_MATCH : rank(doc, q);
+            if (rank == WORD_RANKS) {
+                nameMatches.add(doc);
+            } else if (rank == WORD_RANKS + 1 && emailMatches.size() < wanted) {
+                emailMatches.add(doc);
+            }
+        }
+        for (List<Doc> tier : List.of(nameMatches, emailMatches)) {
+            for (Doc doc : tier) {
+                if (matches.size() == limit) {
+                    return;
+                }
+                matches.add(doc);
+            }
+        }
+    }
+
+    private IntList rarestTrigramPosting(String q) {
+        IntList rarest = null;
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            IntList posting = postings.get(gramKey(q, i));
+            if (posting == null) {
+                return null;
+            }
+            if (rarest == null || posting.size < rarest.size) {
+                rarest = posting;
+            }
+        }
+        return rarest;
+    }
+
+    private static int rank(Doc doc, String q) {
+        if (doc.lowerName.startsWith(q)) {
+            return 0;
+        }
+        if (startsWord(doc.lowerName, q)) {
+            return 1;
+        }
+        if (doc.lowerEmail.startsWith(q)) {
+            return 2;
+        }
+        if (startsWord(doc.lowerEmail, q)) {
+            return 3;
+        }
+        if (q.length() >= 3) {
+            if (doc.lowerName.contains(q)) {
+                return 4;
+            }
+            if (doc.lowerEmail.contains(q)) {
+                return 5;
+            }
+        }
+        return NO_MATCH;
+    }
+
+    private static boolean startsWord(String text, String q) {
+        for (int at = text.indexOf(q); at >= 0; at = text.indexOf(q, at + 1)) {
+            if (at == 0 || !Character.isLetterOrDigit(text.charAt(at - 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addLocked(Doc doc) {
+        int ordinal = docs.size();
+        docs.add(doc);
+        ordinalById.put(doc.id, ordinal);
+        for (long key : postingKeys(doc)) {
+            postings.computeIfAbsent(key, k -> new IntList()).add(ordinal);
+        }
+    }
+
+    private void removeLocked(Long id) {
+        Integer ordinal = ordinalById.remove(id);
+        if (ordinal == null) {
+            return;
+        }
+        docs.set(ordinal, null);
+        tombstones++;
+        if (tombstones >= COMPACT_MIN_TOMBSTONES && tombstones > ordinalById.size()) {
+            compactLocked();
+        }
+    }
+
+    private void compactLocked() {
+        List<Doc> live = new ArrayList<>(ordinalById.size());
+        for (Doc doc : docs) {
+            if (doc != null) {
+                live.add(doc);
+            }
+        }
+        docs.clear();
+        postings.clear();
+        ordinalById.clear();
+        tombstones = 0;
+        for (Doc doc : live) {
+            addLocked(doc);
+        }
+    }
+
+    private static List<Long> postingKeys(Doc doc) {
+        Map<Long, Integer> bestRankByWordGram = new HashMap<>();
+        addWordStartGrams(bestRankByWordGram, doc.lowerName, 0);
+        addWordStartGrams(bestRankByWordGram, doc.lowerEmail, 2);
+
+        List<Long> keys = new ArrayList<>();
+        addTrigrams(keys, doc.lowerName);
+        addTrigrams(keys, doc.lowerEmail);
+        bestRankByWordGram.forEach((gram, rank) -> keys.add(rankedGramKey(gram, rank)));
+        return keys;
+    }
+
+    private static void addTrigrams(List<Long> keys, String text) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            long gram = gramKey(text, i);
+            if (!keys.contains(gram)) {
+                keys.add(gram);
+            }
+        }
+    }
+
+    /**
+     * @param firstWordRank rank of a match on the first word of {@code text}; later words rank one lower
+     */
+    private static void addWordStartGrams(Map<Long, Integer> bestRank, String text, int firstWordRank) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isLetterOrDigit(text.charAt(i)) || (i > 0 && Character.isLetterOrDigit(text.charAt(i - 1)))) {
+                continue;
+            }
+            int rank = i == 0 ? firstWordRank : firstWordRank + 1;
+            bestRank.merge(pack(WORD_START, WORD_START, text.charAt(i)), rank, Math::min);
+            if (i + 1 < text.length()) {
+                bestRank.merge(pack(WORD_START, text.charAt(i), text.charAt(i + 1)), rank, Math::min);
+            }
+            if (i + 2 < text.length()) {
+                bestRank.merge(gramKey(text, i), rank, Math::min);
+            }
+        }
+    }
+
+    private static long gramKey(String text, int from) {
+        return pack(text.charAt(from), text.charAt(from + 1), text.charAt(from + 2));
+    }
+
+    // Three UTF-16 chars take the low 48 bits; word-start lists put (rank + 1) above them
+    private static long pack(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    private static long rankedGramKey(long gram, int rank) {
+        return gram | ((long) (rank + 1) << 48);
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Doc {
+        final Long id;
+        final String name;
+        final String email;
+        final Boolean emailVerified;
+        final String lowerName;
+        final String lowerEmail;
+
+        Doc(Long id, String name, String email, Boolean emailVerified) {
+            this.id = id;
+            this.name = name == null ? "" : name;
+            this.email = email == null ? "" : email;
+            this.emailVerified = emailVerified;
+            this.lowerName = normalize(name);
+            this.lowerEmail = normalize(email);
+        }
+    }
+
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
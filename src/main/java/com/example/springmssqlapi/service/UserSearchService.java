@@ -0,0 +1,82 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.dto.UserSummary;
+import com.example.springmssqlapi.entity.User;
+import com.example.springmssqlapi.exception.BadRequestException;
+import com.example.springmssqlapi.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Typeahead over user names and emails, served from a {@link UserSearchIndex} that is loaded at
+ * startup and kept current by {@link UserService} after each committed write. Until the initial
+ * load has finished, searches fall back to a name LIKE query; writes committed meanwhile are
+ * applied once it has, see {@link IndexLoadGate}.
+ */
+@Service
+@Slf4j
+public class UserSearchService {
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final UserRepository userRepository;
+    private final UserSearchIndex index = new UserSearchIndex();
+    private final IndexLoadGate gate = new IndexLoadGate();
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public UserSearchService(UserRepository userRepository,
+                             @Value("${users.search.default-limit:10}") int defaultLimit,
+                             @Value("${users.search.max-limit:50}") int maxLimit) {
+        this.userRepository = userRepository;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        long start = System.currentTimeMillis();
+        gate.load(() -> {
+            long afterId = 0;
+            List<UserSummary> page;
+            do {
+                page = userRepository.findPageAfter(afterId, null, null, PageRequest.of(0, LOAD_PAGE_SIZE));
+                for (UserSummary user : page) {
+                    index.put(user.getId(), user.getName(), user.getEmail(), user.getEmailVerified());
+                    afterId = user.getId();
+                }
+            } while (page.size() == LOAD_PAGE_SIZE);
+        });
+        log.info("User search index loaded with {} users in {} ms", index.size(), System.currentTimeMillis() - start);
+    }
+
+    public List<UserSummary> search(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be empty");
+        }
+        int k = limit == null ? defaultLimit : Math.min(Math.max(limit, 1), maxLimit);
+        if (!gate.isReady()) {
+            log.debug("User search index still loading, falling back to LIKE for query: {}", query);
+            return userRepository.findPageAfter(0L, null, query.trim(), PageRequest.of(0, k));
+        }
+        return index.search(query, k);
+    }
+
+    public void indexAfterCommit(User user) {
+        indexAfterCommit(new UserSummary(user.getId(), user.getName(), user.getEmail(), user.getEmailVerified()));
+    }
+
+    public void indexAfterCommit(UserSummary user) {
+        gate.afterCommit(() -> index.put(user.getId(), user.getName(), user.getEmail(), user.getEmailVerified()));
+    }
+
+    public void removeAfterCommit(Long id) {
+        gate.afterCommit(() -> index.remove(id));
+    }
+}
@@ -1,15 +1,36 @@
 package com.example.springmssqlapi.service;
 
+import com.example.springmssqlapi.dto.BatchItemResult;
+import com.example.springmssqlapi.dto.CursorPage;
+import com.example.springmssqlapi.dto.UserPatchRequest;
+import com.example.springmssqlapi.dto.UserSummary;
+import com.example.springmssqlapi.dto.UserView;
 import com.example.springmssqlapi.entity.User;
 import com.example.springmssqlapi.exception.BadRequestException;
+import com.example.springmssqlapi.exception.ConflictException;
 import com.example.springmssqlapi.exception.ResourceNotFoundException;
+import com.example.springmssqlapi.repository.UserBatchRepository;
 import com.example.springmssqlapi.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -18,8 +39,23 @@ import java.util.List;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final UserBatchRepository userBatchRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserSearchService userSearchService;
+    private final Validator validator;
+
+    @Value("${users.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${users.page.max-size:500}")
+    private int maxPageSize;
+
+    // Bounded so every IN list stays under SQL Server's 2100 parameter limit
+    @Value("${users.batch.max-size:1000}")
+    private int maxBatchSize;
 
     public User saveUser(User user) {
+        user.setEmail(normalizeEmail(user.getEmail()));
         log.info("Attempting to save user with email: {}", user.getEmail());
 
         if (userRepository.existsByEmail(user.getEmail())) {
@@ -27,18 +63,169 @@ public class UserService {
             throw new BadRequestException("User with email " + user.getEmail() + " already exists");
         }
 
+        // A client-supplied version would make Spring Data treat the new user as existing
+        user.setVersion(null);
         User savedUser = userRepository.save(user);
         log.info("Successfully saved user with ID: {} and email: {}", savedUser.getId(), savedUser.getEmail());
 
+        // The welcome email is queued by WelcomeEmailListener and sent after commit
+        eventPublisher.publishEvent(new UsersCreatedEvent(List.of(savedUser)));
+        userSearchService.indexAfterCommit(savedUser);
+
         return savedUser;
     }
 
+    /**
+     * Returns up to {@code limit} users with an id greater than {@code afterId}, in id order.
+     * One extra row is fetched to tell whether another page exists.
+     *
+     * @return the page and the cursor for the next one ({@code null} on the last page); the link is left to the caller
+     */
     @Transactional(readOnly = true)
-    public List<User> getAllUsers() {
-        log.info("Fetching all users");
-        List<User> users = userRepository.findAll();
-        log.info("Found {} users", users.size());
-        return users;
+    public CursorPage<UserSummary> getUsers(Long afterId, Integer limit, Boolean emailVerified, String name) {
+        int pageSize = resolvePageSize(limit);
+        String nameFilter = (name == null || name.isBlank()) ? null : name.trim();
+        log.info("Fetching users after ID: {} (limit {}, emailVerified {}, name {})", afterId, pageSize, emailVerified, nameFilter);
+
+        List<UserSummary> rows = userRepository.findPageAfter(afterId == null ? 0L : afterId, emailVerified, nameFilter,
+                PageRequest.of(0, pageSize + 1));
+
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null, null);
+        }
+        List<UserSummary> page = rows.subList(0, pageSize);
+        return new CursorPage<>(page, page.get(pageSize - 1).getId(), null);
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1) {
+            throw new BadRequestException("limit must be at least 1");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    @Transactional(readOnly = true)
+    public List<BatchItemResult<UserSummary>> getUsersByIds(List<Long> ids) {
+        checkBatchSize(ids);
+        log.info("Fetching {} users by ID", ids.size());
+
+        Map<Long, UserSummary> found = new HashMap<>();
+        for (UserSummary user : userRepository.findSummariesByIdIn(new HashSet<>(ids))) {
+            found.put(user.getId(), user);
+        }
+
+        List<BatchItemResult<UserSummary>> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            UserSummary user = found.get(ids.get(i));
+            results.add(user != null
+                ? new BatchItemResult<>(i, BatchItemResult.Status.FOUND, null, user)
+                : new BatchItemResult<>(i, BatchItemResult.Status.NOT_FOUND, "User not found with id: " + ids.get(i), null));
+        }
+        log.info("Found {} of {} requested users", found.size(), ids.size());
+        return results;
+    }
+
+    /**
+     * Creates every valid user whose email is not already taken, with one duplicate check and one
+     * JDBC batch for the whole request. Invalid and duplicate items are reported, not fatal.
+     */
+    public List<BatchItemResult<UserSummary>> createUsers(List<User> users) {
+        checkBatchSize(users);
+        log.info("Attempting to save {} users", users.size());
+
+        List<BatchItemResult<UserSummary>> results = new ArrayList<>(Collections.nCopies(users.size(), null));
+        Map<String, Integer> indexByEmail = new LinkedHashMap<>();
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            if (user != null) {
+                // Stored lowercased so a case-only variant is caught here rather than by the unique index
+                user.setEmail(normalizeEmail(user.getEmail()));
+            }
+            Set<ConstraintViolation<User>> violations = user == null ? Set.of() : validator.validate(user);
+            if (user == null || !violations.isEmpty()) {
+                String message = user == null ? "User is required" : violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+                results.set(i, new BatchItemResult<>(i, BatchItemResult.Status.INVALID, message, null));
+            } else if (indexByEmail.putIfAbsent(user.getEmail(), i) != null) {
+                results.set(i, duplicate(i, user.getEmail()));
+            }
+        }
+
+        if (!indexByEmail.isEmpty()) {
+            // The database may hand back older rows in their stored casing
+            for (String email : userRepository.findExistingEmails(indexByEmail.keySet())) {
+                Integer index = indexByEmail.remove(normalizeEmail(email));
+                if (index != null) {
+                    results.set(index, duplicate(index, email));
+                }
+            }
+        }
+
+        if (!indexByEmail.isEmpty()) {
+            List<User> toInsert = new ArrayList<>(indexByEmail.size());
+            for (int index : indexByEmail.values()) {
+                toInsert.add(users.get(index));
+            }
+            userBatchRepository.insertAll(toInsert);
+
+            for (UserSummary created : userRepository.findSummariesByEmailIn(indexByEmail.keySet())) {
+                Integer index = indexByEmail.get(normalizeEmail(created.getEmail()));
+                if (index == null) {
+                    continue;
+                }
+                results.set(index, new BatchItemResult<>(index, BatchItemResult.Status.CREATED, null, created));
+                userSearchService.indexAfterCommit(created);
+            }
+            eventPublisher.publishEvent(new UsersCreatedEvent(toInsert));
+        }
+
+        log.info("Successfully saved {} of {} users", indexByEmail.size(), users.size());
+        return results;
+    }
+
+    public List<BatchItemResult<UserSummary>> deleteUsers(List<Long> ids) {
+        checkBatchSize(ids);
+        log.info("Deleting {} users", ids.size());
+
+        Set<Long> existing = new HashSet<>(userRepository.findExistingIds(new HashSet<>(ids)));
+        if (!existing.isEmpty()) {
+            userRepository.deleteByIdIn(existing);
+            existing.forEach(userSearchService::removeAfterCommit);
+        }
+
+        List<BatchItemResult<UserSummary>> results = new ArrayList<>(ids.size());
+        Set<Long> reported = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            results.add(existing.contains(id) && reported.add(id)
+                ? new BatchItemResult<>(i, BatchItemResult.Status.DELETED, null, null)
+                : new BatchItemResult<>(i, BatchItemResult.Status.NOT_FOUND, "User not found with id: " + id, null));
+        }
+        log.info("Successfully deleted {} of {} users", existing.size(), ids.size());
+        return results;
+    }
+
+    private void checkBatchSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new BadRequestException("At least one item is required");
+        }
+        if (items.size() > maxBatchSize) {
+            throw new BadRequestException("At most " + maxBatchSize + " items are allowed per batch");
+        }
+    }
+
+    // Every write and lookup goes through this, so one address is one row whatever the collation
+    private static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static BatchItemResult<UserSummary> duplicate(int index, String email) {
+        return new BatchItemResult<>(index, BatchItemResult.Status.DUPLICATE, "User with email " + email + " already exists", null);
     }
 
     @Transactional(readOnly = true)
@@ -55,11 +242,31 @@ public class UserService {
         return user;
     }
 
+    /**
+     * Read-only views for the GET endpoints. The lookups are served from the second-level cache, which
+     * is several times cheaper than any query (see UserReadBenchmark); the read-only transaction keeps
+     * Hibernate from snapshotting or flushing the entity, and callers only ever see the detached view.
+     */
     @Transactional(readOnly = true)
-    public User getUserByEmail(String email) {
+    public UserView getUserView(Long id) {
+        return toView(getUser(id));
+    }
+
+    @Transactional(readOnly = true)
+    public UserView getUserViewByEmail(String email) {
+        return toView(getUserByEmail(email));
+    }
+
+    private static UserView toView(User user) {
+        return new UserView(user.getId(), user.getName(), user.getEmail(), user.getEmailVerified(), user.getVersion());
+    }
+
+    @Transactional(readOnly = true)
+    public User getUserByEmail(String rawEmail) {
+        String email = normalizeEmail(rawEmail);
         log.info("Fetching user with email: {}", email);
 
-        User user = userRepository.findByEmail(email)
+        User user = userRepository.findBySimpleNaturalId(email)
             .orElseThrow(() -> {
                 log.warn("User not found with email: {}", email);
                 return new ResourceNotFoundException("User not found with email: " + email);
@@ -73,28 +280,72 @@ public class UserService {
         log.info("Updating user with ID: {}", id);
 
         User existingUser = getUser(id);
-
-        if (!existingUser.getEmail().equals(userDetails.getEmail()) &&
-            userRepository.existsByEmail(userDetails.getEmail())) {
-            log.warn("Email {} is already in use by another user", userDetails.getEmail());
-            throw new BadRequestException("Email " + userDetails.getEmail() + " is already in use");
-        }
+        checkVersion(existingUser, userDetails.getVersion());
+        String email = normalizeEmail(userDetails.getEmail());
+        checkEmailAvailable(existingUser, email);
 
         existingUser.setName(userDetails.getName());
-        existingUser.setEmail(userDetails.getEmail());
+        existingUser.setEmail(email);
         existingUser.setEmailVerified(userDetails.getEmailVerified());
 
         User updatedUser = userRepository.save(existingUser);
+        userSearchService.indexAfterCommit(updatedUser);
         log.info("Successfully updated user with ID: {}", updatedUser.getId());
 
         return updatedUser;
     }
 
+    /**
+     * Applies only the fields present in {@code patch}. With @DynamicUpdate Hibernate writes just the
+     * changed columns (plus the version), and nothing at all if no value actually changed; a concurrent
+     * change to the same row fails the version check at flush and surfaces as 409.
+     */
+    public User patchUser(Long id, UserPatchRequest patch) {
+        log.info("Patching user with ID: {}", id);
+
+        User existingUser = getUser(id);
+        checkVersion(existingUser, patch.getVersion());
+
+        if (patch.getName() != null) {
+            existingUser.setName(patch.getName());
+        }
+        if (patch.getEmail() != null) {
+            String email = normalizeEmail(patch.getEmail());
+            checkEmailAvailable(existingUser, email);
+            existingUser.setEmail(email);
+        }
+        if (patch.getEmailVerified() != null) {
+            existingUser.setEmailVerified(patch.getEmailVerified());
+        }
+
+        // Flush here so a lost race is reported by this call rather than at commit
+        User patchedUser = userRepository.saveAndFlush(existingUser);
+        userSearchService.indexAfterCommit(patchedUser);
+        log.info("Successfully patched user with ID: {} (version {})", patchedUser.getId(), patchedUser.getVersion());
+
+        return patchedUser;
+    }
+
+    private static void checkVersion(User user, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            log.warn("Stale update for user {}: expected version {}, current {}", user.getId(), expectedVersion, user.getVersion());
+            throw new ConflictException("User " + user.getId() + " has been modified (current version " + user.getVersion() + ")");
+        }
+    }
+
+    private void checkEmailAvailable(User user, String email) {
+        if (!normalizeEmail(user.getEmail()).equals(email) && userRepository.existsByEmail(email)) {
+            log.warn("Email {} is already in use by another user", email);
+            throw new BadRequestException("Email " + email + " is already in use");
+        }
+    }
+
     public void deleteUser(Long id) {
         log.info("Deleting user with ID: {}", id);
 
         User user = getUser(id);
         userRepository.delete(user);
+        userSearchService.removeAfterCommit(id);
 
         log.info("Successfully deleted user with ID: {}", id);
     }
@@ -0,0 +1,21 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.entity.User;
+
+import java.util.List;
+
+/**
+ * Published inside the transaction that created the users; listeners decide which phase to react in.
+ */
+public class UsersCreatedEvent {
+
+    private final List<User> users;
+
+    public UsersCreatedEvent(List<User> users) {
+        this.users = List.copyOf(users);
+    }
+
+    public List<User> getUsers() {
+        return users;
+    }
+}
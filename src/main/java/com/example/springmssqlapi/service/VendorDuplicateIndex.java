@@ -0,0 +1,341 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.dto.PossibleDuplicate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory MinHash/LSH index over vendors' legal business names and addresses, for spotting the
+ * same business being onboarded twice under slightly different spellings.
+ *
+ * Names are normalized before comparison: accents, case and punctuation are dropped, initials are
+ * joined ({@code "A.B.C."} and {@code "A B C"} both become {@code "abc"}) and legal-form words such
+ * as Corp, Corporation, Ltd or Limited are removed, so {@code "ABC Corp Ltd."} and
+ * {@code "A.B.C. Corporation Limited"} normalize to the same name. Addresses have common street
+ * words abbreviated.
+ *
+ * A name is compared as its set of character trigrams and an address as its set of words. Each set
+ * gets a {@value #HASHES}-value MinHash signature that is cut into {@value #BANDS} bands of
+ * {@value #ROWS} values; vendors sharing any band bucket become candidates, which are then scored
+ * exactly. With these settings a pair at 0.8 Jaccard similarity shares a bucket with probability
+ * above 0.99, and one at 0.5 about two times in three. Buckets shared by more than
+ * {@value #MAX_BUCKET_SIZE} vendors, which carry no signal, are not expanded.
+ */
+public class VendorDuplicateIndex {
+
+    private static final int BANDS = 16;
+    private static final int ROWS = 4;
+    private static final int HASHES = BANDS * ROWS;
+    private static final int MAX_BUCKET_SIZE = 2048;
+
+    // Names are weighted above addresses: sister companies share an address, not a name
+    private static final double NAME_WEIGHT = 0.6;
+
+    private static final long[] SEEDS = new long[HASHES];
+
+    static {
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < HASHES; i++) {
+            seed = mix(seed + 0x9E3779B97F4A7C15L);
+            SEEDS[i] = seed;
+        }
+    }
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+    // Legal forms and filler words, which say nothing about which business it is
+    private static final Set<String> NOISE_WORDS = Set.of(
+        "corp", "corporation", "inc", "incorporated", "ltd", "limited", "llc", "llp", "lp", "plc",
+        "co", "company", "gmbh", "ag", "sa", "sarl", "bv", "nv", "pty", "pvt", "private", "the", "and"
+    );
+    private static final Map<String, String> ADDRESS_ABBREVIATIONS = Map.ofEntries(
+        Map.entry("street", "st"), Map.entry("avenue", "ave"), Map.entry("road", "rd"),
+        Map.entry("boulevard", "blvd"), Map.entry("drive", "dr"), Map.entry("lane", "ln"),
+        Map.entry("court", "ct"), Map.entry("place", "pl"), Map.entry("square", "sq"),
+        Map.entry("highway", "hwy"), Map.entry("suite", "ste"), Map.entry("floor", "fl"),
+        Map.entry("building", "bldg"), Map.entry("apartment", "apt"), Map.entry("north", "n"),
+        Map.entry("south", "s"), Map.entry("east", "e"), Map.entry("west", "w")
+    );
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private final Map<Long, LongList> buckets = new HashMap<>();
+
+    public void put(Long vendorId, String vendorName, String legalBusinessName, String businessAddress) {
+        Doc doc = new Doc(vendorId, vendorName, legalBusinessName, businessAddress);
+        lock.writeLock().lock();
+        try {
+            removeLocked(vendorId);
+            docs.put(vendorId, doc);
+            for (long key : doc.bucketKeys) {
+                buckets.computeIfAbsent(key, k -> new LongList()).add(vendorId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long vendorId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(vendorId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return up to {@code limit} other vendors scoring at least {@code minScore}, best first
+     */
+    public List<PossibleDuplicate> findSimilar(Long vendorId, String legalBusinessName, String businessAddress,
+                                               double minScore, int limit) {
+        Doc probe = new Doc(vendorId, null, legalBusinessName, businessAddress);
+        if (probe.bucketKeys.length == 0 || limit < 1) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            Set<Long> candidates = new HashSet<>();
+            for (long key : probe.bucketKeys) {
+                LongList bucket = buckets.get(key);
+                if (bucket == null || bucket.size > MAX_BUCKET_SIZE) {
+                    continue;
+                }
+                for (int i = 0; i < bucket.size; i++) {
+                    candidates.add(bucket.values[i]);
+                }
+            }
+            candidates.remove(vendorId);
+
+            List<PossibleDuplicate> matches = new ArrayList<>();
+            for (Long candidateId : candidates) {
+                Doc doc = docs.get(candidateId);
+                double nameSimilarity = jaccard(probe.nameShingles, doc.nameShingles);
+                double addressSimilarity = jaccard(probe.addressShingles, doc.addressShingles);
+                double score = Math.max(nameSimilarity, NAME_WEIGHT * nameSimilarity + (1 - NAME_WEIGHT) * addressSimilarity);
+                if (score >= minScore) {
+                    matches.add(new PossibleDuplicate(doc.vendorId, doc.vendorName, doc.legalBusinessName,
+                            round(score), round(nameSimilarity), round(addressSimilarity)));
+                }
+            }
+            matches.sort(Comparator.comparingDouble(PossibleDuplicate::getScore).reversed()
+                    .thenComparing(PossibleDuplicate::getVendorId));
+            return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long vendorId) {
+        Doc old = docs.remove(vendorId);
+        if (old == null) {
+            return;
+        }
+        for (long key : old.bucketKeys) {
+            LongList bucket = buckets.get(key);
+            if (bucket != null && bucket.remove(vendorId) && bucket.size == 0) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    static String normalizeName(String name) {
+        List<String> words = new ArrayList<>();
+        StringBuilder initials = new StringBuilder();
+        // Dots and apostrophes join rather than split: "A.B.C." is one word, as is "O'Neil"
+        String cleaned = fold(name).replace("&", " and ").replace(".", "").replace("'", "");
+        for (String word : NON_ALPHANUMERIC.split(cleaned)) {
+            if (word.length() == 1) {
+                initials.append(word);
+                continue;
+            }
+            if (initials.length() > 0) {
+                words.add(initials.toString());
+                initials.setLength(0);
+            }
+            if (!word.isEmpty() && !NOISE_WORDS.contains(word)) {
+                words.add(word);
+            }
+        }
+        if (initials.length() > 0) {
+            words.add(initials.toString());
+        }
+        return String.join(" ", words);
+    }
+
+    static String normalizeAddress(String address) {
+        List<String> words = new ArrayList<>();
+        for (String word : NON_ALPHANUMERIC.split(fold(address))) {
+            if (!word.isEmpty()) {
+                words.add(ADDRESS_ABBREVIATIONS.getOrDefault(word, word));
+            }
+        }
+        return String.join(" ", words);
+    }
+
+    private static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        return MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    // Character trigrams with the ends marked, so one- and two-letter names still have shingles
+    private static long[] nameShingles(String normalized) {
+        if (normalized.isEmpty()) {
+            return new long[0];
+        }
+        String padded = "\u0002" + normalized + "\u0003";
+        Set<Long> shingles = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            shingles.add(mix(((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2)));
+        }
+        return sorted(shingles);
+    }
+
+    private static long[] wordShingles(String normalized) {
+        if (normalized.isEmpty()) {
+            return new long[0];
+        }
+        Set<Long> shingles = new HashSet<>();
+        for (String word : normalized.split(" ")) {
+            shingles.add(mix(word.hashCode() ^ 0x5DEECE66DL));
+        }
+        return sorted(shingles);
+    }
+
+    private static long[] sorted(Set<Long> values) {
+        long[] result = new long[values.size()];
+        int i = 0;
+        for (long value : values) {
+            result[i++] = value;
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * One bucket key per band; {@code salt} keeps name and address bands apart.
+     */
+    private static void addBandKeys(long[] shingles, long salt, List<Long> keys) {
+        if (shingles.length == 0) {
+            return;
+        }
+        long[] signature = new long[HASHES];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (long shingle : shingles) {
+            for (int i = 0; i < HASHES; i++) {
+                long h = mix(shingle ^ SEEDS[i]);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        for (int band = 0; band < BANDS; band++) {
+            long key = salt + band;
+            for (int row = 0; row < ROWS; row++) {
+                key = mix(key * 31 + signature[band * ROWS + row]);
+            }
+            keys.add(key);
+        }
+    }
+
+    private static double jaccard(long[] a, long[] b) {
+        if (a.length == 0 || b.length == 0) {
+            return 0;
+        }
+        int i = 0;
+        int j = 0;
+        int common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) common / (a.length + b.length - common);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class Doc {
+        final Long vendorId;
+        final String vendorName;
+        final String legalBusinessName;
+        final long[] nameShingles;
+        final long[] addressShingles;
+        final long[] bucketKeys;
+
+        Doc(Long vendorId, String vendorName, String legalBusinessName, String businessAddress) {
+            this.vendorId = vendorId;
+            this.vendorName = vendorName;
+            this.legalBusinessName = legalBusinessName;
+            this.nameShingles = nameShingles(normalizeName(legalBusinessName));
+            this.addressShingles = wordShingles(normalizeAddress(businessAddress));
+
+            List<Long> keys = new ArrayList<>(2 * BANDS);
+            addBandKeys(nameShingles, 0, keys);
+            addBandKeys(addressShingles, BANDS, keys);
+            this.bucketKeys = keys.stream().distinct().mapToLong(Long::longValue).toArray();
+        }
+    }
+
+    private static final class LongList {
+        long[] values = new long[2];
+        int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        boolean remove(long value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.dto.BusinessIdentity;
+import com.example.springmssqlapi.dto.PossibleDuplicate;
+import com.example.springmssqlapi.entity.BusinessDetails;
+import com.example.springmssqlapi.repository.BusinessDetailsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Flags business details that look like a vendor already onboarded, using a
+ * {@link VendorDuplicateIndex} that is loaded at startup and kept current after each committed
+ * write through an {@link IndexLoadGate}. Matches are advisory: a submission is never rejected for
+ * them. Until the initial load has finished, no duplicates are reported.
+ */
+@Service
+@Slf4j
+public class VendorDuplicateService {
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final BusinessDetailsRepository businessDetailsRepository;
+    private final VendorDuplicateIndex index = new VendorDuplicateIndex();
+    private final IndexLoadGate gate = new IndexLoadGate();
+    private final double minScore;
+    private final int maxResults;
+
+    public VendorDuplicateService(BusinessDetailsRepository businessDetailsRepository,
+                                  @Value("${vendor.duplicates.min-score:0.7}") double minScore,
+                                  @Value("${vendor.duplicates.max-results:5}") int maxResults) {
+        this.businessDetailsRepository = businessDetailsRepository;
+        this.minScore = minScore;
+        this.maxResults = maxResults;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        long start = System.currentTimeMillis();
+        gate.load(() -> {
+            long afterId = 0;
+            List<BusinessIdentity> page;
+            do {
+                page = businessDetailsRepository.findIdentitiesAfter(afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+                for (BusinessIdentity identity : page) {
+                    index.put(identity.getVendorId(), identity.getVendorName(), identity.getLegalBusinessName(), identity.getBusinessAddress());
+                    afterId = identity.getVendorId();
+                }
+            } while (page.size() == LOAD_PAGE_SIZE);
+        });
+        log.info("Vendor duplicate index loaded with {} vendors in {} ms", index.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * @return other vendors whose legal name and address resemble {@code details}, best match first
+     */
+    public List<PossibleDuplicate> findPossibleDuplicates(Long vendorId, BusinessDetails details) {
+        if (!gate.isReady()) {
+            return Collections.emptyList();
+        }
+        List<PossibleDuplicate> duplicates = index.findSimilar(vendorId, details.getLegalBusinessName(),
+                details.getBusinessAddress(), minScore, maxResults);
+        if (!duplicates.isEmpty()) {
+            log.warn("Business details of vendor {} resemble vendors {}", vendorId,
+                    duplicates.stream().map(PossibleDuplicate::getVendorId).toArray());
+        }
+        return duplicates;
+    }
+
+    public void indexAfterCommit(Long vendorId, String vendorName, BusinessDetails details) {
+        String legalBusinessName = details.getLegalBusinessName();
+        String businessAddress = details.getBusinessAddress();
+        gate.afterCommit(() -> index.put(vendorId, vendorName, legalBusinessName, businessAddress));
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.dto.VendorFacetSearchResult;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory faceted filter over vendors: one {@link CompressedBitmap} of vendor ids per value of
+ * each facet, plus one of every vendor.
+ *
+ * A search ORs the bitmaps of the values selected within a facet and ANDs the facets together.
+ * Facet counts are disjunctive: each facet is counted against the other facets' filters but not
+ * its own, so selecting "Technology" still shows how many vendors each other sector would add.
+ * Counts come from intersection cardinalities and never materialize the intersections.
+ */
+public class VendorFacetIndex {
+
+    public enum Facet {
+        INDUSTRY_SECTOR("industrySector"),
+        BUSINESS_TYPE("businessType"),
+        CURRENCY("currency"),
+        PAYMENT_TERMS("paymentTerms"),
+        ACTIVE("active");
+
+        private final String param;
+
+        Facet(String param) {
+            this.param = param;
+        }
+
+        // Name used for the facet in request parameters and responses
+        public String param() {
+            return param;
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final CompressedBitmap all = new CompressedBitmap();
+    private final Map<Facet, Map<String, CompressedBitmap>> bitmaps = new EnumMap<>(Facet.class);
+
+    public VendorFacetIndex() {
+        for (Facet facet : Facet.values()) {
+            bitmaps.put(facet, new HashMap<>());
+        }
+    }
+
+    /**
+     * Adds the vendor if it is new and replaces its value for each facet given; a null value
+     * removes the vendor from that facet. Facets not in {@code values} are left as they were.
+     */
+    public void update(Long vendorId, Map<Facet, String> values) {
+        int id = Math.toIntExact(vendorId);
+        lock.writeLock().lock();
+        try {
+            all.add(id);
+            values.forEach((facet, value) -> {
+                Map<String, CompressedBitmap> byValue = bitmaps.get(facet);
+                byValue.entrySet().removeIf(entry -> {
+                    entry.getValue().remove(id);
+                    return entry.getValue().isEmpty();
+                });
+                if (value != null) {
+                    byValue.computeIfAbsent(value, v -> new CompressedBitmap()).add(id);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return all.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param filters values to match per facet; a vendor must match one value of every facet given
+     * @return the number of matches, up to {@code limit} matching ids above {@code after}, and the
+     *         counts for every facet value
+     */
+    public VendorFacetSearchResult search(Map<Facet, Set<String>> filters, long after, int limit) {
+        lock.readLock().lock();
+        try {
+            Map<Facet, CompressedBitmap> selected = new EnumMap<>(Facet.class);
+            filters.forEach((facet, values) -> {
+                if (!values.isEmpty()) {
+                    selected.put(facet, union(bitmaps.get(facet), values));
+                }
+            });
+            CompressedBitmap matches = intersect(selected.values());
+
+            List<Long> vendorIds = new ArrayList<>(limit);
+            int from = (int) Math.max(Math.min(after, Integer.MAX_VALUE), -1);
+            matches.forEachAfter(from, id -> {
+                vendorIds.add((long) id);
+                return vendorIds.size() <= limit;
+            });
+            Long nextCursor = null;
+            if (vendorIds.size() > limit) {
+                vendorIds.remove(limit);
+                nextCursor = vendorIds.get(limit - 1);
+            }
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            for (Facet facet : Facet.values()) {
+                CompressedBitmap base;
+                if (!selected.containsKey(facet)) {
+                    base = matches;
+                } else {
+                    Map<Facet, CompressedBitmap> others = new EnumMap<>(selected);
+                    others.remove(facet);
+                    base = intersect(others.values());
+                }
+                facets.put(facet.param(), counts(bitmaps.get(facet), base));
+            }
+            return new VendorFacetSearchResult(matches.cardinality(), vendorIds, nextCursor, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts per value within {@code base}, most frequent first.
+     */
+    private Map<String, Integer> counts(Map<String, CompressedBitmap> byValue, CompressedBitmap base) {
+        List<Map.Entry<String, Integer>> counts = new ArrayList<>(byValue.size());
+        byValue.forEach((value, bitmap) -> {
+            // Every value bitmap is a subset of all vendors, so unfiltered counts are plain cardinalities
+            int count = base == all ? bitmap.cardinality() : CompressedBitmap.andCardinality(bitmap, base);
+            if (count > 0) {
+                counts.add(Map.entry(value, count));
+            }
+        });
+        counts.sort(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()));
+
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> count : counts) {
+            result.put(count.getKey(), count.getValue());
+        }
+        return result;
+    }
+
+    private static CompressedBitmap union(Map<String, CompressedBitmap> byValue, Set<String> values) {
+        CompressedBitmap result = new CompressedBitmap();
+        for (String value : values) {
+            CompressedBitmap bitmap = byValue.get(value);
+            if (bitmap != null) {
+                result = CompressedBitmap.or(result, bitmap);
+            }
+        }
+        return result;
+    }
+
+    // Smallest first, so every later step is bounded by the running result; nothing selected matches all
+    private CompressedBitmap intersect(Collection<CompressedBitmap> selected) {
+        if (selected.isEmpty()) {
+            return all;
+        }
+        List<CompressedBitmap> ordered = new ArrayList<>(selected);
+        ordered.sort(Comparator.comparingInt(CompressedBitmap::cardinality));
+        CompressedBitmap result = ordered.get(0);
+        for (int i = 1; i < ordered.size() && !result.isEmpty(); i++) {
+            result = CompressedBitmap.and(result, ordered.get(i));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.dto.VendorFacetSearchResult;
+import com.example.springmssqlapi.dto.VendorFacetValues;
+import com.example.springmssqlapi.entity.BankingDetails;
+import com.example.springmssqlapi.entity.BusinessDetails;
+import com.example.springmssqlapi.entity.Vendor;
+import com.example.springmssqlapi.exception.ServiceUnavailableException;
+import com.example.springmssqlapi.repository.VendorRepository;
+import com.example.springmssqlapi.service.VendorFacetIndex.Facet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Faceted vendor filtering by industry sector, business type, currency, payment terms and active
+ * state, served from a {@link VendorFacetIndex} that is loaded at startup and kept current after
+ * each committed write to a vendor or its business or banking details, through an
+ * {@link IndexLoadGate}.
+ */
+@Service
+@Slf4j
+public class VendorFacetService {
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final VendorRepository vendorRepository;
+    private final VendorFacetIndex index = new VendorFacetIndex();
+    private final IndexLoadGate gate = new IndexLoadGate();
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public VendorFacetService(VendorRepository vendorRepository,
+                              @Value("${vendor.search.default-limit:20}") int defaultLimit,
+                              @Value("${vendor.search.max-limit:100}") int maxLimit) {
+        this.vendorRepository = vendorRepository;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        long start = System.currentTimeMillis();
+        gate.load(() -> {
+            long afterId = 0;
+            List<VendorFacetValues> page;
+            do {
+                page = vendorRepository.findFacetValuesAfter(afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+                for (VendorFacetValues values : page) {
+                    Map<Facet, String> facets = new EnumMap<>(Facet.class);
+                    facets.put(Facet.ACTIVE, active(values.getIsActive()));
+                    facets.put(Facet.INDUSTRY_SECTOR, values.getIndustrySector());
+                    facets.put(Facet.BUSINESS_TYPE, values.getBusinessType());
+                    facets.put(Facet.CURRENCY, values.getCurrency());
+                    facets.put(Facet.PAYMENT_TERMS, values.getPaymentTerms());
+                    index.update(values.getVendorId(), facets);
+                    afterId = values.getVendorId();
+                }
+            } while (page.size() == LOAD_PAGE_SIZE);
+        });
+        log.info("Vendor facet index loaded with {} vendors in {} ms", index.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * @param filters accepted values per facet; facets absent or empty are not filtered on
+     */
+    public VendorFacetSearchResult search(Map<Facet, Set<String>> filters, Long after, Integer limit) {
+        if (!gate.isReady()) {
+            throw new ServiceUnavailableException("Vendor search index is still loading", 5);
+        }
+        int k = limit == null ? defaultLimit : Math.min(Math.max(limit, 1), maxLimit);
+        return index.search(filters, after == null ? 0 : after, k);
+    }
+
+    public void indexAfterCommit(Vendor vendor) {
+        Map<Facet, String> facets = new EnumMap<>(Facet.class);
+        facets.put(Facet.ACTIVE, active(vendor.getIsActive()));
+        updateAfterCommit(vendor.getId(), facets);
+    }
+
+    public void indexAfterCommit(Long vendorId, BusinessDetails details) {
+        Map<Facet, String> facets = new EnumMap<>(Facet.class);
+        facets.put(Facet.INDUSTRY_SECTOR, details.getIndustrySector());
+        facets.put(Facet.BUSINESS_TYPE, details.getBusinessType());
+        updateAfterCommit(vendorId, facets);
+    }
+
+    public void indexAfterCommit(Long vendorId, BankingDetails details) {
+        Map<Facet, String> facets = new EnumMap<>(Facet.class);
+        facets.put(Facet.CURRENCY, details.getCurrency());
+        facets.put(Facet.PAYMENT_TERMS, details.getPaymentTerms());
+        updateAfterCommit(vendorId, facets);
+    }
+
+    // A null is_active counts as active, as for the column default
+    private static String active(Boolean isActive) {
+        return String.valueOf(!Boolean.FALSE.equals(isActive));
+    }
+
+    private void updateAfterCommit(Long vendorId, Map<Facet, String> facets) {
+        gate.afterCommit(() -> index.update(vendorId, facets));
+    }
+}
@@ -0,0 +1,537 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.config.VendorImportProperties;
+import com.example.springmssqlapi.dto.BatchItemResult;
+import com.example.springmssqlapi.dto.VendorImportStatus;
+import com.example.springmssqlapi.entity.BankingDetails;
+import com.example.springmssqlapi.entity.BusinessDetails;
+import com.example.springmssqlapi.entity.ComplianceDetails;
+import com.example.springmssqlapi.entity.ContactDetails;
+import com.example.springmssqlapi.entity.Vendor;
+import com.example.springmssqlapi.entity.VendorSection;
+import com.example.springmssqlapi.exception.BadRequestException;
+import com.example.springmssqlapi.exception.PayloadTooLargeException;
+import com.example.springmssqlapi.exception.ResourceNotFoundException;
+import com.example.springmssqlapi.repository.BusinessDetailsRepository;
+import com.example.springmssqlapi.repository.VendorBatchRepository;
+import com.example.springmssqlapi.repository.VendorRepository;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports vendors and their onboarding sections from a CSV file in the background. The upload is
+ * spooled to disk and the request returns a job id straight away; the job then reads the file a
+ * chunk at a time, validates the chunk's rows in parallel with the entities' Bean Validation
+ * constraints, checks emails and registration numbers against the database once per chunk, and
+ * inserts the valid rows in JDBC batches in one transaction per chunk.
+ *
+ * <p>Columns are {@code email}, {@code name} and {@code phoneNumber} for the vendor, and
+ * {@code business.*}, {@code banking.*}, {@code compliance.*} and {@code contact.*} named after the
+ * section's fields. A section is created when any of its cells is filled in.
+ */
+@Service
+@Slf4j
+public class VendorImportService implements DisposableBean {
+
+    private static final Map<String, Class<? extends VendorSection>> SECTIONS = Map.of(
+        "business", BusinessDetails.class,
+        "banking", BankingDetails.class,
+        "compliance", ComplianceDetails.class,
+        "contact", ContactDetails.class
+    );
+    private static final Set<String> VENDOR_COLUMNS = Set.of("email", "name", "phoneNumber");
+    private static final String VENDOR = "";
+
+    private final VendorRepository vendorRepository;
+    private final BusinessDetailsRepository businessDetailsRepository;
+    private final VendorBatchRepository vendorBatchRepository;
+    private final Validator validator;
+    private final BankDetailsValidator bankDetailsValidator;
+    private final VendorDuplicateService vendorDuplicateService;
+    private final VendorFacetService vendorFacetService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final VendorImportProperties properties;
+    private final Cache<String, ImportJob> jobs;
+    private final ExecutorService jobRunner;
+    private final ForkJoinPool validationPool;
+    private final Counter importedCounter;
+    private final Counter rejectedCounter;
+
+    public VendorImportService(VendorRepository vendorRepository, BusinessDetailsRepository businessDetailsRepository,
+                               VendorBatchRepository vendorBatchRepository, Validator validator,
+                               BankDetailsValidator bankDetailsValidator, VendorDuplicateService vendorDuplicateService,
+                               VendorFacetService vendorFacetService, ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager, VendorImportProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.vendorRepository = vendorRepository;
+        this.businessDetailsRepository = businessDetailsRepository;
+        this.vendorBatchRepository = vendorBatchRepository;
+        this.validator = validator;
+        this.bankDetailsValidator = bankDetailsValidator;
+        this.vendorDuplicateService = vendorDuplicateService;
+        this.vendorFacetService = vendorFacetService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterAccess(properties.getRetention())
+                .build();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.jobRunner = Executors.newFixedThreadPool(properties.getMaxConcurrentJobs(), r -> {
+            Thread thread = new Thread(r, "vendor-import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        int parallelism = properties.getParallelism() > 0 ? properties.getParallelism() : Runtime.getRuntime().availableProcessors();
+        this.validationPool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("vendor-import-validate-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+
+        this.importedCounter = Counter.builder("vendor.import.rows").tag("result", "imported").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("vendor.import.rows").tag("result", "rejected").register(meterRegistry);
+    }
+
+    /**
+     * Spools the CSV to a temporary file and queues it for import. {@code declaredSize} is the length
+     * the client announced, if any, and is checked before any of the body is read.
+     */
+    public VendorImportStatus submit(String filename, Long declaredSize, InputStream content) throws IOException {
+        long limit = properties.getMaxFileSize().toBytes();
+        if (declaredSize != null && declaredSize > limit) {
+            throw new PayloadTooLargeException("Import file exceeds the maximum size of " + limit + " bytes");
+        }
+
+        Path file = Files.createTempFile("vendor-import-", ".csv");
+        try {
+            spool(content, file, limit);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), filename, file);
+        jobs.put(job.jobId, job);
+        jobRunner.execute(() -> run(job));
+
+        log.info("Queued vendor import {} of {} ({} bytes)", job.jobId, filename, Files.size(file));
+        return job.status();
+    }
+
+    public VendorImportStatus status(String jobId) {
+        ImportJob job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Vendor import not found with id: " + jobId);
+        }
+        return job.status();
+    }
+
+    private void spool(InputStream content, Path file, long limit) throws IOException {
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        try (OutputStream out = Files.newOutputStream(file)) {
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                total += read;
+                if (total > limit) {
+                    throw new PayloadTooLargeException("Import file exceeds the maximum size of " + limit + " bytes");
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        if (total == 0) {
+            throw new BadRequestException("Import file is empty");
+        }
+    }
+
+    private void run(ImportJob job) {
+        job.startedAt = LocalDateTime.now();
+        job.state = VendorImportStatus.State.RUNNING;
+        try (Reader reader = Files.newBufferedReader(job.file, StandardCharsets.UTF_8)) {
+            CsvReader csv = new CsvReader(reader);
+            List<String> header = csv.next();
+            if (header == null) {
+                throw new IllegalArgumentException("The file has no header row");
+            }
+            List<Column> columns = parseHeader(header);
+
+            List<CsvRow> chunk = new ArrayList<>(properties.getChunkSize());
+            while (true) {
+                long line = csv.getLine();
+                List<String> fields = csv.next();
+                if (fields == null) {
+                    break;
+                }
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+                chunk.add(new CsvRow(line, fields));
+                if (chunk.size() == properties.getChunkSize()) {
+                    importChunk(job, columns, chunk);
+                    chunk = new ArrayList<>(properties.getChunkSize());
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(job, columns, chunk);
+            }
+            job.state = VendorImportStatus.State.COMPLETED;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("Vendor import {} failed after {} rows", job.jobId, job.rowsRead.get(), e);
+            job.failure = e.getMessage();
+            job.state = VendorImportStatus.State.FAILED;
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            try {
+                Files.deleteIfExists(job.file);
+            } catch (IOException e) {
+                log.warn("Could not delete spooled import file {}", job.file, e);
+            }
+        }
+        log.info("Vendor import {} {}: {} rows read, {} imported, {} rejected", job.jobId, job.state,
+                job.rowsRead.get(), job.rowsImported.get(), job.rowsRejected.get());
+    }
+
+    private List<Column> parseHeader(List<String> header) {
+        List<Column> columns = new ArrayList<>(header.size());
+        Set<String> seen = new HashSet<>();
+        for (String name : header) {
+            String trimmed = name.trim();
+            if (!seen.add(trimmed)) {
+                throw new IllegalArgumentException("Duplicate column " + trimmed);
+            }
+            if (VENDOR_COLUMNS.contains(trimmed)) {
+                columns.add(new Column(VENDOR, trimmed));
+                continue;
+            }
+            int dot = trimmed.indexOf('.');
+            Class<?> sectionType = dot < 0 ? null : SECTIONS.get(trimmed.substring(0, dot));
+            String field = trimmed.substring(dot + 1);
+            PropertyDescriptor property = sectionType == null ? null : BeanUtils.getPropertyDescriptor(sectionType, field);
+            if (property == null || property.getWriteMethod() == null || field.equals("id") || field.equals("vendor")) {
+                throw new IllegalArgumentException("Unknown column " + trimmed);
+            }
+            columns.add(new Column(trimmed.substring(0, dot), field));
+        }
+        if (!seen.contains("email") || !seen.contains("name")) {
+            throw new IllegalArgumentException("The header must include the email and name columns");
+        }
+        return columns;
+    }
+
+    private void importChunk(ImportJob job, List<Column> columns, List<CsvRow> chunk) throws InterruptedException, ExecutionException {
+        job.rowsRead.addAndGet(chunk.size());
+
+        // Parsing and validation are independent per row; everything after needs the whole chunk
+        List<ImportRow> rows = validationPool.submit(() -> chunk.parallelStream()
+                .map(row -> parse(columns, row))
+                .collect(Collectors.toList()))
+            .get();
+
+        Map<String, ImportRow> byEmail = new LinkedHashMap<>();
+        Map<String, ImportRow> byRegistrationNumber = new HashMap<>();
+        for (ImportRow row : rows) {
+            if (row.error != null) {
+                reject(job, row, BatchItemResult.Status.INVALID, row.error);
+            } else if (byEmail.putIfAbsent(emailKey(row.vendor.getEmail()), row) != null) {
+                reject(job, row, BatchItemResult.Status.DUPLICATE, "Email " + row.vendor.getEmail() + " appears earlier in the chunk");
+            } else if (row.business != null
+                    && byRegistrationNumber.putIfAbsent(registrationKey(row.business.getBusinessRegistrationNumber()), row) != null) {
+                byEmail.remove(emailKey(row.vendor.getEmail()));
+                reject(job, row, BatchItemResult.Status.DUPLICATE,
+                        "Business registration number " + row.business.getBusinessRegistrationNumber() + " appears earlier in the chunk");
+            }
+        }
+        if (byEmail.isEmpty()) {
+            return;
+        }
+
+        // Earlier chunks are already committed, so this also catches duplicates across the file.
+        // Matches come back in their stored casing, hence the keys.
+        for (String email : vendorRepository.findExistingEmails(byEmail.keySet())) {
+            ImportRow row = byEmail.remove(emailKey(email));
+            if (row != null) {
+                reject(job, row, BatchItemResult.Status.DUPLICATE, "Vendor with email " + email + " already exists");
+            }
+        }
+        if (!byRegistrationNumber.isEmpty()) {
+            for (String number : businessDetailsRepository.findExistingRegistrationNumbers(byRegistrationNumber.keySet())) {
+                ImportRow row = byRegistrationNumber.get(registrationKey(number));
+                if (row != null && byEmail.remove(emailKey(row.vendor.getEmail())) != null) {
+                    reject(job, row, BatchItemResult.Status.DUPLICATE, "Business registration number " + number + " is already registered");
+                }
+            }
+        }
+        if (byEmail.isEmpty()) {
+            return;
+        }
+
+        List<ImportRow> accepted = new ArrayList<>(byEmail.values());
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(accepted));
+        } catch (RuntimeException e) {
+            log.warn("Vendor import {} could not insert a chunk of {} rows", job.jobId, accepted.size(), e);
+            for (ImportRow row : accepted) {
+                reject(job, row, BatchItemResult.Status.INVALID, "Insert failed: " + e.getMessage());
+            }
+            return;
+        }
+        job.rowsImported.addAndGet(accepted.size());
+        importedCounter.increment(accepted.size());
+    }
+
+    private void insert(List<ImportRow> rows) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Vendor> vendors = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            row.vendor.setCreatedAt(now);
+            row.vendor.setUpdatedAt(now);
+            vendors.add(row.vendor);
+        }
+        vendorBatchRepository.insertVendors(vendors);
+
+        Map<String, Long> ids = vendorRepository.findByEmailIn(
+                vendors.stream().map(Vendor::getEmail).collect(Collectors.toList())).stream()
+            .collect(Collectors.toMap(vendor -> emailKey(vendor.getEmail()), Vendor::getId));
+        for (Vendor vendor : vendors) {
+            vendor.setId(ids.get(emailKey(vendor.getEmail())));
+        }
+
+        vendorBatchRepository.insertBusinessDetails(sections(rows, row -> row.business));
+        for (ImportRow row : rows) {
+            if (row.business != null) {
+                vendorDuplicateService.indexAfterCommit(row.vendor.getId(), row.vendor.getName(), row.business);
+            }
+        }
+        vendorBatchRepository.insertBankingDetails(sections(rows, row -> row.banking));
+        vendorBatchRepository.insertComplianceDetails(sections(rows, row -> row.compliance));
+        vendorBatchRepository.insertContactDetails(sections(rows, row -> row.contact));
+
+        // Registered now, applied once the chunk commits
+        for (ImportRow row : rows) {
+            vendorFacetService.indexAfterCommit(row.vendor);
+            if (row.business != null) {
+                vendorFacetService.indexAfterCommit(row.vendor.getId(), row.business);
+            }
+            if (row.banking != null) {
+                vendorFacetService.indexAfterCommit(row.vendor.getId(), row.banking);
+            }
+        }
+    }
+
+    private <T extends VendorSection> List<T> sections(List<ImportRow> rows, Function<ImportRow, T> section) {
+        List<T> result = new ArrayList<>();
+        for (ImportRow row : rows) {
+            T value = section.apply(row);
+            if (value != null) {
+                value.setVendor(row.vendor);
+                result.add(value);
+            }
+        }
+        return result;
+    }
+
+    private static String emailKey(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String registrationKey(String number) {
+        return number == null ? null : number.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private ImportRow parse(List<Column> columns, CsvRow csvRow) {
+        ImportRow row = new ImportRow(csvRow.line);
+        if (csvRow.fields.size() != columns.size()) {
+            row.error = "Expected " + columns.size() + " columns but found " + csvRow.fields.size();
+            return row;
+        }
+
+        Map<String, Map<String, String>> values = new HashMap<>();
+        values.put(VENDOR, new HashMap<>());
+        for (int i = 0; i < columns.size(); i++) {
+            String cell = csvRow.fields.get(i).trim();
+            if (!cell.isEmpty()) {
+                Column column = columns.get(i);
+                values.computeIfAbsent(column.section, s -> new HashMap<>()).put(column.field, cell);
+            }
+        }
+
+        List<String> problems = new ArrayList<>();
+        row.vendor = convert(values.get(VENDOR), Vendor.class, VENDOR, problems);
+        if (row.vendor != null) {
+            row.vendor.setEmail(emailKey(row.vendor.getEmail()));
+        }
+        row.business = convert(values.get("business"), BusinessDetails.class, "business", problems);
+        row.banking = convert(values.get("banking"), BankingDetails.class, "banking", problems);
+        row.compliance = convert(values.get("compliance"), ComplianceDetails.class, "compliance", problems);
+        row.contact = convert(values.get("contact"), ContactDetails.class, "contact", problems);
+        if (row.banking != null) {
+            bankDetailsValidator.validate(row.banking).forEach(problem -> problems.add("banking." + problem));
+        }
+        if (!problems.isEmpty()) {
+            Collections.sort(problems);
+            row.error = String.join(", ", problems);
+        }
+        return row;
+    }
+
+    private <T> T convert(Map<String, String> values, Class<T> type, String section, List<String> problems) {
+        if (values == null) {
+            return null;
+        }
+        String prefix = section.isEmpty() ? "" : section + ".";
+        T value;
+        try {
+            value = objectMapper.convertValue(values, type);
+        } catch (IllegalArgumentException e) {
+            String field = e.getCause() instanceof JsonMappingException && !((JsonMappingException) e.getCause()).getPath().isEmpty()
+                    ? ((JsonMappingException) e.getCause()).getPath().get(0).getFieldName()
+                    : "";
+            problems.add(prefix + field + ": value could not be read");
+            return null;
+        }
+        for (ConstraintViolation<T> violation : validator.validate(value)) {
+            problems.add(prefix + violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        return value;
+    }
+
+    private void reject(ImportJob job, ImportRow row, BatchItemResult.Status status, String message) {
+        job.rowsRejected.incrementAndGet();
+        rejectedCounter.increment();
+        synchronized (job.errors) {
+            if (job.errors.size() < properties.getMaxErrors()) {
+                String email = row.vendor != null ? row.vendor.getEmail() : null;
+                job.errors.add(new BatchItemResult<>((int) row.line, status, message, email));
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        jobRunner.shutdownNow();
+        validationPool.shutdownNow();
+        jobRunner.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private static final class Column {
+        private final String section;
+        private final String field;
+
+        private Column(String section, String field) {
+            this.section = section;
+            this.field = field;
+        }
+    }
+
+    private static final class CsvRow {
+        private final long line;
+        private final List<String> fields;
+
+        private CsvRow(long line, List<String> fields) {
+            this.line = line;
+            this.fields = fields;
+        }
+    }
+
+    private static final class ImportRow {
+        private final long line;
+        private Vendor vendor;
+        private BusinessDetails business;
+        private BankingDetails banking;
+        private ComplianceDetails compliance;
+        private ContactDetails contact;
+        private String error;
+
+        private ImportRow(long line) {
+            this.line = line;
+        }
+    }
+
+    private static final class ImportJob {
+        private final String jobId;
+        private final String filename;
+        private final Path file;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong rowsImported = new AtomicLong();
+        private final AtomicLong rowsRejected = new AtomicLong();
+        private final List<BatchItemResult<String>> errors = new ArrayList<>();
+        private volatile VendorImportStatus.State state = VendorImportStatus.State.QUEUED;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile String failure;
+
+        private ImportJob(String jobId, String filename, Path file) {
+            this.jobId = jobId;
+            this.filename = filename;
+            this.file = file;
+        }
+
+        private VendorImportStatus status() {
+            LocalDateTime started = startedAt;
+            LocalDateTime finished = finishedAt;
+            long read = rowsRead.get();
+            double rowsPerSecond = 0;
+            if (started != null) {
+                long millis = Duration.between(started, finished != null ? finished : LocalDateTime.now()).toMillis();
+                rowsPerSecond = millis > 0 ? read * 1000.0 / millis : 0;
+            }
+            List<BatchItemResult<String>> errorsSoFar;
+            synchronized (errors) {
+                errorsSoFar = new ArrayList<>(errors);
+            }
+            return new VendorImportStatus(jobId, state, filename, read, rowsImported.get(), rowsRejected.get(),
+                    rowsPerSecond, submittedAt, started, finished, failure, errorsSoFar);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.dto.OnboardingStatus;
+import com.example.springmssqlapi.entity.BankingDetails;
+import com.example.springmssqlapi.entity.BusinessDetails;
+import com.example.springmssqlapi.entity.ComplianceDetails;
+import com.example.springmssqlapi.entity.ContactDetails;
+import com.example.springmssqlapi.entity.OnboardingSection;
+import com.example.springmssqlapi.entity.Vendor;
+import com.example.springmssqlapi.entity.VendorDocument;
+import com.example.springmssqlapi.entity.VendorSection;
+import com.example.springmssqlapi.exception.BadRequestException;
+import com.example.springmssqlapi.exception.ConflictException;
+import com.example.springmssqlapi.exception.ResourceNotFoundException;
+import com.example.springmssqlapi.repository.BankingDetailsRepository;
+import com.example.springmssqlapi.repository.BusinessDetailsRepository;
+import com.example.springmssqlapi.repository.ComplianceDetailsRepository;
+import com.example.springmssqlapi.repository.ContactDetailsRepository;
+import com.example.springmssqlapi.repository.VendorDocumentRepository;
+import com.example.springmssqlapi.repository.VendorRepository;
+import com.example.springmssqlapi.repository.VendorSectionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Vendor onboarding aggregate: a vendor plus up to one row in each detail section table and one
+ * document per section. Every section is read and written on its own through its vendor_id, so
+ * touching one section never loads the vendor, the other sections or any document content.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class VendorOnboardingService {
+
+    private final VendorRepository vendorRepository;
+    private final BusinessDetailsRepository businessDetailsRepository;
+    private final BankingDetailsRepository bankingDetailsRepository;
+    private final ComplianceDetailsRepository complianceDetailsRepository;
+    private final ContactDetailsRepository contactDetailsRepository;
+    private final VendorDocumentRepository vendorDocumentRepository;
+    private final BlobStore blobStore;
+    private final BankDetailsValidator bankDetailsValidator;
+    private final VendorDuplicateService vendorDuplicateService;
+    private final VendorFacetService vendorFacetService;
+
+    public BusinessDetails saveBusinessDetails(Long vendorId, BusinessDetails details) {
+        if (businessDetailsRepository.existsByRegistrationNumberForOtherVendor(details.getBusinessRegistrationNumber(), vendorId)) {
+            log.warn("Business registration number {} is already used by another vendor", details.getBusinessRegistrationNumber());
+            throw new BadRequestException("Business registration number " + details.getBusinessRegistrationNumber() + " is already registered");
+        }
+        BusinessDetails saved = saveSection(vendorId, details, businessDetailsRepository, OnboardingSection.BUSINESS);
+        vendorDuplicateService.indexAfterCommit(vendorId, saved.getVendor().getName(), saved);
+        vendorFacetService.indexAfterCommit(vendorId, saved);
+        return saved;
+    }
+
+    public BankingDetails saveBankingDetails(Long vendorId, BankingDetails details) {
+        List<String> errors = bankDetailsValidator.validate(details);
+        if (!errors.isEmpty()) {
+            log.warn("Rejected banking details for vendor {}: {}", vendorId, errors);
+            throw new BadRequestException("Invalid banking details: " + String.join("; ", errors));
+        }
+        BankingDetails saved = saveSection(vendorId, details, bankingDetailsRepository, OnboardingSection.BANKING);
+        vendorFacetService.indexAfterCommit(vendorId, saved);
+        return saved;
+    }
+
+    public ComplianceDetails saveComplianceDetails(Long vendorId, ComplianceDetails details) {
+        return saveSection(vendorId, details, complianceDetailsRepository, OnboardingSection.COMPLIANCE);
+    }
+
+    public ContactDetails saveContactDetails(Long vendorId, ContactDetails details) {
+        return saveSection(vendorId, details, contactDetailsRepository, OnboardingSection.CONTACT);
+    }
+
+    @Transactional(readOnly = true)
+    public BusinessDetails getBusinessDetails(Long vendorId) {
+        return getSection(vendorId, businessDetailsRepository, OnboardingSection.BUSINESS);
+    }
+
+    @Transactional(readOnly = true)
+    public BankingDetails getBankingDetails(Long vendorId) {
+        return getSection(vendorId, bankingDetailsRepository, OnboardingSection.BANKING);
+    }
+
+    @Transactional(readOnly = true)
+    public ComplianceDetails getComplianceDetails(Long vendorId) {
+        return getSection(vendorId, complianceDetailsRepository, OnboardingSection.COMPLIANCE);
+    }
+
+    @Transactional(readOnly = true)
+    public ContactDetails getContactDetails(Long vendorId) {
+        return getSection(vendorId, contactDetailsRepository, OnboardingSection.CONTACT);
+    }
+
+    @Transactional(readOnly = true)
+    public OnboardingStatus getStatus(Long vendorId) {
+        requireVendor(vendorId);
+
+        Set<OnboardingSection> submitted = EnumSet.noneOf(OnboardingSection.class);
+        if (businessDetailsRepository.existsByVendorId(vendorId)) {
+            submitted.add(OnboardingSection.BUSINESS);
+        }
+        if (bankingDetailsRepository.existsByVendorId(vendorId)) {
+            submitted.add(OnboardingSection.BANKING);
+        }
+        if (complianceDetailsRepository.existsByVendorId(vendorId)) {
+            submitted.add(OnboardingSection.COMPLIANCE);
+        }
+        if (contactDetailsRepository.existsByVendorId(vendorId)) {
+            submitted.add(OnboardingSection.CONTACT);
+        }
+        Set<OnboardingSection> documents = EnumSet.noneOf(OnboardingSection.class);
+        documents.addAll(vendorDocumentRepository.findSectionsByVendorId(vendorId));
+
+        return new OnboardingStatus(vendorId, submitted, documents, submitted.size() == OnboardingSection.values().length);
+    }
+
+    /**
+     * Points the section's document at a blob already written by {@link DocumentUploadService},
+     * replacing any earlier document. A blob left behind by a failed transaction is removed by
+     * {@link BlobSweepJob}.
+     */
+    public VendorDocument attachDocument(Long vendorId, OnboardingSection section, String filename, String contentType, BlobStore.StoredBlob blob) {
+        Vendor vendor = requireVendor(vendorId);
+
+        vendorDocumentRepository.deleteByVendorIdAndSection(vendorId, section);
+
+        VendorDocument document = new VendorDocument();
+        document.setVendor(vendor);
+        document.setSection(section);
+        document.setFilename(filename);
+        document.setContentType(contentType);
+        document.setSizeBytes(blob.getSize());
+        document.setContentHash(blob.getHash());
+
+        VendorDocument saved;
+        try {
+            saved = vendorDocumentRepository.saveAndFlush(document);
+        } catch (DataIntegrityViolationException e) {
+            throw concurrentSubmission(vendorId, section, "document");
+        }
+        log.info("Stored {} document '{}' ({} bytes, blob {}) for vendor {}", section.path(), filename, blob.getSize(), blob.getHash(), vendorId);
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
+    public VendorDocument getDocument(Long vendorId, OnboardingSection section) {
+        return vendorDocumentRepository.findByVendorIdAndSection(vendorId, section)
+            .orElseThrow(() -> new ResourceNotFoundException(
+                "No " + section.path() + " document uploaded for vendor with id: " + vendorId));
+    }
+
+    public Resource getDocumentContent(VendorDocument document) {
+        return blobStore.get(document.getContentHash());
+    }
+
+    private <T extends VendorSection> T saveSection(Long vendorId, T details, VendorSectionRepository<T> repository, OnboardingSection section) {
+        log.info("Saving {} details for vendor {}", section.path(), vendorId);
+
+        Vendor vendor = requireVendor(vendorId);
+
+        // One row per vendor and section: a resubmission overwrites the existing row. Two first
+        // submissions racing each other both see no row, and the loser trips the unique vendor_id
+        // (or registration number); its transaction is rollback-only by then, so it gets a 409.
+        details.setId(repository.findByVendorId(vendorId).map(VendorSection::getId).orElse(null));
+        details.setVendor(vendor);
+        T saved;
+        try {
+            saved = repository.saveAndFlush(details);
+        } catch (DataIntegrityViolationException e) {
+            throw concurrentSubmission(vendorId, section, "details");
+        }
+
+        log.info("Saved {} details with ID: {} for vendor {}", section.path(), saved.getId(), vendorId);
+        return saved;
+    }
+
+    private static ConflictException concurrentSubmission(Long vendorId, OnboardingSection section, String what) {
+        log.warn("Rejected {} {} for vendor {} conflicting with a concurrent submission", section.path(), what, vendorId);
+        return new ConflictException("Another request submitted the " + section.path() + " " + what
+            + " for vendor with id: " + vendorId + " at the same time; please retry");
+    }
+
+    private <T extends VendorSection> T getSection(Long vendorId, VendorSectionRepository<T> repository, OnboardingSection section) {
+        return repository.findByVendorId(vendorId)
+            .orElseThrow(() -> {
+                log.warn("No {} details found for vendor {}", section.path(), vendorId);
+                return new ResourceNotFoundException("No " + section.path() + " details submitted for vendor with id: " + vendorId);
+            });
+    }
+
+    // Second-level cache hit in the common case
+    private Vendor requireVendor(Long vendorId) {
+        return vendorRepository.findById(vendorId)
+            .orElseThrow(() -> new ResourceNotFoundException("Vendor not found with id: " + vendorId));
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.entity.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Queues welcome emails for newly created users. The outbox row is written just before the user's
+ * transaction commits, so the mail exists exactly when the user does; delivery runs on the outbox
+ * workers after commit, with retries, and never delays the request.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WelcomeEmailListener {
+
+    private final EmailService emailService;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onUsersCreated(UsersCreatedEvent event) {
+        if (event.getUsers().size() == 1) {
+            // Dispatched by id right after commit
+            User user = event.getUsers().get(0);
+            emailService.queueWelcomeEmail(user.getEmail(), user.getName());
+        } else {
+            emailService.queueWelcomeEmails(event.getUsers());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.springmssqlapi.benchmark;
+
+import com.example.springmssqlapi.service.JwtPrincipal;
+import com.example.springmssqlapi.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request cost of authenticating a bearer token:
+ * <ul>
+ *   <li>{@code legacyFilterPath} - what JwtAuthenticationFilter used to do: extractEmail + validateToken,
+ *   i.e. three full parses, each rebuilding the key and the parser</li>
+ *   <li>{@code singleParse} - verifyToken with the verified-token cache disabled</li>
+ *   <li>{@code cachedVerify} - verifyToken with the cache enabled (steady state for a returning client)</li>
+ * </ul>
+ *
+ * Run with: {@code mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.springmssqlapi.benchmark.JwtVerificationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKeyForJWTTokenGenerationThatMustBeLongEnoughForHS256";
+
+    private JwtService uncachedService;
+    private JwtService cachedService;
+    private String token;
+    private String email;
+
+    @Setup
+    public void setUp() {
+        uncachedService = new JwtService(SECRET, 86400000L, 0, Duration.ofMinutes(5));
+        cachedService = new JwtService(SECRET, 86400000L, 10000, Duration.ofMinutes(5));
+        email = "vendor@example.com";
+        token = cachedService.generateToken(email);
+    }
+
+    @Benchmark
+    public boolean legacyFilterPath() {
+        String extracted = legacyExtractAllClaims(token).getSubject();
+        return legacyExtractAllClaims(token).getSubject().equals(extracted)
+                && !legacyExtractAllClaims(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public JwtPrincipal singleParse() {
+        return uncachedService.verifyToken(token);
+    }
+
+    @Benchmark
+    public JwtPrincipal cachedVerify() {
+        return cachedService.verifyToken(token);
+    }
+
+    private static Claims legacyExtractAllClaims(String token) {
+        Key key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.springmssqlapi.benchmark;
+
+import com.example.springmssqlapi.dto.UserSummary;
+import com.example.springmssqlapi.service.UserSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares typeahead lookups for the top 10 users matching a query:
+ * <ul>
+ *   <li>{@code likeQuery} - {@code name LIKE %q% OR email LIKE %q%} against an in-memory H2 table
+ *   (the shape of UserRepository.findByNameContaining); no index can serve a leading wildcard</li>
+ *   <li>{@code trigramIndex} - {@link UserSearchIndex#search}, including ranking</li>
+ * </ul>
+ *
+ * Run with: {@code mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.springmssqlapi.benchmark.UserSearchBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserSearchBenchmark {
+
+    private static final String[] FIRST_NAMES = {
+        "john", "jane", "maria", "ahmed", "wei", "olga", "pierre", "sofia", "raj", "yuki",
+        "carlos", "fatima", "liam", "emma", "noah", "ava", "lucas", "mia", "omar", "zara"
+    };
+    private static final String[] LAST_NAMES = {
+        "smith", "johnson", "garcia", "nguyen", "kowalski", "andersson", "dubois", "rossi", "patel", "tanaka",
+        "silva", "khan", "murphy", "schmidt", "novak", "cohen", "ivanova", "okafor", "larsen", "moreau"
+    };
+
+    @Param({"10000", "100000"})
+    public int users;
+
+    @Param({"jo", "ander", "rossi42"})
+    public String query;
+
+    private UserSearchIndex index;
+    private Connection connection;
+    private PreparedStatement likeStatement;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        index = new UserSearchIndex();
+        connection = DriverManager.getConnection("jdbc:h2:mem:user-search-bench;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS users");
+            ddl.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, name VARCHAR(255), email VARCHAR(255) UNIQUE, email_verified BOOLEAN)");
+        }
+
+        Random random = new Random(42);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO users VALUES (?, ?, ?, ?)")) {
+            for (long id = 1; id <= users; id++) {
+                String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                String name = capitalize(first) + " " + capitalize(last);
+                String email = first + "." + last + id + "@example.com";
+                boolean verified = random.nextBoolean();
+
+                insert.setLong(1, id);
+                insert.setString(2, name);
+                insert.setString(3, email);
+                insert.setBoolean(4, verified);
+                insert.addBatch();
+                index.put(id, name, email, verified);
+                if (id % 1000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+
+        likeStatement = connection.prepareStatement(
+                "SELECT id, name, email, email_verified FROM users WHERE LOWER(name) LIKE ? OR LOWER(email) LIKE ? " +
+                "ORDER BY id FETCH FIRST 10 ROWS ONLY");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE users");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public List<UserSummary> likeQuery() throws SQLException {
+        String pattern = "%" + query + "%";
+        likeStatement.setString(1, pattern);
+        likeStatement.setString(2, pattern);
+        List<UserSummary> results = new ArrayList<>(10);
+        try (ResultSet rs = likeStatement.executeQuery()) {
+            while (rs.next()) {
+                results.add(new UserSummary(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getBoolean(4)));
+            }
+        }
+        return results;
+    }
+
+    @Benchmark
+    public List<UserSummary> trigramIndex() {
+        return index.search(query, 10);
+    }
+
+    private static String capitalize(String s) {
+        return Character.toUpperCase(s.charAt(0)) + s.substring(1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.springmssqlapi.benchmark;
+
+import com.example.springmssqlapi.dto.VendorFacetSearchResult;
+import com.example.springmssqlapi.service.VendorFacetIndex;
+import com.example.springmssqlapi.service.VendorFacetIndex.Facet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares one faceted filter (sector Technology or Finance, currency USD, active) with counts for
+ * two facets:
+ * <ul>
+ *   <li>{@code groupByQueries} - the matching count plus one GROUP BY per counted facet against
+ *   in-memory H2 tables shaped like vendors, business_details and banking_details</li>
+ *   <li>{@code bitmapIndex} - {@link VendorFacetIndex#search}, counting all five facets and
+ *   returning the first 20 ids</li>
+ * </ul>
+ *
+ * Run with: {@code mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.springmssqlapi.benchmark.VendorFacetBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VendorFacetBenchmark {
+
+    private static final String[] SECTORS = {"Technology", "Healthcare", "Finance", "Manufacturing", "Retail", "Construction", "Education", "Government", "Other"};
+    private static final String[] TYPES = {"Corporation", "LLC", "Partnership", "Sole Proprietorship", "Non-Profit"};
+    private static final String[] CURRENCIES = {"USD", "EUR", "GBP", "CAD", "AUD", "JPY", "CHF", "CNY", "INR", "Other"};
+    private static final String[] TERMS = {"Net 30", "Net 60", "Net 90", "Due on Receipt", "2/10 Net 30", "Custom"};
+
+    private static final String FROM_WHERE =
+        " FROM vendors v JOIN business_details b ON b.vendor_id = v.id JOIN banking_details k ON k.vendor_id = v.id" +
+        " WHERE v.is_active = TRUE AND b.industry_sector IN ('Technology', 'Finance') AND k.currency = 'USD'";
+
+    @Param({"10000", "100000"})
+    public int vendors;
+
+    private VendorFacetIndex index;
+    private Map<Facet, Set<String>> filters;
+    private Connection connection;
+    private PreparedStatement countStatement;
+    private PreparedStatement typeCounts;
+    private PreparedStatement termsCounts;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        index = new VendorFacetIndex();
+        filters = new EnumMap<>(Facet.class);
+        filters.put(Facet.INDUSTRY_SECTOR, Set.of("Technology", "Finance"));
+        filters.put(Facet.CURRENCY, Set.of("USD"));
+        filters.put(Facet.ACTIVE, Set.of("true"));
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:vendor-facet-bench;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS banking_details");
+            ddl.execute("DROP TABLE IF EXISTS business_details");
+            ddl.execute("DROP TABLE IF EXISTS vendors");
+            ddl.execute("CREATE TABLE vendors (id BIGINT PRIMARY KEY, is_active BOOLEAN)");
+            ddl.execute("CREATE TABLE business_details (vendor_id BIGINT PRIMARY KEY, industry_sector VARCHAR(50), business_type VARCHAR(50))");
+            ddl.execute("CREATE TABLE banking_details (vendor_id BIGINT PRIMARY KEY, currency VARCHAR(10), payment_terms VARCHAR(20))");
+            ddl.execute("CREATE INDEX idx_business_sector ON business_details (industry_sector)");
+            ddl.execute("CREATE INDEX idx_banking_currency ON banking_details (currency)");
+        }
+
+        Random random = new Random(42);
+        try (PreparedStatement vendor = connection.prepareStatement("INSERT INTO vendors VALUES (?, ?)");
+             PreparedStatement business = connection.prepareStatement("INSERT INTO business_details VALUES (?, ?, ?)");
+             PreparedStatement banking = connection.prepareStatement("INSERT INTO banking_details VALUES (?, ?, ?)")) {
+            for (long id = 1; id <= vendors; id++) {
+                boolean active = random.nextInt(10) > 0;
+                String sector = SECTORS[random.nextInt(SECTORS.length)];
+                String type = TYPES[random.nextInt(TYPES.length)];
+                String currency = CURRENCIES[Math.min(random.nextInt(20), CURRENCIES.length - 1)];
+                String terms = TERMS[random.nextInt(TERMS.length)];
+
+                vendor.setLong(1, id);
+                vendor.setBoolean(2, active);
+                vendor.addBatch();
+                business.setLong(1, id);
+                business.setString(2, sector);
+                business.setString(3, type);
+                business.addBatch();
+                banking.setLong(1, id);
+                banking.setString(2, currency);
+                banking.setString(3, terms);
+                banking.addBatch();
+
+                Map<Facet, String> values = new HashMap<>();
+                values.put(Facet.ACTIVE, String.valueOf(active));
+                values.put(Facet.INDUSTRY_SECTOR, sector);
+                values.put(Facet.BUSINESS_TYPE, type);
+                values.put(Facet.CURRENCY, currency);
+                values.put(Facet.PAYMENT_TERMS, terms);
+                index.update(id, values);
+
+                if (id % 1000 == 0) {
+                    vendor.executeBatch();
+                    business.executeBatch();
+                    banking.executeBatch();
+                }
+            }
+            vendor.executeBatch();
+            business.executeBatch();
+            banking.executeBatch();
+        }
+
+        countStatement = connection.prepareStatement("SELECT COUNT(*)" + FROM_WHERE);
+        typeCounts = connection.prepareStatement("SELECT b.business_type, COUNT(*)" + FROM_WHERE + " GROUP BY b.business_type");
+        termsCounts = connection.prepareStatement("SELECT k.payment_terms, COUNT(*)" + FROM_WHERE + " GROUP BY k.payment_terms");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE banking_details");
+            ddl.execute("DROP TABLE business_details");
+            ddl.execute("DROP TABLE vendors");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public long groupByQueries() throws SQLException {
+        long total = 0;
+        for (PreparedStatement statement : new PreparedStatement[] {countStatement, typeCounts, termsCounts}) {
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    total += rs.getLong(statement == countStatement ? 1 : 2);
+                }
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public VendorFacetSearchResult bitmapIndex() {
+        return index.search(filters, 0, 20);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(VendorFacetBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.config.BankDirectoryProperties;
+import com.example.springmssqlapi.entity.BankingDetails;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BankDetailsValidatorTest {
+
+    @TempDir
+    Path dir;
+
+    private BankDirectoryProperties properties;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties = new BankDirectoryProperties();
+        properties.setSource(dir.resolve("bic-directory.csv"));
+        Files.writeString(properties.getSource(), "bic,name\n"
+                + "DEUTDEFF,Deutsche Bank AG\n"
+                + "DEUTDEFF500,Deutsche Bank AG Filiale Frankfurt\n"
+                + "CHASUS33,\"JPMorgan Chase Bank, N.A.\"\n"
+                + "not a bic,skipped\n");
+    }
+
+    @Test
+    void acceptsIbansWithValidLengthAndCheckDigits() {
+        assertNull(BankDetailsValidator.checkIban("GB82WEST12345698765432"));
+        assertNull(BankDetailsValidator.checkIban("DE89370400440532013000"));
+        assertNull(BankDetailsValidator.checkIban("NL91ABNA0417164300"));
+        assertNull(BankDetailsValidator.checkIban("FR14 2004 1010 0505 0001 3M02 606"));
+    }
+
+    @Test
+    void rejectsIbansWithWrongCheckDigitsLengthOrCountry() {
+        assertEquals("IBAN check digits are invalid", BankDetailsValidator.checkIban("GB83WEST12345698765432"));
+        assertEquals("IBAN for DE must be 22 characters, not 21", BankDetailsValidator.checkIban("DE8937040044053201300"));
+        assertEquals("IBAN country ZZ is not supported", BankDetailsValidator.checkIban("ZZ82WEST12345698765432"));
+    }
+
+    @Test
+    void checksRoutingNumberCheckDigit() {
+        assertTrue(BankDetailsValidator.isValidRoutingNumber("021000021"));
+        assertFalse(BankDetailsValidator.isValidRoutingNumber("021000022"));
+    }
+
+    @Test
+    void resolvesBicsFromTheMappedIndex() {
+        BankDirectory directory = new BankDirectory(properties, new SimpleMeterRegistry());
+
+        assertEquals(3, directory.size());
+        assertEquals(Optional.of("Deutsche Bank AG"), directory.findBankName("DEUTDEFF"));
+        assertEquals(Optional.of("Deutsche Bank AG"), directory.findBankName("deutdeffxxx"));
+        assertEquals(Optional.of("Deutsche Bank AG Filiale Frankfurt"), directory.findBankName("DEUTDEFF500"));
+        assertEquals(Optional.of("JPMorgan Chase Bank, N.A."), directory.findBankName("CHASUS33"));
+        assertEquals(Optional.empty(), directory.findBankName("DEUTDEFF501"));
+        assertEquals(Optional.empty(), directory.findBankName("BARCGB22"));
+    }
+
+    @Test
+    void reloadsWhenANewDirectoryIsDroppedIn() throws Exception {
+        BankDirectory directory = new BankDirectory(properties, new SimpleMeterRegistry());
+        assertEquals(Optional.empty(), directory.findBankName("BARCGB22"));
+
+        Path dropped = dir.resolve("incoming.csv");
+        Files.writeString(dropped, "BARCGB22,Barclays Bank PLC\n");
+        Files.move(dropped, properties.getSource(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        directory.reloadIfChanged();
+
+        assertEquals(1, directory.size());
+        assertEquals(Optional.of("Barclays Bank PLC"), directory.findBankName("BARCGB22"));
+        assertEquals(Optional.empty(), directory.findBankName("DEUTDEFF"));
+    }
+
+    @Test
+    void validatesBankingDetailsAgainstTheDirectory() {
+        BankDetailsValidator validator = new BankDetailsValidator(new BankDirectory(properties, new SimpleMeterRegistry()));
+
+        BankingDetails details = new BankingDetails();
+        details.setRoutingSwiftCode("DEUTDEFF");
+        details.setIban("DE89370400440532013000");
+        assertEquals(List.of(), validator.validate(details));
+
+        details.setRoutingSwiftCode("BARCGB22");
+        details.setIban("DE88370400440532013000");
+        assertEquals(List.of(
+            "routingSwiftCode: SWIFT code BARCGB22 is not in the bank directory",
+            "iban: IBAN check digits are invalid"), validator.validate(details));
+    }
+}
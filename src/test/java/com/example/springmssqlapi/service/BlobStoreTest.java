@@ -0,0 +1,139 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.config.BlobStoreProperties;
+import com.example.springmssqlapi.config.DocumentUploadProperties;
+import com.example.springmssqlapi.exception.BadRequestException;
+import com.example.springmssqlapi.exception.PayloadTooLargeException;
+import com.example.springmssqlapi.repository.VendorDocumentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BlobStoreTest {
+
+    private static final DataSize MAX_SIZE = DataSize.ofKilobytes(1);
+    private static final Instant LONG_AGO = Instant.now().minus(Duration.ofDays(2));
+
+    @TempDir
+    Path root;
+
+    private BlobStore blobStore;
+    private VendorDocumentRepository vendorDocumentRepository;
+    private BlobSweepJob sweepJob;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        BlobStoreProperties properties = new BlobStoreProperties();
+        properties.setRoot(root);
+        blobStore = new BlobStore(properties);
+        vendorDocumentRepository = mock(VendorDocumentRepository.class);
+        sweepJob = new BlobSweepJob(blobStore, vendorDocumentRepository, properties, new DocumentUploadProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void sameContentIsStoredOnce() throws IOException {
+        BlobStore.StoredBlob first = put("same bytes");
+        BlobStore.StoredBlob second = put("same bytes");
+
+        assertEquals(first.getHash(), second.getHash());
+        assertEquals(10, second.getSize());
+        assertEquals(1, countBlobs());
+        assertArrayEquals("same bytes".getBytes(StandardCharsets.UTF_8), blobStore.get(first.getHash()).getInputStream().readAllBytes());
+        assertEquals(0, countStaged());
+    }
+
+    @Test
+    void refusesEmptyAndOversizedContent() throws IOException {
+        assertThrows(BadRequestException.class, () -> put(""));
+        assertThrows(PayloadTooLargeException.class, () -> put("x".repeat(1025)));
+        assertEquals(0, countBlobs());
+        assertEquals(0, countStaged());
+    }
+
+    @Test
+    void sweepDeletesOnlyOldUnreferencedBlobs() throws IOException {
+        String orphan = age(put("orphan").getHash());
+        String referenced = age(put("referenced").getHash());
+        String fresh = put("fresh").getHash();
+        when(vendorDocumentRepository.existsByContentHash(referenced)).thenReturn(true);
+
+        sweepJob.sweepOrphans();
+
+        assertFalse(exists(orphan));
+        assertTrue(exists(referenced));
+        assertTrue(exists(fresh));
+    }
+
+    @Test
+    void sweepKeepsABlobReferencedAfterTheFirstCheck() throws IOException {
+        String hash = age(put("late reference").getHash());
+        when(vendorDocumentRepository.existsByContentHash(hash)).thenReturn(false, true);
+
+        sweepJob.sweepOrphans();
+
+        assertTrue(exists(hash));
+    }
+
+    @Test
+    void reuploadRefreshesAnOldBlobSoTheSweepKeepsIt() throws IOException {
+        String hash = age(put("uploaded again").getHash());
+        put("uploaded again");
+
+        assertFalse(blobStore.deleteIfUnreferenced(hash, Instant.now().minus(Duration.ofHours(1)), h -> false));
+        assertTrue(exists(hash));
+    }
+
+    @Test
+    void contentIsStoredAgainAfterItsBlobWasSwept() throws IOException {
+        String hash = age(put("swept").getHash());
+        assertTrue(blobStore.deleteIfUnreferenced(hash, Instant.now(), h -> false));
+
+        assertEquals(hash, put("swept").getHash());
+        assertTrue(exists(hash));
+    }
+
+    private BlobStore.StoredBlob put(String content) throws IOException {
+        return blobStore.put(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), MAX_SIZE);
+    }
+
+    private String age(String hash) throws IOException {
+        Files.setLastModifiedTime(root.resolve(hash.substring(0, 2)).resolve(hash), FileTime.from(LONG_AGO));
+        return hash;
+    }
+
+    private boolean exists(String hash) {
+        return Files.exists(root.resolve(hash.substring(0, 2)).resolve(hash));
+    }
+
+    private long countBlobs() throws IOException {
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            return files.filter(Files::isRegularFile).filter(path -> !path.startsWith(root.resolve("tmp"))).count();
+        }
+    }
+
+    private long countStaged() throws IOException {
+        try (Stream<Path> files = Files.list(root.resolve("tmp"))) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.config.BulkMailProperties;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkMailSenderTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private JavaMailSenderImpl mailSender;
+    private BulkMailProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(ServerSetupTest.SMTP.getBindAddress());
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+        properties = new BulkMailProperties();
+        properties.setPoolSize(1);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void reusesOneConnectionAcrossBatches() {
+        BulkMailSender bulkMailSender = new BulkMailSender(mailSender, properties, meterRegistry);
+
+        List<Exception> first = bulkMailSender.send(messages(25));
+        List<Exception> second = bulkMailSender.send(messages(25));
+
+        assertTrue(first.stream().allMatch(r -> r == null));
+        assertTrue(second.stream().allMatch(r -> r == null));
+        assertEquals(50, greenMail.getReceivedMessages().length);
+        assertEquals(1.0, meterRegistry.counter("mail.bulk.connections.opened").count());
+        assertEquals(50.0, meterRegistry.counter("mail.bulk.messages", "result", "sent").count());
+        bulkMailSender.destroy();
+    }
+
+    @Test
+    void reconnectsAfterMaxMessagesPerConnection() {
+        properties.setMaxMessagesPerConnection(10);
+        BulkMailSender bulkMailSender = new BulkMailSender(mailSender, properties, meterRegistry);
+
+        bulkMailSender.send(messages(25));
+
+        assertEquals(25, greenMail.getReceivedMessages().length);
+        assertEquals(3.0, meterRegistry.counter("mail.bulk.connections.opened").count());
+        bulkMailSender.destroy();
+    }
+
+    @Test
+    void honoursRateLimit() {
+        properties.setRatePerSecond(20);
+        BulkMailSender bulkMailSender = new BulkMailSender(mailSender, properties, meterRegistry);
+
+        long start = System.nanoTime();
+        bulkMailSender.send(messages(10));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(10, greenMail.getReceivedMessages().length);
+        // 10 sends at 20/s are spaced 50ms apart: at least 9 intervals
+        assertTrue(elapsedMillis >= 400, "expected pacing, took " + elapsedMillis + "ms");
+        bulkMailSender.destroy();
+    }
+
+    private static List<SimpleMailMessage> messages(int count) {
+        List<SimpleMailMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom("noreply@vendor-onboarding.test");
+            message.setTo("vendor" + i + "@example.com");
+            message.setSubject("Batch message " + i);
+            message.setText("Body " + i);
+            messages.add(message);
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.VendorOnboardingApplication;
+import com.example.springmssqlapi.entity.ComplianceDetails;
+import com.example.springmssqlapi.entity.EmailOutbox;
+import com.example.springmssqlapi.entity.ScanCheckpoint;
+import com.example.springmssqlapi.entity.Vendor;
+import com.example.springmssqlapi.repository.ComplianceDetailsRepository;
+import com.example.springmssqlapi.repository.ScanCheckpointRepository;
+import com.example.springmssqlapi.repository.VendorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.verify;
+
+// Batch size 1 so every day is split over several checkpointed transactions
+@SpringBootTest(classes = VendorOnboardingApplication.class, properties = {
+    "compliance.reminders.batch-size=1",
+    "compliance.reminders.lead-days=30,7,1"
+})
+@ActiveProfiles("test")
+class ComplianceExpiryScannerTest {
+
+    private static final String SUBJECT = "Compliance documents expiring soon";
+
+    @Autowired
+    private ComplianceExpiryScanner scanner;
+
+    @Autowired
+    private VendorRepository vendorRepository;
+
+    @Autowired
+    private ComplianceDetailsRepository complianceDetailsRepository;
+
+    @Autowired
+    private ScanCheckpointRepository checkpointRepository;
+
+    // Captures queued digests instead of writing them to the outbox and delivering them
+    @MockBean
+    private EmailOutboxService emailOutboxService;
+
+    private final LocalDate today = LocalDate.now();
+    private Vendor first;
+    private Vendor second;
+
+    @BeforeEach
+    void setUp() {
+        List<Vendor> vendors = vendorRepository.findAll();
+        first = vendors.get(0);
+        second = vendors.get(1);
+        // License due in 30 days and insurance in 7: both belong in a single digest today
+        complianceDetailsRepository.save(compliance(first, "BL-1", today.plusDays(30), today.plusDays(7)));
+        // License due in 2 days: reminded 7 days ahead, i.e. on a day five days ago
+        complianceDetailsRepository.save(compliance(second, "BL-2", today.plusDays(2), today.plusDays(200)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        complianceDetailsRepository.deleteAll();
+        checkpointRepository.deleteAll();
+    }
+
+    @Test
+    void firstRunMailsOneDigestPerVendorAndRescanSendsNothing() {
+        assertEquals(1, scanner.scanThrough(today));
+
+        List<EmailOutbox> digests = digests();
+        assertEquals(1, digests.size());
+        EmailOutbox digest = digests.get(0);
+        assertEquals(first.getEmail(), digest.getRecipient());
+        assertTrue(digest.getBody().contains("Business license BL-1"), digest.getBody());
+        assertTrue(digest.getBody().contains("Insurance policy POL-BL-1"), digest.getBody());
+
+        assertEquals(0, scanner.scanThrough(today));
+        assertEquals(1, digests().size());
+    }
+
+    @Test
+    void missedDaysAreCaughtUpFromTheCheckpoint() {
+        checkpointRepository.save(new ScanCheckpoint(ComplianceExpiryScanner.CHECKPOINT, today.minusDays(6), null, null));
+
+        assertEquals(6, scanner.scanThrough(today));
+
+        List<String> recipients = digests().stream().map(EmailOutbox::getRecipient).sorted().collect(Collectors.toList());
+        assertEquals(List.of(first.getEmail(), second.getEmail()).stream().sorted().collect(Collectors.toList()), recipients);
+        assertEquals(today, checkpointRepository.findById(ComplianceExpiryScanner.CHECKPOINT).orElseThrow().getProcessedThrough());
+    }
+
+    @Test
+    void interruptedDayResumesAfterTheLastCommittedRow() {
+        ComplianceDetails both = complianceDetailsRepository.findByVendorId(first.getId()).orElseThrow();
+        // As if the run stopped right after committing the first vendor's batch for today
+        checkpointRepository.save(new ScanCheckpoint(ComplianceExpiryScanner.CHECKPOINT, today.minusDays(1), both.getId(), null));
+
+        assertEquals(1, scanner.scanThrough(today));
+
+        assertEquals(0, digests().size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<EmailOutbox> digests() {
+        ArgumentCaptor<List<EmailOutbox>> queued = ArgumentCaptor.forClass(List.class);
+        verify(emailOutboxService, atLeast(0)).enqueueAll(queued.capture());
+        return queued.getAllValues().stream()
+            .flatMap(List::stream)
+            .filter(mail -> SUBJECT.equals(mail.getSubject()))
+            .collect(Collectors.toList());
+    }
+
+    private static ComplianceDetails compliance(Vendor vendor, String license, LocalDate licenseExpiry, LocalDate insuranceExpiry) {
+        ComplianceDetails details = new ComplianceDetails();
+        details.setVendor(vendor);
+        details.setTaxIdentificationNumber("12-3456789");
+        details.setBusinessLicenseNumber(license);
+        details.setLicenseExpiryDate(licenseExpiry);
+        details.setInsuranceProvider("Acme Insurance");
+        details.setInsurancePolicyNumber("POL-" + license);
+        details.setInsuranceExpiryDate(insuranceExpiry);
+        return details;
+    }
+}
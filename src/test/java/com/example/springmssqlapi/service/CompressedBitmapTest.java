@@ -0,0 +1,84 @@
+package com.example.springmssqlapi.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressedBitmapTest {
+
+    // Spans several chunks, with dense ones that switch to bitsets and sparse ones that stay arrays
+    private static final int RANGE = 4 * 65536;
+
+    @Test
+    void matchesBitSetThroughAddsRemovesAndSetOperations() {
+        Random random = new Random(7);
+        for (int round = 0; round < 5; round++) {
+            BitSet expectedA = new BitSet();
+            BitSet expectedB = new BitSet();
+            CompressedBitmap a = fill(random, expectedA);
+            CompressedBitmap b = fill(random, expectedB);
+
+            for (int i = 0; i < 20_000; i++) {
+                int value = random.nextInt(RANGE);
+                a.remove(value);
+                expectedA.clear(value);
+            }
+
+            BitSet and = (BitSet) expectedA.clone();
+            and.and(expectedB);
+            BitSet or = (BitSet) expectedA.clone();
+            or.or(expectedB);
+
+            assertSame(expectedA, a);
+            assertSame(and, CompressedBitmap.and(a, b));
+            assertSame(or, CompressedBitmap.or(a, b));
+            assertEquals(and.cardinality(), CompressedBitmap.andCardinality(a, b));
+        }
+    }
+
+    @Test
+    void iteratesFromCursorAndStopsWhenAsked() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int value : new int[] {3, 70_000, 5, 65_535, 65_536, 200_000}) {
+            bitmap.add(value);
+        }
+
+        List<Integer> seen = new ArrayList<>();
+        bitmap.forEachAfter(5, value -> {
+            seen.add(value);
+            return seen.size() < 3;
+        });
+
+        assertEquals(List.of(65_535, 65_536, 70_000), seen);
+        assertTrue(bitmap.contains(200_000));
+        assertFalse(bitmap.contains(4));
+    }
+
+    private static CompressedBitmap fill(Random random, BitSet expected) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int chunk = 0; chunk < 4; chunk++) {
+            int count = random.nextBoolean() ? 30_000 : 500;
+            for (int i = 0; i < count; i++) {
+                int value = chunk * 65536 + random.nextInt(65536);
+                bitmap.add(value);
+                expected.set(value);
+            }
+        }
+        return bitmap;
+    }
+
+    private static void assertSame(BitSet expected, CompressedBitmap actual) {
+        assertEquals(expected.cardinality(), actual.cardinality());
+        List<Integer> values = new ArrayList<>();
+        actual.forEachAfter(-1, values::add);
+        assertEquals(expected.stream().boxed().collect(Collectors.toList()), values);
+    }
+}
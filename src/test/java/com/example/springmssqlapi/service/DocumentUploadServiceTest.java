@@ -0,0 +1,145 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.VendorOnboardingApplication;
+import com.example.springmssqlapi.dto.UploadStatus;
+import com.example.springmssqlapi.entity.OnboardingSection;
+import com.example.springmssqlapi.entity.VendorDocument;
+import com.example.springmssqlapi.exception.ConflictException;
+import com.example.springmssqlapi.exception.ResourceNotFoundException;
+import com.example.springmssqlapi.repository.VendorDocumentRepository;
+import com.example.springmssqlapi.repository.VendorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest(classes = VendorOnboardingApplication.class)
+@ActiveProfiles("test")
+class DocumentUploadServiceTest {
+
+    private static final OnboardingSection SECTION = OnboardingSection.COMPLIANCE;
+    private static final byte[] CONTENT = "certificate of incorporation, page 1 of 1".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private DocumentUploadService uploadService;
+
+    @Autowired
+    private VendorRepository vendorRepository;
+
+    @Autowired
+    private VendorDocumentRepository vendorDocumentRepository;
+
+    @SpyBean
+    private VendorOnboardingService onboardingService;
+
+    private Long vendorId;
+
+    @BeforeEach
+    void setUp() {
+        vendorId = vendorRepository.findAll().get(0).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        vendorDocumentRepository.findByVendorIdAndSection(vendorId, SECTION).ifPresent(vendorDocumentRepository::delete);
+    }
+
+    @Test
+    void failedChunkIsRolledBackAndTheUploadResumes() throws Exception {
+        String uploadId = start();
+
+        assertThrows(IOException.class, () ->
+            uploadService.appendChunk(vendorId, SECTION, uploadId, 0, null, failingAfter(Arrays.copyOf(CONTENT, 10))));
+        assertEquals(0, uploadService.status(vendorId, SECTION, uploadId).getOffset());
+
+        UploadStatus first = uploadService.appendChunk(vendorId, SECTION, uploadId, 0, null, chunk(0, 10));
+        assertEquals(10, first.getOffset());
+        assertFalse(first.isComplete());
+        assertThrows(ConflictException.class, () ->
+            uploadService.appendChunk(vendorId, SECTION, uploadId, 5, null, chunk(5, CONTENT.length)));
+
+        // A failure after some bytes of the second chunk must leave neither them nor their hash behind
+        assertThrows(IOException.class, () ->
+            uploadService.appendChunk(vendorId, SECTION, uploadId, 10, null, failingAfter(Arrays.copyOfRange(CONTENT, 10, 20))));
+        assertEquals(10, uploadService.status(vendorId, SECTION, uploadId).getOffset());
+
+        UploadStatus done = uploadService.appendChunk(vendorId, SECTION, uploadId, 10, null, chunk(10, CONTENT.length));
+
+        assertTrue(done.isComplete());
+        assertEquals(sha256(CONTENT), done.getContentHash());
+        VendorDocument document = vendorDocumentRepository.findByVendorIdAndSection(vendorId, SECTION).orElseThrow();
+        assertEquals(sha256(CONTENT), document.getContentHash());
+        assertArrayEquals(CONTENT, onboardingService.getDocumentContent(document).getInputStream().readAllBytes());
+        assertThrows(ResourceNotFoundException.class, () -> uploadService.status(vendorId, SECTION, uploadId));
+    }
+
+    @Test
+    void failedAttachKeepsTheSessionForARetry() throws Exception {
+        String uploadId = start();
+        doThrow(new IllegalStateException("database unavailable"))
+            .doCallRealMethod()
+            .when(onboardingService).attachDocument(any(), any(), anyString(), anyString(), any());
+
+        assertThrows(IllegalStateException.class, () ->
+            uploadService.appendChunk(vendorId, SECTION, uploadId, 0, null, chunk(0, CONTENT.length)));
+        UploadStatus pending = uploadService.status(vendorId, SECTION, uploadId);
+        assertEquals(CONTENT.length, pending.getOffset());
+        assertFalse(pending.isComplete());
+
+        UploadStatus done = uploadService.appendChunk(vendorId, SECTION, uploadId, CONTENT.length, 0L, chunk(0, 0));
+
+        assertTrue(done.isComplete());
+        assertEquals(sha256(CONTENT), done.getContentHash());
+        assertEquals(sha256(CONTENT), vendorDocumentRepository.findByVendorIdAndSection(vendorId, SECTION).orElseThrow().getContentHash());
+    }
+
+    private String start() throws IOException {
+        return uploadService.start(vendorId, SECTION, "incorporation.txt", "text/plain", CONTENT.length).getUploadId();
+    }
+
+    private static InputStream chunk(int from, int to) {
+        return new ByteArrayInputStream(Arrays.copyOfRange(CONTENT, from, to));
+    }
+
+    // Delivers the bytes and then fails, as a dropped connection would
+    private static InputStream failingAfter(byte[] bytes) {
+        return new InputStream() {
+            private int position;
+
+            @Override
+            public int read() throws IOException {
+                if (position == bytes.length) {
+                    throw new IOException("Connection reset");
+                }
+                return bytes[position++] & 0xFF;
+            }
+        };
+    }
+
+    private static String sha256(byte[] bytes) throws Exception {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.VendorOnboardingApplication;
+import com.example.springmssqlapi.entity.EmailOutbox;
+import com.example.springmssqlapi.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailSendException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+// The scheduled poller is pushed out so only the test claims the mails
+@SpringBootTest(classes = VendorOnboardingApplication.class, properties = "email.outbox.poll-interval=PT1H")
+@ActiveProfiles("test")
+class EmailOutboxServiceTest {
+
+    private static final String RECIPIENT = "outbox-test@example.com";
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private BulkMailSender bulkMailSender;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM email_outbox WHERE recipient = ?", RECIPIENT);
+    }
+
+    @Test
+    void deliveryRecordsTheOutcomeAndReleasesTheClaim() {
+        Long id = save();
+        when(bulkMailSender.send(any())).thenReturn(Collections.singletonList(null));
+
+        emailOutboxService.deliver(List.of(id));
+
+        EmailOutbox mail = emailOutboxRepository.findById(id).orElseThrow();
+        assertEquals(EmailOutbox.Status.SENT, mail.getStatus());
+        assertEquals(1, mail.getAttempts());
+        assertNotNull(mail.getSentAt());
+        assertNull(mail.getClaimToken());
+    }
+
+    @Test
+    void expiredLeaseKeepsTheOutcomeOfTheWorkerThatReclaimedTheMail() {
+        Long id = save();
+        // While this send is slow, the lease runs out and another worker claims and delivers the mail
+        when(bulkMailSender.send(any())).thenAnswer(invocation -> {
+            jdbcTemplate.update("UPDATE email_outbox SET status = 'SENT', attempts = 1, claim_token = 'other' WHERE id = ?", id);
+            return Collections.singletonList(new MailSendException("Read timed out"));
+        });
+
+        emailOutboxService.deliver(List.of(id));
+
+        EmailOutbox mail = emailOutboxRepository.findById(id).orElseThrow();
+        assertEquals(EmailOutbox.Status.SENT, mail.getStatus());
+        assertEquals(1, mail.getAttempts());
+        assertNull(mail.getLastError());
+        assertEquals("other", mail.getClaimToken());
+    }
+
+    private Long save() {
+        EmailOutbox mail = new EmailOutbox();
+        mail.setRecipient(RECIPIENT);
+        mail.setSubject("Subject");
+        mail.setBody("Body");
+        return emailOutboxRepository.save(mail).getId();
+    }
+}
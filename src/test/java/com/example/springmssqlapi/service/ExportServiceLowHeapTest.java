@@ -0,0 +1,89 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.VendorOnboardingApplication;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs in its own surefire execution with a deliberately small heap (see pom.xml), so the export
+ * only passes if rows are streamed rather than collected. The database is file-backed to keep the
+ * seeded rows themselves out of the test JVM's heap.
+ */
+@SpringBootTest(classes = VendorOnboardingApplication.class, properties = {
+    "spring.datasource.url=jdbc:h2:file:./target/h2/export-low-heap;CACHE_SIZE=4096;LAZY_QUERY_EXECUTION=1",
+    "export.fetch-size=500"
+})
+@ActiveProfiles("test")
+class ExportServiceLowHeapTest {
+
+    private static final int USER_COUNT = 300_000;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM users");
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < USER_COUNT; i++) {
+            batch.add(new Object[] {"Export User " + i, "export.user." + i + "@example.com", i % 2 == 0});
+            if (batch.size() == 5_000 || i == USER_COUNT - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO users (name, email, email_verified) VALUES (?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @Test
+    void exportsEveryUserAsOneJsonLine() throws Exception {
+        LineCountingOutputStream out = new LineCountingOutputStream();
+
+        long exported = exportService.exportUsers(out);
+
+        assertEquals(USER_COUNT, exported);
+        assertEquals(USER_COUNT, out.lines);
+        assertTrue(out.firstLine.startsWith("{\"id\":"), out.firstLine);
+        assertTrue(out.firstLine.contains("\"email\":\"export.user.0@example.com\""), out.firstLine);
+    }
+
+    /**
+     * Discards the export, keeping only the line count and the first line.
+     */
+    private static class LineCountingOutputStream extends OutputStream {
+        private final StringBuilder first = new StringBuilder();
+        private long lines;
+        private String firstLine = "";
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                if (lines++ == 0) {
+                    firstLine = first.toString();
+                }
+            } else if (lines == 0) {
+                first.append((char) b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
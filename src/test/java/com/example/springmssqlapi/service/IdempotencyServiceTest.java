@@ -0,0 +1,135 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.config.IdempotencyProperties;
+import com.example.springmssqlapi.exception.BadRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyServiceTest {
+
+    private static final int THREADS = 16;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentDuplicatesRunTheActionOnce() throws Exception {
+        IdempotencyService service = service(100);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<ResponseEntity<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return service.execute("create", "key-1", "payload", () -> {
+                    runs.incrementAndGet();
+                    sleep(50);
+                    return new ResponseEntity<>("created", HttpStatus.CREATED);
+                });
+            }));
+        }
+        start.countDown();
+
+        int replays = 0;
+        for (Future<ResponseEntity<String>> future : futures) {
+            ResponseEntity<String> response = future.get(10, TimeUnit.SECONDS);
+            assertEquals(HttpStatus.CREATED, response.getStatusCode());
+            assertEquals("created", response.getBody());
+            if ("true".equals(response.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER))) {
+                replays++;
+            }
+        }
+        assertEquals(1, runs.get());
+        assertEquals(THREADS - 1, replays);
+    }
+
+    @Test
+    void inFlightRequestSurvivesEvictionOfCompletedResponses() throws Exception {
+        IdempotencyService service = service(1);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<ResponseEntity<String>> first = executor.submit(() -> service.execute("create", "slow", "payload", () -> {
+            runs.incrementAndGet();
+            running.countDown();
+            await(release);
+            return ResponseEntity.ok("slow");
+        }));
+        running.await();
+        for (int i = 0; i < 100; i++) {
+            String key = "other-" + i;
+            service.execute("create", key, "payload", () -> ResponseEntity.ok(key));
+        }
+        Future<ResponseEntity<String>> duplicate = executor.submit(() -> service.execute("create", "slow", "payload", () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.ok("ran twice");
+        }));
+        release.countDown();
+
+        assertEquals("slow", first.get(10, TimeUnit.SECONDS).getBody());
+        assertEquals("slow", duplicate.get(10, TimeUnit.SECONDS).getBody());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void failureIsNotStoredAndReuseWithAnotherPayloadIsRejected() {
+        IdempotencyService service = service(100);
+
+        assertThrows(IllegalStateException.class, () -> service.execute("create", "key-2", "payload", () -> {
+            throw new IllegalStateException("mail server down");
+        }));
+        ResponseEntity<String> retried = service.execute("create", "key-2", "payload", () -> ResponseEntity.ok("second try"));
+
+        assertEquals("second try", retried.getBody());
+        assertNull(retried.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertThrows(BadRequestException.class, () ->
+            service.execute("create", "key-2", "other payload", () -> ResponseEntity.ok("never")));
+        assertTrue(service.execute("create", "key-2", "payload", () -> ResponseEntity.ok("never")).getHeaders()
+            .containsKey(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    private static IdempotencyService service(long maxKeys) {
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setMaxKeys(maxKeys);
+        return new IdempotencyService(properties, new SimpleMeterRegistry());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.service.OtpStore.VerificationResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryOtpStoreTest {
+
+    private static final String EMAIL = "memory@example.com";
+    private static final int THREADS = 16;
+    private static final int MAX_RETRIES = 5;
+
+    // A short tick so the wheel reclaims codes within the test
+    private final InMemoryOtpStore otpStore = new InMemoryOtpStore(4, Duration.ofMillis(10));
+
+    @AfterEach
+    void tearDown() {
+        otpStore.destroy();
+    }
+
+    @Test
+    void expiredCodeIsRefusedAndReclaimedByTheWheel() throws Exception {
+        otpStore.store(EMAIL, "Acme", "123456", LocalDateTime.now().minusSeconds(1));
+        assertEquals(VerificationResult.EXPIRED, otpStore.verify(EMAIL, "123456", MAX_RETRIES));
+
+        otpStore.store("other@example.com", "Acme", "654321", LocalDateTime.now().plusNanos(20_000_000));
+        otpStore.store("later@example.com", "Acme", "111111", LocalDateTime.now().plusMinutes(5));
+        for (int i = 0; i < 200 && otpStore.size() > 1; i++) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(1, otpStore.size());
+        assertEquals(VerificationResult.NOT_FOUND, otpStore.verify("other@example.com", "654321", MAX_RETRIES));
+        assertEquals(VerificationResult.VERIFIED, otpStore.verify("later@example.com", "111111", MAX_RETRIES));
+    }
+
+    @Test
+    void wheelKeepsANewerCodeForTheSameEmail() throws Exception {
+        otpStore.store(EMAIL, "Acme", "111111", LocalDateTime.now().plusNanos(20_000_000));
+        otpStore.store(EMAIL, "Acme", "222222", LocalDateTime.now().plusMinutes(5));
+        Thread.sleep(100);
+
+        assertEquals(VerificationResult.VERIFIED, otpStore.verify(EMAIL, "222222", MAX_RETRIES));
+    }
+
+    @Test
+    void codeIsDiscardedAfterTheLastAllowedMismatch() {
+        otpStore.store(EMAIL, "Acme", "123456", LocalDateTime.now().plusMinutes(5));
+
+        for (int i = 0; i < MAX_RETRIES; i++) {
+            assertEquals(VerificationResult.MISMATCH, otpStore.verify(EMAIL, "000000", MAX_RETRIES));
+        }
+
+        assertEquals(VerificationResult.NOT_FOUND, otpStore.verify(EMAIL, "123456", MAX_RETRIES));
+        assertEquals(0, otpStore.size());
+    }
+
+    @Test
+    void correctCodeVerifiesExactlyOnce() throws Exception {
+        otpStore.store(EMAIL, "Acme", "123456", LocalDateTime.now().plusMinutes(5));
+
+        Map<VerificationResult, Integer> results = verifyInParallel(i -> "123456");
+
+        assertEquals(1, results.get(VerificationResult.VERIFIED));
+        assertEquals(THREADS - 1, results.get(VerificationResult.NOT_FOUND));
+    }
+
+    @Test
+    void concurrentMismatchesNeverExceedRetryLimit() throws Exception {
+        otpStore.store(EMAIL, "Acme", "123456", LocalDateTime.now().plusMinutes(5));
+
+        Map<VerificationResult, Integer> results = verifyInParallel(i -> i % 2 == 0 ? "000000" : "123456");
+
+        int verified = results.getOrDefault(VerificationResult.VERIFIED, 0);
+        int mismatches = results.getOrDefault(VerificationResult.MISMATCH, 0);
+        assertTrue(verified <= 1, "verified " + verified + " times");
+        assertTrue(mismatches <= MAX_RETRIES, "counted " + mismatches + " mismatches");
+        assertEquals(0, otpStore.size());
+    }
+
+    private Map<VerificationResult, Integer> verifyInParallel(IntFunction<String> codeForThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<VerificationResult>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                String code = codeForThread.apply(i);
+                Callable<VerificationResult> attempt = () -> {
+                    start.await();
+                    return otpStore.verify(EMAIL, code, MAX_RETRIES);
+                };
+                futures.add(executor.submit(attempt));
+            }
+            start.countDown();
+
+            Map<VerificationResult, Integer> results = new EnumMap<>(VerificationResult.class);
+            for (Future<VerificationResult> future : futures) {
+                results.merge(future.get(), 1, Integer::sum);
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.springmssqlapi.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexLoadGateTest {
+
+    private final IndexLoadGate gate = new IndexLoadGate();
+    private final Map<Long, String> index = new ConcurrentHashMap<>();
+
+    @Test
+    void updatesCommittedDuringTheLoadWinOverStalePages() {
+        gate.load(() -> {
+            // Committed after the load started but before its page was read
+            gate.afterCommit(() -> index.put(1L, "renamed"));
+            gate.afterCommit(() -> index.remove(2L));
+            index.put(1L, "stale");
+            index.put(2L, "deleted");
+            assertEquals("stale", index.get(1L));
+        });
+
+        assertTrue(gate.isReady());
+        assertEquals(Map.of(1L, "renamed"), index);
+    }
+
+    @Test
+    void appliesUpdatesDirectlyOnceLoaded() {
+        gate.load(() -> { });
+        gate.afterCommit(() -> index.put(1L, "now"));
+
+        assertEquals("now", index.get(1L));
+    }
+
+    @Test
+    void failedLoadReplaysUpdatesButStaysNotReady() {
+        List<String> applied = new ArrayList<>();
+
+        assertThrows(IllegalStateException.class, () -> gate.load(() -> {
+            gate.afterCommit(() -> applied.add("queued"));
+            throw new IllegalStateException("database unavailable");
+        }));
+        gate.afterCommit(() -> applied.add("direct"));
+
+        assertFalse(gate.isReady());
+        assertEquals(List.of("queued", "direct"), applied);
+    }
+}
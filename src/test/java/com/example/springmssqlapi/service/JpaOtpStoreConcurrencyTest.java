@@ -0,0 +1,126 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.VendorOnboardingApplication;
+import com.example.springmssqlapi.entity.OtpCode;
+import com.example.springmssqlapi.repository.OtpCodeRepository;
+import com.example.springmssqlapi.service.OtpStore.VerificationResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = VendorOnboardingApplication.class)
+@ActiveProfiles("test")
+class JpaOtpStoreConcurrencyTest {
+
+    private static final String EMAIL = "parallel@example.com";
+    private static final int THREADS = 16;
+    private static final int MAX_RETRIES = 5;
+
+    @Autowired
+    private JpaOtpStore otpStore;
+
+    @Autowired
+    private OtpCodeRepository otpCodeRepository;
+
+    @AfterEach
+    void tearDown() {
+        otpCodeRepository.deleteAll();
+    }
+
+    @Test
+    void correctCodeVerifiesExactlyOnce() throws Exception {
+        otpStore.store(EMAIL, "Acme", "123456", LocalDateTime.now().plusMinutes(5));
+
+        Map<VerificationResult, Integer> results = verifyInParallel(i -> "123456");
+
+        assertEquals(1, results.get(VerificationResult.VERIFIED));
+        assertEquals(THREADS - 1, results.get(VerificationResult.NOT_FOUND));
+        assertEquals(VerificationResult.NOT_FOUND, otpStore.verify(EMAIL, "123456", MAX_RETRIES));
+    }
+
+    @Test
+    void wrongCodesNeverExceedRetryLimit() throws Exception {
+        otpStore.store(EMAIL, "Acme", "123456", LocalDateTime.now().plusMinutes(5));
+
+        Map<VerificationResult, Integer> results = verifyInParallel(i -> "000000");
+
+        assertEquals(MAX_RETRIES, results.get(VerificationResult.MISMATCH));
+        assertEquals(THREADS - MAX_RETRIES, results.get(VerificationResult.RETRIES_EXHAUSTED));
+        OtpCode stored = otpCodeRepository.findTopByEmailOrderByIdDesc(EMAIL).orElseThrow();
+        assertEquals(MAX_RETRIES, stored.getRetryCount());
+        // Once the limit is reached the correct code is refused as well
+        assertEquals(VerificationResult.RETRIES_EXHAUSTED, otpStore.verify(EMAIL, "123456", MAX_RETRIES));
+    }
+
+    @Test
+    void mixedAttemptsVerifyAtMostOnce() throws Exception {
+        otpStore.store(EMAIL, "Acme", "123456", LocalDateTime.now().plusMinutes(5));
+
+        Map<VerificationResult, Integer> results = verifyInParallel(i -> i % 2 == 0 ? "123456" : "999999");
+
+        int verified = results.getOrDefault(VerificationResult.VERIFIED, 0);
+        int mismatches = results.getOrDefault(VerificationResult.MISMATCH, 0);
+        assertTrue(verified <= 1, "verified " + verified + " times");
+        assertTrue(mismatches <= MAX_RETRIES, "counted " + mismatches + " mismatches");
+    }
+
+    @Test
+    void onlyTheNewestCodeIsAccepted() throws Exception {
+        otpStore.store(EMAIL, "Acme", "111111", LocalDateTime.now().plusMinutes(5));
+        otpStore.store(EMAIL, "Acme", "222222", LocalDateTime.now().plusMinutes(5));
+
+        Map<VerificationResult, Integer> results = verifyInParallel(i -> i % 2 == 0 ? "111111" : "222222");
+
+        assertEquals(1, results.get(VerificationResult.VERIFIED));
+        assertEquals(VerificationResult.NOT_FOUND, otpStore.verify(EMAIL, "111111", MAX_RETRIES));
+    }
+
+    @Test
+    void expiredCodeIsReportedAsExpired() {
+        otpStore.store(EMAIL, "Acme", "123456", LocalDateTime.now().minusSeconds(1));
+
+        assertEquals(VerificationResult.EXPIRED, otpStore.verify(EMAIL, "123456", MAX_RETRIES));
+    }
+
+    private Map<VerificationResult, Integer> verifyInParallel(IntFunction<String> codeForThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<VerificationResult>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                String code = codeForThread.apply(i);
+                Callable<VerificationResult> attempt = () -> {
+                    start.await();
+                    return otpStore.verify(EMAIL, code, MAX_RETRIES);
+                };
+                futures.add(executor.submit(attempt));
+            }
+            start.countDown();
+
+            Map<VerificationResult, Integer> results = new EnumMap<>(VerificationResult.class);
+            for (Future<VerificationResult> future : futures) {
+                results.merge(future.get(), 1, Integer::sum);
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.config.RateLimitProperties;
+import com.example.springmssqlapi.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitServiceTest {
+
+    private final RateLimitProperties properties = new RateLimitProperties();
+
+    @Test
+    void requestRefusedForItsEmailDoesNotUseUpTheClientAllowance() {
+        properties.setSendOtpPerEmail(new RateLimitProperties.Bucket(1, Duration.ofHours(1)));
+        properties.setSendOtpPerIp(new RateLimitProperties.Bucket(3, Duration.ofHours(1)));
+        RateLimitService service = new RateLimitService(properties, new SimpleMeterRegistry());
+
+        service.checkSendOtp("a@example.com", "10.0.0.1");
+        for (int i = 0; i < 5; i++) {
+            assertThrows(TooManyRequestsException.class, () -> service.checkSendOtp("A@example.com ", "10.0.0.1"));
+        }
+
+        assertDoesNotThrow(() -> service.checkSendOtp("b@example.com", "10.0.0.1"));
+        assertDoesNotThrow(() -> service.checkSendOtp("c@example.com", "10.0.0.1"));
+        TooManyRequestsException refused = assertThrows(TooManyRequestsException.class,
+            () -> service.checkSendOtp("d@example.com", "10.0.0.1"));
+        assertTrue(refused.getMessage().startsWith("Too many OTP requests from this client"), refused.getMessage());
+    }
+
+    @Test
+    void requestRefusedForItsClientDoesNotUseUpTheEmailAllowance() {
+        properties.setVerifyOtpPerEmail(new RateLimitProperties.Bucket(2, Duration.ofHours(1)));
+        properties.setVerifyOtpPerIp(new RateLimitProperties.Bucket(1, Duration.ofHours(1)));
+        RateLimitService service = new RateLimitService(properties, new SimpleMeterRegistry());
+
+        service.checkVerifyOtp("a@example.com", "10.0.0.1");
+        for (int i = 0; i < 5; i++) {
+            assertThrows(TooManyRequestsException.class, () -> service.checkVerifyOtp("a@example.com", "10.0.0.1"));
+        }
+
+        assertDoesNotThrow(() -> service.checkVerifyOtp("a@example.com", "10.0.0.2"));
+        assertThrows(TooManyRequestsException.class, () -> service.checkVerifyOtp("a@example.com", "10.0.0.3"));
+    }
+
+    @Test
+    void forwardedHeaderIsOnlyBelievedFromTrustedProxies() {
+        properties.setTrustedProxies(List.of("10.0.0.0/8", "192.168.1.10"));
+        ClientIpResolver resolver = new ClientIpResolver(properties);
+
+        assertEquals("203.0.113.7", resolver.resolve(request("10.1.2.3", "203.0.113.7")));
+        // The left-most entry is whatever the client sent; the right-most untrusted hop is the client
+        assertEquals("203.0.113.7", resolver.resolve(request("192.168.1.10", "6.6.6.6, 203.0.113.7, 10.4.4.4")));
+        assertEquals("198.51.100.1", resolver.resolve(request("198.51.100.1", "203.0.113.7")));
+        assertEquals("10.1.2.3", resolver.resolve(request("10.1.2.3", null)));
+        assertEquals("not-an-ip", resolver.resolve(request("10.1.2.3", "not-an-ip")));
+        assertEquals("10.1.2.3", new ClientIpResolver(new RateLimitProperties()).resolve(request("10.1.2.3", "203.0.113.7")));
+    }
+
+    @Test
+    void onlyIpLiteralsAreParsed() {
+        assertArrayEquals(new byte[] {(byte) 192, (byte) 168, 1, 10}, ClientIpResolver.toBytes("192.168.1.10"));
+        assertArrayEquals(new byte[] {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1}, ClientIpResolver.toBytes("::1"));
+        assertArrayEquals(new byte[] {0x20, 0x01, 0x0d, (byte) 0xb8, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0x01},
+            ClientIpResolver.toBytes("2001:DB8::1"));
+        assertArrayEquals(new byte[] {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, (byte) 0xff, (byte) 0xff, 10, 0, 0, 1},
+            ClientIpResolver.toBytes("::ffff:10.0.0.1"));
+        // Hex-only hostnames would otherwise go to DNS
+        for (String notALiteral : List.of("bad.cafe", "dead.beef", "a.b.c.d", "256.1.1.1", "1.2.3", "1.2.3.4.5",
+                "1:2:3:4:5:6:7:8:9", "1::2::3", ":1", "fe80::1%eth0", "[::1]", "1.2.3.04x")) {
+            assertNull(ClientIpResolver.toBytes(notALiteral), notALiteral);
+        }
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+}
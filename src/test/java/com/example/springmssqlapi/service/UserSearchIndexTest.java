@@ -0,0 +1,71 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.dto.UserSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserSearchIndexTest {
+
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserSearchIndex();
+        index.put(1L, "Mary Johnson", "mary@example.com", true);
+        index.put(2L, "John Smith", "jsmith@example.com", false);
+        index.put(3L, "Alice Jones", "johnny.a@example.com", true);
+        index.put(4L, "Bob Stevenson", "bob@example.com", false);
+    }
+
+    @Test
+    void ranksNameStartOverLaterWordOverEmailOverSubstring() {
+        assertEquals(List.of(2L, 1L, 3L), ids(index.search("john", 10)));
+        assertEquals(List.of(4L), ids(index.search("VENS", 10)));
+    }
+
+    @Test
+    void shortQueriesMatchWordStartsOnly() {
+        assertEquals(List.of(2L, 1L, 3L), ids(index.search("jo", 10)));
+        assertTrue(index.search("oh", 10).isEmpty());
+    }
+
+    @Test
+    void stopsAtTheLimit() {
+        assertEquals(List.of(2L), ids(index.search("john", 1)));
+        assertTrue(index.search("john", 0).isEmpty());
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    void updatesReplaceAndRemoveEntries() {
+        index.put(2L, "Jane Smith", "jane@example.com", true);
+        index.remove(1L);
+
+        assertEquals(List.of(3L), ids(index.search("john", 10)));
+        UserSummary jane = index.search("jane", 10).get(0);
+        assertEquals("jane@example.com", jane.getEmail());
+        assertEquals(true, jane.getEmailVerified());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void compactionKeepsLiveEntries() {
+        for (int round = 0; round < 1500; round++) {
+            index.put(4L, "Bob Stevenson " + round, "bob@example.com", false);
+        }
+
+        assertEquals(List.of(4L), ids(index.search("stevenson", 10)));
+        assertEquals("Bob Stevenson 1499", index.search("bob", 10).get(0).getName());
+        assertEquals(4, index.size());
+    }
+
+    private static List<Long> ids(List<UserSummary> users) {
+        return users.stream().map(UserSummary::getId).collect(Collectors.toList());
+    }
+}
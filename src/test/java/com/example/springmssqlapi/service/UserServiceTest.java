@@ -0,0 +1,83 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.VendorOnboardingApplication;
+import com.example.springmssqlapi.dto.BatchItemResult;
+import com.example.springmssqlapi.dto.UserPatchRequest;
+import com.example.springmssqlapi.dto.UserSummary;
+import com.example.springmssqlapi.entity.User;
+import com.example.springmssqlapi.exception.BadRequestException;
+import com.example.springmssqlapi.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = VendorOnboardingApplication.class)
+@ActiveProfiles("test")
+class UserServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Keeps welcome mails out of the outbox
+    @MockBean
+    private EmailOutboxService emailOutboxService;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE 'bulk-%'");
+    }
+
+    @Test
+    void createUsersTreatsCaseVariantsAsDuplicates() {
+        userRepository.save(new User("Existing", "bulk-existing@example.com"));
+
+        List<BatchItemResult<UserSummary>> results = userService.createUsers(List.of(
+            new User("Ann", " Bulk-Ann@Example.com "),
+            new User("Ann Again", "bulk-ann@example.COM"),
+            new User("Existing Again", "BULK-EXISTING@example.com"),
+            new User("Bob", "bulk-bob@example.com")
+        ));
+
+        List<BatchItemResult.Status> statuses = results.stream().map(BatchItemResult::getStatus).collect(Collectors.toList());
+        assertEquals(List.of(BatchItemResult.Status.CREATED, BatchItemResult.Status.DUPLICATE,
+            BatchItemResult.Status.DUPLICATE, BatchItemResult.Status.CREATED), statuses);
+        assertEquals("bulk-ann@example.com", results.get(0).getData().getEmail());
+        assertTrue(userRepository.existsByEmail("bulk-ann@example.com"));
+        assertEquals(3L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE LOWER(email) LIKE 'bulk-%'", Long.class));
+    }
+
+    @Test
+    void everyWritePathStoresTheNormalisedEmail() {
+        User saved = userService.saveUser(new User("Carol", " Bulk-Carol@Example.com"));
+        assertEquals("bulk-carol@example.com", saved.getEmail());
+        assertThrows(BadRequestException.class, () -> userService.saveUser(new User("Carol Again", "BULK-CAROL@example.com")));
+        assertEquals(saved.getId(), userService.getUserByEmail("Bulk-Carol@EXAMPLE.com").getId());
+
+        UserPatchRequest patch = new UserPatchRequest();
+        patch.setEmail("Bulk-Dave@Example.com");
+        assertEquals("bulk-dave@example.com", userService.patchUser(saved.getId(), patch).getEmail());
+
+        User update = new User("Carol", "BULK-Erin@example.com");
+        assertEquals("bulk-erin@example.com", userService.updateUser(saved.getId(), update).getEmail());
+
+        List<BatchItemResult<UserSummary>> results = userService.createUsers(List.of(new User("Erin", "bulk-erin@example.com")));
+        assertEquals(BatchItemResult.Status.DUPLICATE, results.get(0).getStatus());
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.dto.PossibleDuplicate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VendorDuplicateIndexTest {
+
+    private VendorDuplicateIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new VendorDuplicateIndex();
+        index.put(1L, "ABC", "ABC Corp Ltd.", "123 Main Street, Suite 100, New York, NY 10001");
+        index.put(2L, "Globex", "Globex Industries Inc", "1 Infinite Loop, Cupertino, CA");
+        index.put(3L, "Initech", "Initech LLC", "4120 Freidrich Lane, Austin, TX");
+    }
+
+    @Test
+    void normalizesInitialsAndLegalForms() {
+        assertEquals("abc", VendorDuplicateIndex.normalizeName("ABC Corp Ltd."));
+        assertEquals("abc", VendorDuplicateIndex.normalizeName("A.B.C. Corporation Limited"));
+        assertEquals("abc", VendorDuplicateIndex.normalizeName("A B C & Co"));
+        assertEquals("cafe mueller", VendorDuplicateIndex.normalizeName("Café Mueller GmbH"));
+        assertEquals("123 main st ste 100", VendorDuplicateIndex.normalizeAddress("123 Main Street, Suite 100"));
+    }
+
+    @Test
+    void findsDifferentlySpelledNameAsDuplicate() {
+        List<PossibleDuplicate> matches = index.findSimilar(10L, "A.B.C. Corporation Limited", "123 Main St., Ste 100, New York NY 10001", 0.7, 5);
+
+        assertEquals(List.of(1L), ids(matches));
+        assertEquals(1.0, matches.get(0).getNameSimilarity());
+        assertEquals(1.0, matches.get(0).getAddressSimilarity());
+    }
+
+    @Test
+    void similarNameAtSameAddressScoresAboveThreshold() {
+        List<PossibleDuplicate> matches = index.findSimilar(10L, "Initechs", "4120 Freidrich Ln, Austin TX", 0.7, 5);
+
+        assertEquals(List.of(3L), ids(matches));
+        assertTrue(matches.get(0).getNameSimilarity() < 0.7);
+    }
+
+    @Test
+    void excludesTheSubmittingVendorAndUnrelatedNames() {
+        assertTrue(index.findSimilar(1L, "ABC Corporation", "123 Main Street", 0.7, 5).isEmpty());
+        assertTrue(index.findSimilar(10L, "Umbrella Pharmaceuticals", "Raccoon City", 0.7, 5).isEmpty());
+    }
+
+    @Test
+    void updateReplacesThePreviousEntry() {
+        index.put(1L, "ABC", "Umbrella Pharmaceuticals", "Raccoon City");
+
+        assertTrue(index.findSimilar(10L, "ABC Corp", "123 Main Street", 0.7, 5).isEmpty());
+        assertEquals(List.of(1L), ids(index.findSimilar(10L, "Umbrella Pharmaceuticals Inc", null, 0.7, 5)));
+        assertEquals(3, index.size());
+    }
+
+    private static List<Long> ids(List<PossibleDuplicate> matches) {
+        return matches.stream().map(PossibleDuplicate::getVendorId).collect(Collectors.toList());
+    }
+}
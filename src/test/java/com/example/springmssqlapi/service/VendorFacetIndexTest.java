@@ -0,0 +1,80 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.dto.VendorFacetSearchResult;
+import com.example.springmssqlapi.service.VendorFacetIndex.Facet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class VendorFacetIndexTest {
+
+    private VendorFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new VendorFacetIndex();
+        vendor(1, "true", "Technology", "USD");
+        vendor(2, "true", "Technology", "EUR");
+        vendor(3, "true", "Finance", "USD");
+        vendor(4, "false", "Technology", "USD");
+        // Business details not submitted yet
+        index.update(5L, Map.of(Facet.ACTIVE, "true"));
+    }
+
+    @Test
+    void filtersAcrossFacetsAndCountsEachFacetWithoutItsOwnFilter() {
+        VendorFacetSearchResult result = index.search(Map.of(
+            Facet.INDUSTRY_SECTOR, Set.of("Technology"),
+            Facet.ACTIVE, Set.of("true")), 0, 10);
+
+        assertEquals(2, result.getTotal());
+        assertEquals(List.of(1L, 2L), result.getVendorIds());
+        // Active vendors by sector, and Technology vendors by active state
+        assertEquals(Map.of("Technology", 2, "Finance", 1), result.getFacets().get("industrySector"));
+        assertEquals(Map.of("true", 2, "false", 1), result.getFacets().get("active"));
+        assertEquals(Map.of("USD", 1, "EUR", 1), result.getFacets().get("currency"));
+    }
+
+    @Test
+    void valuesWithinAFacetAreAlternatives() {
+        VendorFacetSearchResult result = index.search(Map.of(Facet.CURRENCY, Set.of("USD", "EUR")), 0, 10);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), result.getVendorIds());
+        assertEquals(Map.of("true", 3, "false", 1), result.getFacets().get("active"));
+    }
+
+    @Test
+    void pagesWithCursor() {
+        VendorFacetSearchResult first = index.search(Map.of(), 0, 2);
+        VendorFacetSearchResult last = index.search(Map.of(), first.getNextCursor(), 10);
+
+        assertEquals(5, first.getTotal());
+        assertEquals(List.of(1L, 2L), first.getVendorIds());
+        assertEquals(List.of(3L, 4L, 5L), last.getVendorIds());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void updateMovesVendorToItsNewValue() {
+        vendor(2, "true", "Finance", "EUR");
+
+        VendorFacetSearchResult result = index.search(Map.of(), 0, 10);
+
+        assertEquals(Map.of("Technology", 2, "Finance", 2), result.getFacets().get("industrySector"));
+    }
+
+    private void vendor(long id, String active, String sector, String currency) {
+        Map<Facet, String> values = new EnumMap<>(Facet.class);
+        values.put(Facet.ACTIVE, active);
+        values.put(Facet.INDUSTRY_SECTOR, sector);
+        values.put(Facet.CURRENCY, currency);
+        index.update(id, values);
+    }
+}
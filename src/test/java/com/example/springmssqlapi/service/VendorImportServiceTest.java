@@ -0,0 +1,124 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.VendorOnboardingApplication;
+import com.example.springmssqlapi.dto.BatchItemResult;
+import com.example.springmssqlapi.dto.VendorImportStatus;
+import com.example.springmssqlapi.repository.BusinessDetailsRepository;
+import com.example.springmssqlapi.repository.VendorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Chunks of two rows, so duplicates are caught both within a chunk and against rows committed earlier
+@SpringBootTest(classes = VendorOnboardingApplication.class, properties = "vendor-import.chunk-size=2")
+@ActiveProfiles("test")
+class VendorImportServiceTest {
+
+    private static final String HEADER = "email,name,phoneNumber,business.legalBusinessName,business.businessRegistrationNumber," +
+        "business.businessType,business.yearEstablished,business.businessAddress,business.industrySector\r\n";
+
+    @Autowired
+    private VendorImportService importService;
+
+    @Autowired
+    private VendorRepository vendorRepository;
+
+    @Autowired
+    private BusinessDetailsRepository businessDetailsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM business_details WHERE business_registration_number LIKE 'IMP-%'");
+        jdbcTemplate.update("DELETE FROM vendors WHERE email LIKE 'import-%'");
+    }
+
+    @Test
+    void importsValidRowsAndReportsRejectedOnesByLine() throws Exception {
+        String existingEmail = vendorRepository.findAll().get(0).getEmail();
+        String csv = HEADER
+            + "import-a@example.com,\"Acme, Inc\",555-0100,Acme Inc,IMP-1,LLC,2010,\"1 Main St\nSpringfield\",Technology\r\n"
+            + "import-b@example.com,,,Bravo Ltd,IMP-2,LLC,abc,2 Main St,Technology\r\n"
+            + "import-c@example.com,Charlie,,,,,,,\r\n"
+            + "import-a@example.com,Acme Again,,,,,,,\r\n"
+            + existingEmail + ",Existing,,,,,,,\r\n";
+
+        VendorImportStatus status = await(importService.submit("vendors.csv", null, stream(csv)));
+
+        assertEquals(VendorImportStatus.State.COMPLETED, status.getState());
+        assertEquals(5, status.getRowsRead());
+        assertEquals(2, status.getRowsImported());
+        assertEquals(3, status.getRowsRejected());
+
+        List<String> errors = status.getErrors().stream()
+            .map(e -> e.getIndex() + " " + e.getStatus())
+            .sorted()
+            .collect(Collectors.toList());
+        assertEquals(List.of("4 INVALID", "6 DUPLICATE", "7 DUPLICATE"), errors);
+        BatchItemResult<String> invalid = status.getErrors().stream().filter(e -> e.getIndex() == 4).findFirst().orElseThrow();
+        assertTrue(invalid.getMessage().contains("business.yearEstablished"), invalid.getMessage());
+
+        Long acmeId = vendorRepository.findByEmail("import-a@example.com").orElseThrow().getId();
+        assertEquals("Acme, Inc", vendorRepository.findById(acmeId).orElseThrow().getName());
+        assertEquals("1 Main St\nSpringfield", businessDetailsRepository.findByVendorId(acmeId).orElseThrow().getBusinessAddress());
+        assertTrue(vendorRepository.existsByEmail("import-c@example.com"));
+        assertTrue(vendorRepository.findByEmail("import-b@example.com").isEmpty());
+    }
+
+    @Test
+    void caseVariantsAreDuplicates() throws Exception {
+        String csv = HEADER
+            + "Import-D@Example.com,Delta,,Delta Ltd,IMP-4,LLC,2010,4 Main St,Technology\r\n"
+            + "import-e@example.com,Echo,,Echo Ltd,imp-4 ,LLC,2011,5 Main St,Technology\r\n"
+            + "import-d@example.COM,Delta Again,,,,,,,\r\n"
+            + "IMPORT-D@EXAMPLE.COM,Delta Third,,,,,,,\r\n";
+
+        VendorImportStatus status = await(importService.submit("vendors.csv", null, stream(csv)));
+
+        assertEquals(VendorImportStatus.State.COMPLETED, status.getState());
+        assertEquals(1, status.getRowsImported());
+        List<String> errors = status.getErrors().stream()
+            .map(e -> e.getIndex() + " " + e.getStatus())
+            .sorted()
+            .collect(Collectors.toList());
+        assertEquals(List.of("3 DUPLICATE", "4 DUPLICATE", "5 DUPLICATE"), errors);
+        assertEquals("Delta", vendorRepository.findByEmail("import-d@example.com").orElseThrow().getName());
+    }
+
+    @Test
+    void unknownColumnFailsTheJob() throws Exception {
+        VendorImportStatus status = await(importService.submit("bad.csv", null, stream("email,name,business.shoeSize\r\nimport-x@example.com,X,42\r\n")));
+
+        assertEquals(VendorImportStatus.State.FAILED, status.getState());
+        assertEquals("Unknown column business.shoeSize", status.getFailure());
+        assertEquals(0, status.getRowsRead());
+    }
+
+    private VendorImportStatus await(VendorImportStatus submitted) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            VendorImportStatus status = importService.status(submitted.getJobId());
+            if (status.getState() == VendorImportStatus.State.COMPLETED || status.getState() == VendorImportStatus.State.FAILED) {
+                return status;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Import " + submitted.getJobId() + " did not finish");
+    }
+
+    private static ByteArrayInputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
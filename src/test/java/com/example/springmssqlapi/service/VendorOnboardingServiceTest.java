@@ -0,0 +1,144 @@
+package com.example.springmssqlapi.service;
+
+import com.example.springmssqlapi.VendorOnboardingApplication;
+import com.example.springmssqlapi.dto.OnboardingStatus;
+import com.example.springmssqlapi.entity.ContactDetails;
+import com.example.springmssqlapi.entity.OnboardingSection;
+import com.example.springmssqlapi.entity.Vendor;
+import com.example.springmssqlapi.entity.VendorDocument;
+import com.example.springmssqlapi.exception.ConflictException;
+import com.example.springmssqlapi.repository.VendorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = VendorOnboardingApplication.class)
+@ActiveProfiles("test")
+class VendorOnboardingServiceTest {
+
+    @Autowired
+    private VendorOnboardingService onboardingService;
+
+    @Autowired
+    private VendorRepository vendorRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long vendorId;
+
+    @BeforeEach
+    void setUp() {
+        Vendor vendor = new Vendor();
+        vendor.setEmail("onboarding-" + System.nanoTime() + "@example.com");
+        vendor.setName("Onboarding Test Vendor");
+        vendorId = vendorRepository.save(vendor).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM contact_details WHERE vendor_id = ?", vendorId);
+        jdbcTemplate.update("DELETE FROM vendor_documents WHERE vendor_id = ?", vendorId);
+        jdbcTemplate.update("DELETE FROM vendors WHERE id = ?", vendorId);
+    }
+
+    @Test
+    void resubmissionOverwritesTheSectionRow() {
+        ContactDetails first = onboardingService.saveContactDetails(vendorId, contact("Ann"));
+        ContactDetails second = onboardingService.saveContactDetails(vendorId, contact("Bob"));
+
+        assertEquals(first.getId(), second.getId());
+        assertEquals("Bob", onboardingService.getContactDetails(vendorId).getPrimaryContactName());
+        assertEquals(1, contactRows());
+    }
+
+    @Test
+    void statusReportsSubmittedSectionsAndDocuments() {
+        assertTrue(onboardingService.getStatus(vendorId).getSubmittedSections().isEmpty());
+
+        onboardingService.saveContactDetails(vendorId, contact("Ann"));
+        onboardingService.attachDocument(vendorId, OnboardingSection.COMPLIANCE, "old.pdf", "application/pdf", new BlobStore.StoredBlob("a".repeat(64), 1));
+        VendorDocument replacement = onboardingService.attachDocument(vendorId, OnboardingSection.COMPLIANCE, "new.pdf", "application/pdf", new BlobStore.StoredBlob("b".repeat(64), 2));
+
+        OnboardingStatus status = onboardingService.getStatus(vendorId);
+        assertEquals(Set.of(OnboardingSection.CONTACT), status.getSubmittedSections());
+        assertEquals(Set.of(OnboardingSection.COMPLIANCE), status.getDocuments());
+        assertFalse(status.isComplete());
+        assertEquals(replacement.getId(), onboardingService.getDocument(vendorId, OnboardingSection.COMPLIANCE).getId());
+        assertEquals("b".repeat(64), onboardingService.getDocument(vendorId, OnboardingSection.COMPLIANCE).getContentHash());
+    }
+
+    @Test
+    void racingFirstSubmissionIsAConflict() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        try {
+            // The winner inserts its row and holds the transaction open while the loser runs
+            Future<ContactDetails> winner = executor.submit(() -> transactionTemplate.execute(tx -> {
+                ContactDetails saved = onboardingService.saveContactDetails(vendorId, contact("Ann"));
+                inserted.countDown();
+                await(commit);
+                return saved;
+            }));
+            assertTrue(inserted.await(10, TimeUnit.SECONDS));
+            Future<ContactDetails> loser = executor.submit(() -> onboardingService.saveContactDetails(vendorId, contact("Bob")));
+            // The loser may be waiting on the winner's uncommitted row; let the winner commit
+            Thread.sleep(200);
+            commit.countDown();
+
+            winner.get(10, TimeUnit.SECONDS);
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> loser.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(ConflictException.class, failure.getCause());
+        } finally {
+            commit.countDown();
+            executor.shutdownNow();
+        }
+
+        assertEquals("Ann", onboardingService.getContactDetails(vendorId).getPrimaryContactName());
+        assertEquals(1, contactRows());
+    }
+
+    private long contactRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM contact_details WHERE vendor_id = ?", Long.class, vendorId);
+    }
+
+    private static ContactDetails contact(String name) {
+        ContactDetails details = new ContactDetails();
+        details.setPrimaryContactName(name);
+        details.setJobTitle("Director");
+        details.setEmailAddress(name.toLowerCase() + "@example.com");
+        details.setPhoneNumber("+1 555 010 0100");
+        return details;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}